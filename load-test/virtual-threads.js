@@ -0,0 +1,67 @@
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e VUS=1000 -e MODE=virtual load-test/virtual-threads.js
+// Run once with VIRTUAL_THREADS_ENABLED=false and once with true, and compare the summaries.
+import http from 'k6/http';
+import { check, fail } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '1000');
+const DURATION = __ENV.DURATION || '2m';
+const MODE = __ENV.MODE || 'platform';
+
+export const options = {
+    discardResponseBodies: true,
+    scenarios: {
+        leitura: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+    tags: { mode: MODE },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const signIn = http.post(`${BASE_URL}/api/auth/sign-in`,
+        JSON.stringify({ username: __ENV.USERNAME || 'admin', password: __ENV.PASSWORD || 'admin' }),
+        { headers: { 'Content-Type': 'application/json' }, responseType: 'text' });
+    if (signIn.status !== 200) {
+        fail(`sign-in failed with status ${signIn.status}`);
+    }
+    const headers = { Authorization: `Bearer ${signIn.json('accessToken')}`, Accept: 'application/json' };
+
+    const page = http.get(`${BASE_URL}/api/produto/page?size=100`, { headers, responseType: 'text' });
+    const ids = (page.json('content') || []).map((produto) => produto.uuid);
+    if (ids.length === 0) {
+        fail('no produto found, load some stock items before running the test');
+    }
+    return { headers, ids };
+}
+
+export default function (data) {
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const byId = http.get(`${BASE_URL}/api/produto/${id}`, { headers: data.headers, tags: { name: 'produto/{id}' } });
+    check(byId, { 'produto 200': (response) => response.status === 200 });
+
+    const page = http.get(`${BASE_URL}/api/produto/page?size=20`, { headers: data.headers, tags: { name: 'produto/page' } });
+    check(page, { 'page 200': (response) => response.status === 200 });
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const line = `[${MODE}] vus=${VUS} req/s=${data.metrics.http_reqs.values.rate.toFixed(1)} ` +
+        `p95=${duration['p(95)'].toFixed(1)}ms p99=${duration['p(99)'].toFixed(1)}ms ` +
+        `failed=${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%\n`;
+    return {
+        stdout: line,
+        [`load-test/result-${MODE}.json`]: JSON.stringify(data, null, 2),
+    };
+}
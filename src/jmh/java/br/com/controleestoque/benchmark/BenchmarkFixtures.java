@@ -0,0 +1,88 @@
+package br.com.controleestoque.benchmark;
+
+import br.com.controleestoque.model.entity.Permission;
+import br.com.controleestoque.model.entity.Pessoa;
+import br.com.controleestoque.model.entity.ProdutoEstoque;
+import br.com.controleestoque.model.entity.TipoProduto;
+import br.com.controleestoque.model.entity.User;
+import br.com.controleestoque.repository.RefreshTokenFamilyRepository;
+import br.com.controleestoque.repository.RevokedTokenRepository;
+import br.com.controleestoque.security.jwt.RefreshTokenFamilies;
+import br.com.controleestoque.security.jwt.TokenRevocationList;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static ProdutoEstoque produtoEstoque() {
+        return ProdutoEstoque.builder()
+                .uuid(UUID.randomUUID())
+                .marca("Marca Teste")
+                .quantidadePacote(10)
+                .dataEntrega(LocalDate.of(2024, 1, 15))
+                .tamanhoPacote("1KG")
+                .tipoProduto(TipoProduto.builder().uuid(UUID.randomUUID()).nome("Arroz").build())
+                .pessoa(Pessoa.builder().uuid(UUID.randomUUID()).nome("Rafael").sobrenome("Gabriel").build())
+                .build();
+    }
+
+    static User user() {
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .username("admin")
+                .fullName("Administrador do Sistema")
+                .password("$2a$10$hash")
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enable(true)
+                .permissions(List.of(permission("ADMIN"), permission("MANAGER")))
+                .build();
+    }
+
+    static Permission permission(String description) {
+        return Permission.builder().uuid(UUID.randomUUID()).description(description).build();
+    }
+
+    // Backed by a repository with no revoked rows, loaded up front so the first measured call does not load it
+    static TokenRevocationList revocationList() {
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findActiveRevokedSince" -> List.of();
+                    case "deleteExpired" -> 0;
+                    default -> null;
+                });
+        TokenRevocationList revocationList = new TokenRevocationList(repository, 60000, 0);
+        revocationList.isRevoked(null);
+        return revocationList;
+    }
+
+    // Backed by a repository that stores nothing and accepts every rotation, so only the tokens are measured
+    static RefreshTokenFamilies refreshTokenFamilies() {
+        RefreshTokenFamilyRepository repository = (RefreshTokenFamilyRepository) Proxy.newProxyInstance(
+                RefreshTokenFamilyRepository.class.getClassLoader(), new Class<?>[]{RefreshTokenFamilyRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "rotate", "deleteExpired" -> 1;
+                    case "existsActive" -> true;
+                    default -> null;
+                });
+        return new RefreshTokenFamilies(repository, 0);
+    }
+
+    static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produto-estoque/");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
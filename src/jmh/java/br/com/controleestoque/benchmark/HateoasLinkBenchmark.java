@@ -0,0 +1,79 @@
+package br.com.controleestoque.benchmark;
+
+import br.com.controleestoque.controller.PessoaController;
+import br.com.controleestoque.controller.ProdutoEstoqueController;
+import br.com.controleestoque.controller.UserController;
+import br.com.controleestoque.util.HateoasLinkFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HateoasLinkBenchmark {
+    private static final HateoasLinkFactory<ProdutoEstoqueController> PRODUTO_ESTOQUE_LINK =
+            HateoasLinkFactory.of(ProdutoEstoqueController.class, (controller, id) -> controller.findById(id, null));
+
+    private UUID id;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        id = UUID.randomUUID();
+        ids = Stream.generate(UUID::randomUUID).limit(10_000).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Link produtoEstoqueSelfLink() {
+        return linkTo(methodOn(ProdutoEstoqueController.class).findById(id, null)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link produtoEstoqueSelfLinkFactory() {
+        return PRODUTO_ESTOQUE_LINK.selfLink(id);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Link> produtoEstoqueSelfLinks10k() {
+        return ids.stream()
+                .map(uuid -> linkTo(methodOn(ProdutoEstoqueController.class).findById(uuid, null)).withSelfRel())
+                .toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Link> produtoEstoqueSelfLinks10kFactory() {
+        return ids.stream()
+                .map(PRODUTO_ESTOQUE_LINK::selfLink)
+                .toList();
+    }
+
+    @Benchmark
+    public Link pessoaSelfLink() {
+        return linkTo(methodOn(PessoaController.class).findById(id, null)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link userSelfLink() {
+        return linkTo(methodOn(UserController.class).findById(id, null)).withSelfRel();
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.controleestoque.benchmark;
+
+import br.com.controleestoque.security.jwt.JwtTokenFilter;
+import br.com.controleestoque.security.jwt.JwtTokenProvider;
+import br.com.controleestoque.security.jwt.PrincipalCache;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+    private static final String SECRET = "53cr37";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtTokenFilter jwtTokenFilter;
+    private byte[] keyBytes;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        // Stateless authentication keeps the database out of the measurement for both variants
+        jwtTokenProvider = new JwtTokenProvider(null, new PrincipalCache(300, 10000),
+                BenchmarkFixtures.revocationList(), BenchmarkFixtures.refreshTokenFamilies());
+        ReflectionTestUtils.setField(jwtTokenProvider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "validityInMilliseconds", 3600000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessAuthentication", true);
+        ReflectionTestUtils.setField(jwtTokenProvider, "verifiedTokenCacheMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+        jwtTokenFilter = new JwtTokenFilter(jwtTokenProvider);
+        keyBytes = Base64.getEncoder().encodeToString(SECRET.getBytes()).getBytes();
+
+        Instant now = Instant.now();
+        String token = JWT.create()
+                .withClaim("roles", List.of("ADMIN", "MANAGER"))
+                .withIssuedAt(now)
+                .withExpiresAt(now.plusSeconds(3600))
+                .withSubject("admin")
+                .withIssuer("http://localhost:8080")
+                .sign(Algorithm.HMAC256(keyBytes));
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() {
+        // Previous behaviour: a new Algorithm and JWTVerifier per decode, and two decodes per request
+        String token = jwtTokenProvider.resolveToken(request);
+        DecodedJWT validated = JWT.require(Algorithm.HMAC256(keyBytes)).build().verify(token);
+        if (!validated.getExpiresAt().before(new Date())) {
+            DecodedJWT decodedJWT = JWT.require(Algorithm.HMAC256(keyBytes)).build().verify(token);
+            SecurityContextHolder.getContext().setAuthentication(jwtTokenProvider.getAuthentication(decodedJWT));
+        }
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication verifyOnceFilter() throws Exception {
+        jwtTokenFilter.doFilter(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
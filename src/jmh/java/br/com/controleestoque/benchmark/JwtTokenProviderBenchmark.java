@@ -0,0 +1,61 @@
+package br.com.controleestoque.benchmark;
+
+import br.com.controleestoque.model.entity.Permission;
+import br.com.controleestoque.security.TokenDTO;
+import br.com.controleestoque.security.jwt.JwtTokenProvider;
+import br.com.controleestoque.security.jwt.PrincipalCache;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+    private JwtTokenProvider jwtTokenProvider;
+    private JWTVerifier jwtVerifier;
+    private List<Permission> roles;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        jwtTokenProvider = new JwtTokenProvider(null, new PrincipalCache(300, 10000),
+                BenchmarkFixtures.revocationList(), BenchmarkFixtures.refreshTokenFamilies());
+        ReflectionTestUtils.setField(jwtTokenProvider, "secretKey", "53cr37");
+        ReflectionTestUtils.setField(jwtTokenProvider, "validityInMilliseconds", 3600000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "verifiedTokenCacheMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+        jwtVerifier = (JWTVerifier) ReflectionTestUtils.getField(jwtTokenProvider, "jwtVerifier");
+        roles = List.of(BenchmarkFixtures.permission("ADMIN"), BenchmarkFixtures.permission("MANAGER"));
+        accessToken = jwtTokenProvider.createAccessToken("admin", roles).getAccessToken();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public TokenDTO createAccessToken() {
+        return jwtTokenProvider.createAccessToken("admin", roles);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyToken() {
+        return jwtTokenProvider.verifyToken(accessToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyTokenUncached() {
+        return jwtVerifier.verify(accessToken);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.controleestoque.benchmark;
+
+import br.com.controleestoque.model.dto.PessoaDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.dto.TipoProdutoDTO;
+import br.com.controleestoque.model.dto.UserDTO;
+import br.com.controleestoque.model.entity.Pessoa;
+import br.com.controleestoque.model.entity.ProdutoEstoque;
+import br.com.controleestoque.model.entity.TipoProduto;
+import br.com.controleestoque.model.entity.User;
+import br.com.controleestoque.model.mapper.PessoaMapper;
+import br.com.controleestoque.model.mapper.ProdutoEstoqueMapper;
+import br.com.controleestoque.model.mapper.TipoProdutoMapper;
+import br.com.controleestoque.model.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private ProdutoEstoque produtoEstoque;
+    private ProdutoEstoqueDTO produtoEstoqueDTO;
+    private User user;
+    private UserDTO userDTO;
+    private Pessoa pessoa;
+    private TipoProduto tipoProduto;
+
+    @Setup
+    public void setUp() {
+        produtoEstoque = BenchmarkFixtures.produtoEstoque();
+        produtoEstoqueDTO = ProdutoEstoqueMapper.INSTANCE.entityToDto(produtoEstoque);
+        user = BenchmarkFixtures.user();
+        userDTO = UserMapper.INSTANCE.entityToDto(user);
+        pessoa = produtoEstoque.getPessoa();
+        tipoProduto = produtoEstoque.getTipoProduto();
+    }
+
+    @Benchmark
+    public ProdutoEstoqueDTO produtoEstoqueEntityToDto() {
+        return ProdutoEstoqueMapper.INSTANCE.entityToDto(produtoEstoque);
+    }
+
+    @Benchmark
+    public ProdutoEstoque produtoEstoqueDtoToEntity() {
+        return ProdutoEstoqueMapper.INSTANCE.dtoToEntity(produtoEstoqueDTO);
+    }
+
+    @Benchmark
+    public UserDTO userEntityToDto() {
+        return UserMapper.INSTANCE.entityToDto(user);
+    }
+
+    @Benchmark
+    public User userDtoToEntity() {
+        return UserMapper.INSTANCE.dtoToEntity(userDTO);
+    }
+
+    @Benchmark
+    public PessoaDTO pessoaEntityToDto() {
+        return PessoaMapper.INSTANCE.entityToDto(pessoa);
+    }
+
+    @Benchmark
+    public TipoProdutoDTO tipoProdutoEntityToDto() {
+        return TipoProdutoMapper.INSTANCE.entityToDto(tipoProduto);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.controleestoque.benchmark;
+
+import br.com.controleestoque.config.serialization.converter.YamlJackson2HttpMesageConverter;
+import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.mapper.ProdutoEstoqueMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageConverterBenchmark {
+    private static final MediaType APPLICATION_YML = MediaType.valueOf("application/x-yaml");
+
+    @Param({"1", "100"})
+    private int items;
+
+    private List<ProdutoEstoqueDTO> body;
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    private MappingJackson2XmlHttpMessageConverter xmlConverter;
+    private YamlJackson2HttpMesageConverter yamlConverter;
+
+    @Setup
+    public void setUp() {
+        body = IntStream.range(0, items)
+                .mapToObj(i -> ProdutoEstoqueMapper.INSTANCE.entityToDto(BenchmarkFixtures.produtoEstoque()))
+                .toList();
+        jsonConverter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        xmlConverter = new MappingJackson2XmlHttpMessageConverter(Jackson2ObjectMapperBuilder.xml().build());
+        yamlConverter = new YamlJackson2HttpMesageConverter();
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return write(jsonConverter, MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public byte[] writeXml() throws IOException {
+        return write(xmlConverter, MediaType.APPLICATION_XML);
+    }
+
+    @Benchmark
+    public byte[] writeYaml() throws IOException {
+        return write(yamlConverter, APPLICATION_YML);
+    }
+
+    private byte[] write(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(body, List.class, mediaType, outputMessage);
+        return outputMessage.getBodyAsBytes();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.controleestoque.config;
+
+import br.com.controleestoque.model.entity.Permission;
+import br.com.controleestoque.model.entity.Pessoa;
+import br.com.controleestoque.model.entity.TipoProduto;
+import br.com.controleestoque.model.entity.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CacheConfig {
+    public static final List<String> REFERENCE_REGIONS = List.of(
+            Pessoa.class.getName(),
+            TipoProduto.class.getName(),
+            Permission.class.getName(),
+            User.class.getName() + ".permissions",
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Value("${cache.reference.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${cache.reference.max-size:10000}")
+    private long maxSize;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A distinct URI per context keeps test contexts from sharing already-created regions
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+                URI.create("controleestoque-" + UUID.randomUUID()), getClass().getClassLoader());
+        REFERENCE_REGIONS.forEach(region -> cacheManager.createCache(region, referenceRegionConfiguration()));
+        // Query results are only trusted against these timestamps, so they must never expire first
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestampsRegionConfiguration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> referenceRegionConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private CaffeineConfiguration<Object, Object> timestampsRegionConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
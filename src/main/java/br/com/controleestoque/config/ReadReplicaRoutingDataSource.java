@@ -0,0 +1,64 @@
+package br.com.controleestoque.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Must sit behind a LazyConnectionDataSourceProxy, the read-only flag is only bound after the transaction begins
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                        ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primaryDataSource, Target.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    // For reads whose result outlives the request (shared caches), where replica lag would be kept around
+    public static PrimaryOnlyScope primaryOnly() {
+        boolean nested = PRIMARY_ONLY.get() != null;
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return () -> {
+            if (!nested) {
+                PRIMARY_ONLY.remove();
+            }
+        };
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_ONLY.get() == null
+                && replicaLagMonitor.isReplicaUsable() ? Target.REPLICA : Target.PRIMARY;
+        applySecondLevelCacheMode(target);
+        return target;
+    }
+
+    // Rows read from the replica may predate a write that already evicted them, and the second-level cache would keep
+    // them far longer than the replica lags, so only sessions reading from the primary put entities and collections.
+    // Cacheable queries settle on putting before the connection is acquired, they must run inside primaryOnly().
+    private static void applySecondLevelCacheMode(Target target) {
+        CacheMode cacheMode = target == Target.REPLICA ? CacheMode.GET : CacheMode.NORMAL;
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder entityManagerHolder) {
+                entityManagerHolder.getEntityManager().unwrap(Session.class).setCacheMode(cacheMode);
+            }
+        }
+    }
+
+    public interface PrimaryOnlyScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.controleestoque.config;
+
+import br.com.controleestoque.util.TransactionUtil;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ReferenceCacheEvictor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceCacheEvictor.class);
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Class<?> entityClass, Object id) {
+        LOGGER.debug("Evicting {} with ID {} from second-level cache", entityClass.getSimpleName(), id);
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        TransactionUtil.invalidateNowAndAfterCommit(() -> {
+            cache.evictEntityData(entityClass, id);
+            cache.evictDefaultQueryRegion();
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.controleestoque.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaLagMonitor implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    // A standby that replayed all it received is current even with an idle primary, but only while its WAL receiver
+    // is streaming: a disconnected one stops at equal positions and would report no lag. Otherwise the lag is the age
+    // of the last replayed transaction, NULL counts as unusable. The receiver status needs pg_read_all_stats.
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+    private final DataSource replicaDataSource;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+    private ScheduledExecutorService scheduler;
+    private volatile long lagMillis = -1;
+    private volatile long checkedAtMillis;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMillis, long checkIntervalMillis) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagMillis = maxLagMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    public void start() {
+        refresh();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // A measurement that stopped arriving counts as stale, so a hung replica also falls back to the primary
+    public boolean isReplicaUsable() {
+        return usable && System.currentTimeMillis() - checkedAtMillis <= checkIntervalMillis * 3;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    void refresh() {
+        boolean wasUsable = usable;
+        try {
+            lagMillis = measureLagMillis();
+            usable = lagMillis >= 0 && lagMillis <= maxLagMillis;
+        } catch (SQLException | RuntimeException e) {
+            lagMillis = -1;
+            usable = false;
+            if (wasUsable) {
+                LOGGER.warn("Could not measure read replica lag: {}", e.getMessage());
+            }
+        }
+        checkedAtMillis = System.currentTimeMillis();
+        if (usable && !wasUsable) {
+            LOGGER.info("Read replica is serving reads, lag: {} ms", lagMillis);
+        } else if (wasUsable && !usable) {
+            LOGGER.warn("Read replica bypassed, reads go to the primary, lag: {} ms, max lag: {} ms", lagMillis, maxLagMillis);
+        }
+    }
+
+    long measureLagMillis() throws SQLException {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            long lag = resultSet.getLong(1);
+            return resultSet.wasNull() ? -1 : lag;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.controleestoque.config;
+
+import br.com.controleestoque.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Encoded list responses served by ResponseBytesCacheFilter, dropped by the services whenever the list changes
+@Component
+public class ResponseBytesCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseBytesCache.class);
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<Region, AtomicLong> generations = new EnumMap<>(Region.class);
+
+    public ResponseBytesCache(@Value("${cache.response.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${cache.response.max-size:256}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        for (Region region : Region.values()) {
+            generations.put(region, new AtomicLong());
+        }
+    }
+
+    public CachedResponse get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public long generation(Region region) {
+        return generations.get(region).get();
+    }
+
+    // A response rendered while the list changed is discarded, otherwise it would outlive the invalidation
+    public void put(Key key, CachedResponse response, long generation) {
+        cache.put(key, response);
+        if (generations.get(key.region()).get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidate(Region region) {
+        LOGGER.debug("Invalidating cached {} responses", region);
+        TransactionUtil.invalidateNowAndAfterCommit(() -> {
+            generations.get(region).incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> key.region() == region);
+        });
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public enum Region {
+        TIPO_PRODUTO,
+        PERMISSION
+    }
+
+    // The base URL is part of the key because the HATEOAS links in the body are absolute
+    public record Key(Region region, String baseUrl, String accept) {
+    }
+
+    public record CachedResponse(String contentType, String eTag, long lastModified, byte[] body) {
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.controleestoque.config;
+
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
+import br.com.controleestoque.config.ResponseBytesCache.CachedResponse;
+import br.com.controleestoque.config.ResponseBytesCache.Key;
+import br.com.controleestoque.config.ResponseBytesCache.Region;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static br.com.controleestoque.shared.constant.PathsConstants.*;
+
+// Registered after the security chain, so CORS and authorization still apply to cached responses
+@Component
+@RequiredArgsConstructor
+public class ResponseBytesCacheFilter extends OncePerRequestFilter {
+    private static final Map<String, Region> CACHED_PATHS = Map.of(
+            TIPO_PRODUTO_BASE + TIPO_PRODUTO_ALL, Region.TIPO_PRODUTO,
+            AUTH_BASE + AUTH_PERMISSION_ALL, Region.PERMISSION);
+    private static final String[] FORWARDED_HEADERS = {
+            "Forwarded", "X-Forwarded-Host", "X-Forwarded-Port", "X-Forwarded-Proto", "X-Forwarded-Prefix", "X-Forwarded-Ssl"};
+    private final ResponseBytesCache responseBytesCache;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || !CACHED_PATHS.containsKey(pathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Region region = CACHED_PATHS.get(pathWithinApplication(request));
+        Key key = new Key(region, baseUrl(request), request.getHeader(HttpHeaders.ACCEPT));
+        CachedResponse cached = responseBytesCache.get(key);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        long generation = responseBytesCache.generation(region);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        // A lagging replica could still return the list from before the write that just invalidated the entry
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            filterChain.doFilter(request, responseWrapper);
+        }
+        if (responseWrapper.getStatus() == HttpServletResponse.SC_OK && responseWrapper.getContentType() != null) {
+            responseBytesCache.put(key, new CachedResponse(responseWrapper.getContentType(),
+                    responseWrapper.getHeader(HttpHeaders.ETAG), lastModified(responseWrapper),
+                    responseWrapper.getContentAsByteArray()), generation);
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached) throws IOException {
+        if (cached.eTag() != null
+                && new ServletWebRequest(request, response).checkNotModified(cached.eTag(), cached.lastModified())) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private static long lastModified(HttpServletResponse response) {
+        String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+        return lastModified == null
+                ? -1 : ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String baseUrl(HttpServletRequest request) {
+        StringBuilder baseUrl = new StringBuilder()
+                .append(request.getScheme()).append("://")
+                .append(request.getServerName()).append(':').append(request.getServerPort())
+                .append(request.getContextPath());
+        for (String header : FORWARDED_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                baseUrl.append('|').append(header).append('=').append(value);
+            }
+        }
+        return baseUrl.toString();
+    }
+}
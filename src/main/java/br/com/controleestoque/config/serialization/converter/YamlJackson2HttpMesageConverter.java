@@ -1,7 +1,9 @@
 package br.com.controleestoque.config.serialization.converter;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 
@@ -10,8 +12,10 @@ public class YamlJackson2HttpMesageConverter extends AbstractJackson2HttpMessage
     public YamlJackson2HttpMesageConverter() {
         super(new YAMLMapper()
                         .setSerializationInclusion(
-                                JsonInclude.Include.NON_NULL),
+                                JsonInclude.Include.NON_NULL)
+                        .registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
                 MediaType.parseMediaType("application/x-yaml")
         );
     }
-}
\ No newline at end of file
+}
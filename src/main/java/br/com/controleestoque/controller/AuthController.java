@@ -43,6 +43,7 @@ public class AuthController {
                             content = @Content(schema = @Schema(implementation = TokenDTO.class))),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
             })
     public ResponseEntity<?> signIn(@RequestBody AccountCredentialsDTO accountCredentialsDTO) {
         LOGGER.info("Request to sign in");
@@ -87,6 +88,26 @@ public class AuthController {
         return ResponseEntity.ok(token);
     }
 
+    @PostMapping(value = AUTH_SIGN_OUT)
+    @Operation(summary = "Encerramento da Sessão",
+            description = "Revoga o token de acesso informado e todos os tokens de atualização emitidos com ele",
+            tags = {"Autenticação"},
+            responses = {
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            })
+    public ResponseEntity<?> signOut(@RequestHeader("Authorization") String accessToken) {
+        LOGGER.info("Request to sign out");
+
+        if (accessToken == null || accessToken.isBlank()) {
+            return ResponseEntity.badRequest().body(INVALID_CLIENT_REQUEST);
+        }
+
+        authService.signOut(accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
     private boolean areSignInParamsInvalid(AccountCredentialsDTO accountCredentialsDTO) {
         return accountCredentialsDTO == null ||
                 accountCredentialsDTO.getUsername() == null || accountCredentialsDTO.getUsername().isBlank() ||
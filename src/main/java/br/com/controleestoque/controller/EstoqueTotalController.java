@@ -0,0 +1,144 @@
+package br.com.controleestoque.controller;
+
+import br.com.controleestoque.model.dto.EstoqueTotalConsistencyDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+import br.com.controleestoque.service.EstoqueTotalService;
+import br.com.controleestoque.util.MediaType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static br.com.controleestoque.shared.constant.PathsConstants.*;
+
+@RestController
+@RequestMapping(ESTOQUE_TOTAL_BASE)
+@Tag(name = "Total em Estoque", description = "Endpoints para Consultar os Totais de Estoque")
+public class EstoqueTotalController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EstoqueTotalController.class);
+    private final EstoqueTotalService estoqueTotalService;
+
+    public EstoqueTotalController(EstoqueTotalService estoqueTotalService) {
+        this.estoqueTotalService = estoqueTotalService;
+    }
+
+    @GetMapping(value = ESTOQUE_TOTAL_BY_TIPO_PRODUTO,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra o total em estoque de um tipo de produto",
+            description = "Mostra o total de pacotes e entregas de um tipo de produto, mantido a cada alteração de estoque",
+            tags = {"Total em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = EstoqueTotalDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<EstoqueTotalDTO> findByTipoProduto(@PathVariable(value = "tipoProdutoId") UUID tipoProdutoId) {
+        LOGGER.info("Finding estoque total by tipo de produto ID: {}", tipoProdutoId);
+        return ResponseEntity.ok(this.estoqueTotalService.findByTipoProduto(tipoProdutoId));
+    }
+
+    @GetMapping(value = ESTOQUE_TOTAL_BY_TIPO_PRODUTO_PESSOAS,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra o total em estoque de um tipo de produto por pessoa",
+            description = "Mostra o total de pacotes e entregas de um tipo de produto para cada pessoa, somando os totais diários",
+            tags = {"Total em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EstoqueTotalPessoaDTO.class)))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<List<EstoqueTotalPessoaDTO>> findPessoaTotals(
+            @PathVariable(value = "tipoProdutoId") UUID tipoProdutoId,
+            @RequestParam(value = "dataEntregaInicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaInicio,
+            @RequestParam(value = "dataEntregaFim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaFim) {
+        LOGGER.info("Finding estoque totals by pessoa for tipo de produto ID: {}", tipoProdutoId);
+        return ResponseEntity.ok(this.estoqueTotalService.findPessoaTotals(tipoProdutoId, dataEntregaInicio, dataEntregaFim));
+    }
+
+    @GetMapping(value = ESTOQUE_TOTAL_BY_TIPO_PRODUTO_DIARIO,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra os totais diários em estoque de um tipo de produto",
+            description = "Mostra o total de pacotes e entregas de um tipo de produto por pessoa e dia de entrega, opcionalmente de uma única pessoa",
+            tags = {"Total em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EstoqueTotalDiarioDTO.class)))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<List<EstoqueTotalDiarioDTO>> findDailyTotals(
+            @PathVariable(value = "tipoProdutoId") UUID tipoProdutoId,
+            @RequestParam(value = "pessoaId", required = false) UUID pessoaId,
+            @RequestParam(value = "dataEntregaInicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaInicio,
+            @RequestParam(value = "dataEntregaFim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaFim) {
+        LOGGER.info("Finding daily estoque totals for tipo de produto ID: {}", tipoProdutoId);
+        return ResponseEntity.ok(this.estoqueTotalService.findDailyTotals(tipoProdutoId, pessoaId, dataEntregaInicio, dataEntregaFim));
+    }
+
+    @GetMapping(value = ESTOQUE_TOTAL_ALL,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra os totais em estoque de todos os tipos de produto",
+            description = "Mostra o total de pacotes e entregas de cada tipo de produto",
+            tags = {"Total em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EstoqueTotalDTO.class)))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<List<EstoqueTotalDTO>> findAll() {
+        LOGGER.info("Finding all estoque totals");
+        return ResponseEntity.ok(this.estoqueTotalService.findAll());
+    }
+
+    @PostMapping(value = ESTOQUE_TOTAL_REBUILD,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Recalcula os totais em estoque",
+            description = "Recalcula todos os totais a partir dos produtos em estoque e retorna a verificação de consistência",
+            tags = {"Total em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = EstoqueTotalConsistencyDTO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<EstoqueTotalConsistencyDTO> rebuild() {
+        LOGGER.info("Rebuilding estoque totals");
+        return ResponseEntity.ok(this.estoqueTotalService.rebuild());
+    }
+
+    @GetMapping(value = ESTOQUE_TOTAL_CONSISTENCY,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Verifica a consistência dos totais em estoque",
+            description = "Compara os totais mantidos com os produtos em estoque e retorna a quantidade de divergências",
+            tags = {"Total em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = EstoqueTotalConsistencyDTO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<EstoqueTotalConsistencyDTO> checkConsistency() {
+        LOGGER.info("Checking estoque totals consistency");
+        return ResponseEntity.ok(this.estoqueTotalService.checkConsistency());
+    }
+}
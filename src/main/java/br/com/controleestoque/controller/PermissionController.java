@@ -2,6 +2,7 @@ package br.com.controleestoque.controller;
 
 import br.com.controleestoque.model.dto.PermissionDTO;
 import br.com.controleestoque.service.PermissionService;
+import br.com.controleestoque.util.ETagUtil;
 import br.com.controleestoque.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,8 +12,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -39,14 +42,18 @@ public class PermissionController {
             responses = {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = PermissionDTO.class))),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<PermissionDTO> findById(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<PermissionDTO> findById(@PathVariable(value = "id") UUID id, WebRequest webRequest) {
         LOGGER.info("Finding Permission by ID: {}", id);
+        if (ETagUtil.checkNotModified(webRequest, this.permissionService.findVersionById(id))) {
+            return null;
+        }
         PermissionDTO permissionDTO = this.permissionService.findById(id);
         return ResponseEntity.ok(permissionDTO);
     }
@@ -101,11 +108,14 @@ public class PermissionController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody PermissionDTO permissionDTO) {
+    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody PermissionDTO permissionDTO,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         LOGGER.info("Updating Permission with ID: {}", id);
-        this.permissionService.update(id, permissionDTO);
+        this.permissionService.update(id, permissionDTO, ifMatch);
         return ResponseEntity.ok().build();
     }
 
@@ -2,6 +2,7 @@ package br.com.controleestoque.controller;
 
 import br.com.controleestoque.model.dto.PessoaDTO;
 import br.com.controleestoque.service.PessoaService;
+import br.com.controleestoque.util.ETagUtil;
 import br.com.controleestoque.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,9 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -40,14 +43,18 @@ public class PessoaController {
             responses = {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = PessoaDTO.class))),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<PessoaDTO> findById(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<PessoaDTO> findById(@PathVariable(value = "id") UUID id, WebRequest webRequest) {
         LOGGER.info("Finding a pessoa by ID: {}", id);
+        if (ETagUtil.checkNotModified(webRequest, this.pessoaService.findVersionById(id))) {
+            return null;
+        }
         PessoaDTO pessoaDTO = this.pessoaService.findById(id);
         return ResponseEntity.ok(pessoaDTO);
     }
@@ -60,13 +67,17 @@ public class PessoaController {
             responses = {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(array = @ArraySchema(schema = @Schema(implementation = PessoaDTO.class)))),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<List<PessoaDTO>> findAll() {
+    public ResponseEntity<List<PessoaDTO>> findAll(WebRequest webRequest) {
         LOGGER.info("Finding all pessoas");
+        if (ETagUtil.checkCollectionNotModified(webRequest, this.pessoaService.findCollectionVersion())) {
+            return null;
+        }
         List<PessoaDTO> pessoaDTOs = this.pessoaService.findAll();
         return ResponseEntity.ok(pessoaDTOs);
     }
@@ -102,11 +113,14 @@ public class PessoaController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody PessoaDTO pessoaDTO) {
+    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody PessoaDTO pessoaDTO,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         LOGGER.info("Updating pessoa with ID: {}", id);
-        this.pessoaService.update(id, pessoaDTO);
+        this.pessoaService.update(id, pessoaDTO, ifMatch);
         return ResponseEntity.ok().build();
     }
 
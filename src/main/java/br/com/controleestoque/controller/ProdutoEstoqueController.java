@@ -1,7 +1,19 @@
 package br.com.controleestoque.controller;
 
+import br.com.controleestoque.model.dto.ProdutoEstoqueBatchResultDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangeDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangesDTO;
 import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePageDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueSearchResultDTO;
+import br.com.controleestoque.service.ProdutoEstoqueEventService;
 import br.com.controleestoque.service.ProdutoEstoqueService;
+import br.com.controleestoque.shared.constant.BatchItemStatus;
+import br.com.controleestoque.shared.constant.ExportFormat;
+import br.com.controleestoque.util.ETagUtil;
 import br.com.controleestoque.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,14 +23,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 import static br.com.controleestoque.shared.constant.PathsConstants.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping(PRODUTO_BASE)
@@ -27,9 +49,12 @@ public class ProdutoEstoqueController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProdutoEstoqueController.class);
     private final ProdutoEstoqueService produtoEstoqueService;
+    private final ProdutoEstoqueEventService produtoEstoqueEventService;
 
-    public ProdutoEstoqueController(ProdutoEstoqueService produtoEstoqueService) {
+    public ProdutoEstoqueController(ProdutoEstoqueService produtoEstoqueService,
+                                    ProdutoEstoqueEventService produtoEstoqueEventService) {
         this.produtoEstoqueService = produtoEstoqueService;
+        this.produtoEstoqueEventService = produtoEstoqueEventService;
     }
 
     @GetMapping(value = PRODUTO_BY_ID,
@@ -40,35 +65,203 @@ public class ProdutoEstoqueController {
             responses = {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = ProdutoEstoqueDTO.class))),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<ProdutoEstoqueDTO> findById(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<ProdutoEstoqueDTO> findById(@PathVariable(value = "id") UUID id, WebRequest webRequest) {
         LOGGER.info("Finding produto by ID: {}", id);
+        if (ETagUtil.checkNotModified(webRequest, this.produtoEstoqueService.findVersionById(id))) {
+            return null;
+        }
         ProdutoEstoqueDTO produtoEstoqueDTO = this.produtoEstoqueService.findById(id);
         return ResponseEntity.ok(produtoEstoqueDTO);
     }
 
+    @Deprecated
     @GetMapping(value = PRODUTO_ALL,
             produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
     @Operation(summary = "Mostra uma lista de todos os produtos que há em estoque",
-            description = "Mostra uma lista de todos os produtos que há em estoque",
+            description = "Obsoleto, use " + PRODUTO_BASE + PRODUTO_PAGE + ". Mostra no máximo os primeiros 500 produtos " +
+                    "ordenados por data de entrega; havendo mais, o cabeçalho Link (rel=\"next\") aponta para a página seguinte",
             tags = {"Produto em Estoque"},
+            deprecated = true,
             responses = {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProdutoEstoqueDTO.class)))),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<List<ProdutoEstoqueDTO>> findAll() {
+    public ResponseEntity<List<ProdutoEstoqueDTO>> findAll(WebRequest webRequest) {
         LOGGER.info("Finding all produtos");
-        List<ProdutoEstoqueDTO> produtoEstoqueDTOS = this.produtoEstoqueService.findAll();
-        return ResponseEntity.ok(produtoEstoqueDTOS);
+        if (ETagUtil.checkCollectionNotModified(webRequest, this.produtoEstoqueService.findCollectionVersion())) {
+            return null;
+        }
+        ProdutoEstoquePageDTO produtoEstoquePageDTO = this.produtoEstoqueService.findAll();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (Boolean.TRUE.equals(produtoEstoquePageDTO.getHasNext())) {
+            response.header(HttpHeaders.LINK, linkTo(methodOn(ProdutoEstoqueController.class)
+                    .findPage(produtoEstoquePageDTO.getNextCursor(), produtoEstoquePageDTO.getSize()))
+                    .withRel(IanaLinkRelations.NEXT)
+                    .toString());
+        }
+        return response.body(produtoEstoquePageDTO.getContent());
+    }
+
+    @GetMapping(value = PRODUTO_PAGE,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra uma página de produtos que há em estoque",
+            description = "Mostra uma página de produtos ordenada por data de entrega, usando o cursor retornado na página anterior",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ProdutoEstoquePageDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<ProdutoEstoquePageDTO> findPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                          @RequestParam(value = "size", required = false) Integer size) {
+        LOGGER.info("Finding page of produtos");
+        ProdutoEstoquePageDTO produtoEstoquePageDTO = this.produtoEstoqueService.findPage(cursor, size);
+        return ResponseEntity.ok(produtoEstoquePageDTO);
+    }
+
+    @GetMapping(value = PRODUTO_CHANGES,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Lista alterações dos produtos em estoque",
+            description = "Lista criações, alterações e exclusões de produtos ocorridas após o token informado, na ordem em que foram confirmadas",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ProdutoEstoqueChangesDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<ProdutoEstoqueChangesDTO> findChanges(@RequestParam(value = "since", required = false) String since,
+                                                                @RequestParam(value = "size", required = false) Integer size) {
+        LOGGER.info("Finding produto changes");
+        ProdutoEstoqueChangesDTO produtoEstoqueChangesDTO = this.produtoEstoqueService.findChanges(since, size);
+        return ResponseEntity.ok(produtoEstoqueChangesDTO);
+    }
+
+    @GetMapping(value = PRODUTO_EVENTS, produces = MediaType.TEXT_EVENT_STREAM)
+    @Operation(summary = "Acompanha as alterações dos produtos em estoque",
+            description = "Envia por Server-Sent Events as criações, alterações e exclusões de produtos após serem confirmadas, com filtro opcional por tipo de produto e pessoa",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ProdutoEstoqueChangeDTO.class))),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public SseEmitter subscribe(@RequestParam(value = "tipoProdutoId", required = false) UUID tipoProdutoId,
+                                @RequestParam(value = "pessoaId", required = false) UUID pessoaId) {
+        LOGGER.info("Subscribing to produto events");
+        return this.produtoEstoqueEventService.subscribe(tipoProdutoId, pessoaId);
+    }
+
+    @GetMapping(value = PRODUTO_SEARCH,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Pesquisa produtos que há em estoque",
+            description = "Pesquisa produtos por prefixo da marca, período de entrega, pessoa e tipo de produto, com ordenação por marca, dataEntrega, quantidadePacote ou tamanhoPacote",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ProdutoEstoqueSearchResultDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<ProdutoEstoqueSearchResultDTO> search(
+            @RequestParam(value = "marca", required = false) String marca,
+            @RequestParam(value = "dataEntregaInicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaInicio,
+            @RequestParam(value = "dataEntregaFim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaFim,
+            @RequestParam(value = "pessoaId", required = false) UUID pessoaId,
+            @RequestParam(value = "tipoProdutoId", required = false) UUID tipoProdutoId,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        LOGGER.info("Searching produtos");
+        ProdutoEstoqueFilterDTO filter = ProdutoEstoqueFilterDTO.builder()
+                .marca(marca)
+                .dataEntregaInicio(dataEntregaInicio)
+                .dataEntregaFim(dataEntregaFim)
+                .pessoaId(pessoaId)
+                .tipoProdutoId(tipoProdutoId)
+                .build();
+        ProdutoEstoqueSearchResultDTO searchResultDTO = this.produtoEstoqueService.search(filter, page, size, sort);
+        return ResponseEntity.ok(searchResultDTO);
+    }
+
+    @GetMapping(value = PRODUTO_SUMMARY_TIPO_PRODUTO_MONTHLY,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra o total de pacotes por tipo de produto e mês",
+            description = "Mostra a quantidade de entregas e o total de pacotes agrupados por tipo de produto e mês de entrega",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProdutoEstoqueMonthlySummaryDTO.class)))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<List<ProdutoEstoqueMonthlySummaryDTO>> summarizeByTipoProdutoAndMonth(
+            @RequestParam(value = "dataEntregaInicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaInicio,
+            @RequestParam(value = "dataEntregaFim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaFim) {
+        LOGGER.info("Summarizing produtos by tipo de produto and month");
+        return ResponseEntity.ok(this.produtoEstoqueService.summarizeByTipoProdutoAndMonth(dataEntregaInicio, dataEntregaFim));
+    }
+
+    @GetMapping(value = PRODUTO_SUMMARY_PESSOA,
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Mostra as entregas por pessoa",
+            description = "Mostra a quantidade de entregas, o total de pacotes e a última entrega de cada pessoa",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProdutoEstoquePessoaSummaryDTO.class)))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<List<ProdutoEstoquePessoaSummaryDTO>> summarizeByPessoa(
+            @RequestParam(value = "dataEntregaInicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaInicio,
+            @RequestParam(value = "dataEntregaFim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntregaFim) {
+        LOGGER.info("Summarizing produtos by pessoa");
+        return ResponseEntity.ok(this.produtoEstoqueService.summarizeByPessoa(dataEntregaInicio, dataEntregaFim));
+    }
+
+    @GetMapping(value = PRODUTO_EXPORT)
+    @Operation(summary = "Exporta todos os produtos que há em estoque",
+            description = "Exporta todos os produtos em NDJSON ou CSV, escrevendo as linhas à medida que são lidas do banco",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200", content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON),
+                            @Content(mediaType = MediaType.TEXT_CSV)}),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        LOGGER.info("Exporting produtos as {}", format);
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        StreamingResponseBody body = outputStream -> this.produtoEstoqueService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("produtos." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @PostMapping(value = PRODUTO_CREATE,
@@ -90,6 +283,28 @@ public class ProdutoEstoqueController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProdutoEstoqueDTO);
     }
 
+    @PostMapping(value = PRODUTO_BATCH,
+            consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    @Operation(summary = "Adiciona ou atualiza produtos em lote",
+            description = "Adiciona itens sem ID e atualiza itens com ID em uma única transação, retornando o resultado de cada item",
+            tags = {"Produto em Estoque"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProdutoEstoqueBatchResultDTO.class)))),
+                    @ApiResponse(description = "Multi-Status", responseCode = "207",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProdutoEstoqueBatchResultDTO.class)))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<List<ProdutoEstoqueBatchResultDTO>> saveBatch(@RequestBody List<ProdutoEstoqueDTO> produtoEstoqueDTOS) {
+        LOGGER.info("Saving batch of produtos");
+        List<ProdutoEstoqueBatchResultDTO> results = this.produtoEstoqueService.saveBatch(produtoEstoqueDTOS);
+        boolean hasRejected = results.stream().anyMatch(result -> result.getStatus() == BatchItemStatus.REJECTED);
+        return ResponseEntity.status(hasRejected ? HttpStatus.MULTI_STATUS : HttpStatus.OK).body(results);
+    }
+
     @PutMapping(value = PRODUTO_UPDATE,
             consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
             produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
@@ -102,11 +317,14 @@ public class ProdutoEstoqueController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody ProdutoEstoqueDTO produtoEstoqueDTO) {
+    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody ProdutoEstoqueDTO produtoEstoqueDTO,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         LOGGER.info("Updating produto with ID: {}", id);
-        this.produtoEstoqueService.update(id, produtoEstoqueDTO);
+        this.produtoEstoqueService.update(id, produtoEstoqueDTO, ifMatch);
         return ResponseEntity.ok().build();
     }
 
@@ -2,6 +2,7 @@ package br.com.controleestoque.controller;
 
 import br.com.controleestoque.model.dto.UserDTO;
 import br.com.controleestoque.service.UserService;
+import br.com.controleestoque.util.ETagUtil;
 import br.com.controleestoque.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,9 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -40,14 +43,18 @@ public class UserController {
             responses = {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = UserDTO.class))),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<UserDTO> findById(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<UserDTO> findById(@PathVariable(value = "id") UUID id, WebRequest webRequest) {
         LOGGER.info("Finding user by ID: {}", id);
+        if (ETagUtil.checkNotModified(webRequest, this.userService.findVersionById(id))) {
+            return null;
+        }
         UserDTO userDTO = this.userService.findById(id);
         return ResponseEntity.ok(userDTO);
     }
@@ -82,6 +89,7 @@ public class UserController {
                             content = @Content(schema = @Schema(implementation = UserDTO.class))),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
     public ResponseEntity<UserDTO> create(@RequestBody UserDTO userDTO) {
@@ -102,11 +110,15 @@ public class UserController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody UserDTO userDTO) {
+    public ResponseEntity<Void> update(@PathVariable(value = "id") UUID id, @RequestBody UserDTO userDTO,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         LOGGER.info("Updating user with ID: {}", id);
-        this.userService.update(id, userDTO);
+        this.userService.update(id, userDTO, ifMatch);
         return ResponseEntity.ok().build();
     }
 
@@ -0,0 +1,23 @@
+package br.com.controleestoque.exception.handler;
+
+import br.com.controleestoque.exception.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+
+@ControllerAdvice
+public class OptimisticLockingFailureExceptionHandler {
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public final ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(Exception exception, WebRequest request) {
+        ErrorResponse exceptionResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                "Resource was modified concurrently, reload it and retry",
+                request.getDescription(false));
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.controleestoque.exception.handler;
+
+import br.com.controleestoque.exception.ErrorResponse;
+import br.com.controleestoque.exception.TooManyRequestsException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+
+@ControllerAdvice
+public class TooManyRequestsExceptionHandler {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public final ResponseEntity<ErrorResponse> handleTooManyRequestsException(Exception exception, WebRequest request) {
+        ErrorResponse exceptionResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                request.getDescription(false));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return new ResponseEntity<>(exceptionResponse, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstoqueTotalConsistencyDTO implements Serializable {
+    private Boolean consistent;
+    private Long divergentDailyTotals;
+    private Long divergentTipoProdutoTotals;
+}
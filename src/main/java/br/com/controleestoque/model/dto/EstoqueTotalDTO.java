@@ -0,0 +1,17 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstoqueTotalDTO implements Serializable {
+    private UUID tipoProdutoId;
+    private Long totalPacotes;
+    private Long totalEntregas;
+}
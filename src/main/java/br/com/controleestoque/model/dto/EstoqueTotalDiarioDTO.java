@@ -0,0 +1,20 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstoqueTotalDiarioDTO implements Serializable {
+    private UUID tipoProdutoId;
+    private UUID pessoaId;
+    private LocalDate dataEntrega;
+    private Long totalPacotes;
+    private Long totalEntregas;
+}
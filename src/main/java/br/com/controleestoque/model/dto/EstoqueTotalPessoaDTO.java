@@ -0,0 +1,18 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstoqueTotalPessoaDTO implements Serializable {
+    private UUID tipoProdutoId;
+    private UUID pessoaId;
+    private Long totalPacotes;
+    private Long totalEntregas;
+}
@@ -0,0 +1,19 @@
+package br.com.controleestoque.model.dto;
+
+import br.com.controleestoque.shared.constant.BatchItemStatus;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueBatchResultDTO implements Serializable {
+    private Integer index;
+    private UUID uuid;
+    private BatchItemStatus status;
+    private String message;
+}
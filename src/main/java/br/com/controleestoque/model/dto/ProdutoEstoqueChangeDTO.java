@@ -0,0 +1,26 @@
+package br.com.controleestoque.model.dto;
+
+import br.com.controleestoque.shared.constant.ChangeOperation;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueChangeDTO implements Serializable {
+    private UUID uuid;
+    private ChangeOperation operation;
+    private Instant changedAt;
+    private String marca;
+    private Integer quantidadePacote;
+    private LocalDate dataEntrega;
+    private String tamanhoPacote;
+    private UUID tipoProdutoId;
+    private UUID pessoaId;
+}
@@ -0,0 +1,18 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueChangesDTO implements Serializable {
+    private List<ProdutoEstoqueChangeDTO> changes;
+    private Integer size;
+    private Boolean hasMore;
+    private String nextToken;
+}
@@ -0,0 +1,20 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueFilterDTO implements Serializable {
+    private String marca;
+    private LocalDate dataEntregaInicio;
+    private LocalDate dataEntregaFim;
+    private UUID pessoaId;
+    private UUID tipoProdutoId;
+}
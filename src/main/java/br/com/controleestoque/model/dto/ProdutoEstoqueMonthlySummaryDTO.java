@@ -0,0 +1,20 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueMonthlySummaryDTO implements Serializable {
+    private UUID tipoProdutoId;
+    private String tipoProdutoNome;
+    private Integer ano;
+    private Integer mes;
+    private Long totalEntregas;
+    private Long totalPacotes;
+}
@@ -0,0 +1,18 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoquePageDTO implements Serializable {
+    private List<ProdutoEstoqueDTO> content;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoquePessoaSummaryDTO implements Serializable {
+    private UUID pessoaId;
+    private String pessoaNome;
+    private String pessoaSobrenome;
+    private Long totalEntregas;
+    private Long totalPacotes;
+    private LocalDate ultimaEntrega;
+}
@@ -0,0 +1,25 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueRowDTO implements Serializable {
+    private UUID uuid;
+    private String marca;
+    private Integer quantidadePacote;
+    private LocalDate dataEntrega;
+    private String tamanhoPacote;
+    private UUID tipoProdutoId;
+    private String tipoProdutoNome;
+    private UUID pessoaId;
+    private String pessoaNome;
+    private String pessoaSobrenome;
+}
@@ -0,0 +1,19 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueSearchResultDTO implements Serializable {
+    private List<ProdutoEstoqueDTO> content;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Boolean hasNext;
+}
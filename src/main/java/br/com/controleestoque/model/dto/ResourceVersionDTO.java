@@ -0,0 +1,26 @@
+package br.com.controleestoque.model.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResourceVersionDTO implements Serializable {
+    private String version;
+    private Instant lastModified;
+
+    public ResourceVersionDTO(String version) {
+        this.version = version;
+    }
+
+    public ResourceVersionDTO(Long total, Instant lastModified) {
+        this.version = total + "-" + (lastModified == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, lastModified));
+        this.lastModified = lastModified;
+    }
+}
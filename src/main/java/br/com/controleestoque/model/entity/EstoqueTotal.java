@@ -0,0 +1,26 @@
+package br.com.controleestoque.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Table(name = "tab_estoque_total")
+@Entity
+@Immutable
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class EstoqueTotal implements Serializable {
+    @Id
+    @Column(name = "tipo_produto_id")
+    private UUID tipoProdutoId;
+    @Column(name = "total_pacotes", nullable = false)
+    private Long totalPacotes;
+    @Column(name = "total_entregas", nullable = false)
+    private Long totalEntregas;
+}
@@ -0,0 +1,43 @@
+package br.com.controleestoque.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Table(name = "tab_estoque_total_diario")
+@Entity
+@Immutable
+@IdClass(EstoqueTotalDiario.Key.class)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class EstoqueTotalDiario implements Serializable {
+    @Id
+    @Column(name = "tipo_produto_id")
+    private UUID tipoProdutoId;
+    @Id
+    @Column(name = "pessoa_id")
+    private UUID pessoaId;
+    @Id
+    @Column(name = "data_entrega")
+    private LocalDate dataEntrega;
+    @Column(name = "total_pacotes", nullable = false)
+    private Long totalPacotes;
+    @Column(name = "total_entregas", nullable = false)
+    private Long totalEntregas;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private UUID tipoProdutoId;
+        private UUID pessoaId;
+        private LocalDate dataEntrega;
+    }
+}
@@ -2,6 +2,8 @@ package br.com.controleestoque.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.io.Serializable;
@@ -9,6 +11,8 @@ import java.util.UUID;
 
 @Table(name = "tab_permission")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @AllArgsConstructor
@@ -21,6 +25,9 @@ public class Permission implements GrantedAuthority, Serializable {
     private UUID uuid;
     @Column(nullable = false, length = 180)
     private String description;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @Override
     public String getAuthority() {
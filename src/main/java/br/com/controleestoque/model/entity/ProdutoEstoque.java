@@ -2,8 +2,10 @@ package br.com.controleestoque.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -28,17 +30,23 @@ public class ProdutoEstoque implements Serializable {
     @Column(name = "tamanho_pacote", length = 5, nullable = false)
     private String tamanhoPacote;
     @ManyToOne(
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             cascade = CascadeType.PERSIST)
     @JoinColumn(
             name = "tipo_pessoa_id",
             referencedColumnName = "id", nullable = false)
     private TipoProduto tipoProduto;
     @ManyToOne(
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             cascade = CascadeType.PERSIST)
     @JoinColumn(
             name = "pessoa_id",
             referencedColumnName = "id", nullable = false)
     private Pessoa pessoa;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
 }
@@ -0,0 +1,45 @@
+package br.com.controleestoque.model.entity;
+
+import br.com.controleestoque.shared.constant.ChangeOperation;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Table(name = "tab_produto_estoque_change")
+@Entity
+@Immutable
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoEstoqueChange implements Serializable {
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+    @Column(name = "tx_id")
+    private Long txId;
+    @Column(name = "changed_at")
+    private Instant changedAt;
+    @Column(name = "produto_estoque_id")
+    private UUID produtoEstoqueId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation")
+    private ChangeOperation operation;
+    @Column(name = "marca")
+    private String marca;
+    @Column(name = "quantidade_pacote")
+    private Integer quantidadePacote;
+    @Column(name = "data_entrega")
+    private LocalDate dataEntrega;
+    @Column(name = "tamanho_pacote")
+    private String tamanhoPacote;
+    @Column(name = "tipo_produto_id")
+    private UUID tipoProdutoId;
+    @Column(name = "pessoa_id")
+    private UUID pessoaId;
+}
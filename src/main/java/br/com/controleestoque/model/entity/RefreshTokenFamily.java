@@ -0,0 +1,23 @@
+package br.com.controleestoque.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Table(name = "tab_refresh_token_family")
+@Entity
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenFamily implements Serializable {
+    @Id
+    @Column(name = "family_id")
+    private String familyId;
+    @Column(name = "current_jti")
+    private String currentJti;
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+}
@@ -0,0 +1,25 @@
+package br.com.controleestoque.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Table(name = "tab_revoked_token")
+@Entity
+@Immutable
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken implements Serializable {
+    @Id
+    @Column(name = "token_id")
+    private String tokenId;
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
@@ -2,6 +2,8 @@ package br.com.controleestoque.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -36,6 +38,10 @@ public class User implements UserDetails, Serializable {
     private Boolean credentialsNonExpired;
     @Column(name = "enable", length = 1)
     private Boolean enable;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(
             fetch = FetchType.EAGER,
             cascade = CascadeType.PERSIST)
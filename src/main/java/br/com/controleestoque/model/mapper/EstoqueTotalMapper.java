@@ -0,0 +1,13 @@
+package br.com.controleestoque.model.mapper;
+
+import br.com.controleestoque.model.dto.EstoqueTotalDTO;
+import br.com.controleestoque.model.entity.EstoqueTotal;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface EstoqueTotalMapper {
+    EstoqueTotalMapper INSTANCE = Mappers.getMapper(EstoqueTotalMapper.class);
+
+    EstoqueTotalDTO entityToDto(EstoqueTotal estoqueTotalEntity);
+}
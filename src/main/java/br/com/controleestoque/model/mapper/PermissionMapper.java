@@ -3,12 +3,14 @@ package br.com.controleestoque.model.mapper;
 import br.com.controleestoque.model.dto.PermissionDTO;
 import br.com.controleestoque.model.entity.Permission;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface PermissionMapper {
     PermissionMapper INSTANCE = Mappers.getMapper(PermissionMapper.class);
 
+    @Mapping(target = "version", ignore = true)
     Permission dtoToEntity(PermissionDTO permissionDTO);
 
     PermissionDTO entityToDto(Permission permission);
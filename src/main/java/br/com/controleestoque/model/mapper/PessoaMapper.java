@@ -3,12 +3,15 @@ package br.com.controleestoque.model.mapper;
 import br.com.controleestoque.model.dto.PessoaDTO;
 import br.com.controleestoque.model.entity.Pessoa;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface PessoaMapper {
     PessoaMapper INSTANCE = Mappers.getMapper(PessoaMapper.class);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Pessoa dtoToEntity(PessoaDTO pessoaDTO);
 
     PessoaDTO entityToDto(Pessoa pessoaEntity);
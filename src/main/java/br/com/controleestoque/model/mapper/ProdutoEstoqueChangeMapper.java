@@ -0,0 +1,15 @@
+package br.com.controleestoque.model.mapper;
+
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangeDTO;
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface ProdutoEstoqueChangeMapper {
+    ProdutoEstoqueChangeMapper INSTANCE = Mappers.getMapper(ProdutoEstoqueChangeMapper.class);
+
+    @Mapping(target = "uuid", source = "produtoEstoqueId")
+    ProdutoEstoqueChangeDTO entityToDto(ProdutoEstoqueChange produtoEstoqueChangeEntity);
+}
@@ -3,12 +3,15 @@ package br.com.controleestoque.model.mapper;
 import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
 import br.com.controleestoque.model.entity.ProdutoEstoque;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface ProdutoEstoqueMapper {
     ProdutoEstoqueMapper INSTANCE = Mappers.getMapper(ProdutoEstoqueMapper.class);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     ProdutoEstoque dtoToEntity(ProdutoEstoqueDTO produtoEstoqueDTO);
 
     ProdutoEstoqueDTO entityToDto(ProdutoEstoque produtoEstoqueEntity);
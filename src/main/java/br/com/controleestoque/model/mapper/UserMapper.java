@@ -3,12 +3,14 @@ package br.com.controleestoque.model.mapper;
 import br.com.controleestoque.model.dto.UserDTO;
 import br.com.controleestoque.model.entity.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
-@Mapper
+@Mapper(uses = PermissionMapper.class)
 public interface UserMapper {
     UserMapper INSTANCE = Mappers.getMapper(UserMapper.class);
 
+    @Mapping(target = "version", ignore = true)
     User dtoToEntity(UserDTO userDTO);
 
     UserDTO entityToDto(User user);
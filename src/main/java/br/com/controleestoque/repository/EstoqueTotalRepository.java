@@ -0,0 +1,128 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+import br.com.controleestoque.model.entity.EstoqueTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EstoqueTotalRepository extends JpaRepository<EstoqueTotal, UUID> {
+    // Range scans on the primary key of tab_estoque_total_diario (tipo_produto_id, pessoa_id, data_entrega)
+    @Query("SELECT new br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO(" +
+            "d.tipoProdutoId, d.pessoaId, sum(d.totalPacotes), sum(d.totalEntregas)) " +
+            "FROM EstoqueTotalDiario d " +
+            "WHERE d.tipoProdutoId = :tipoProdutoId AND d.dataEntrega BETWEEN :inicio AND :fim " +
+            "GROUP BY d.tipoProdutoId, d.pessoaId " +
+            "ORDER BY d.pessoaId")
+    List<EstoqueTotalPessoaDTO> findPessoaTotals(@Param("tipoProdutoId") UUID tipoProdutoId,
+                                                 @Param("inicio") LocalDate inicio,
+                                                 @Param("fim") LocalDate fim);
+
+    @Query("SELECT new br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO(" +
+            "d.tipoProdutoId, d.pessoaId, d.dataEntrega, d.totalPacotes, d.totalEntregas) " +
+            "FROM EstoqueTotalDiario d " +
+            "WHERE d.tipoProdutoId = :tipoProdutoId AND d.dataEntrega BETWEEN :inicio AND :fim " +
+            "ORDER BY d.dataEntrega, d.pessoaId")
+    List<EstoqueTotalDiarioDTO> findDailyTotals(@Param("tipoProdutoId") UUID tipoProdutoId,
+                                                @Param("inicio") LocalDate inicio,
+                                                @Param("fim") LocalDate fim);
+
+    @Query("SELECT new br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO(" +
+            "d.tipoProdutoId, d.pessoaId, d.dataEntrega, d.totalPacotes, d.totalEntregas) " +
+            "FROM EstoqueTotalDiario d " +
+            "WHERE d.tipoProdutoId = :tipoProdutoId AND d.pessoaId = :pessoaId " +
+            "AND d.dataEntrega BETWEEN :inicio AND :fim " +
+            "ORDER BY d.dataEntrega")
+    List<EstoqueTotalDiarioDTO> findDailyTotalsByPessoa(@Param("tipoProdutoId") UUID tipoProdutoId,
+                                                        @Param("pessoaId") UUID pessoaId,
+                                                        @Param("inicio") LocalDate inicio,
+                                                        @Param("fim") LocalDate fim);
+
+    @Modifying
+    @Query(value = "INSERT INTO tab_estoque_total_diario " +
+            "(tipo_produto_id, pessoa_id, data_entrega, total_pacotes, total_entregas) " +
+            "VALUES (:tipoProdutoId, :pessoaId, :dataEntrega, :pacotes, :entregas) " +
+            "ON CONFLICT (tipo_produto_id, pessoa_id, data_entrega) DO UPDATE SET " +
+            "total_pacotes = tab_estoque_total_diario.total_pacotes + EXCLUDED.total_pacotes, " +
+            "total_entregas = tab_estoque_total_diario.total_entregas + EXCLUDED.total_entregas",
+            nativeQuery = true)
+    void addToDailyTotal(@Param("tipoProdutoId") UUID tipoProdutoId,
+                         @Param("pessoaId") UUID pessoaId,
+                         @Param("dataEntrega") LocalDate dataEntrega,
+                         @Param("pacotes") long pacotes,
+                         @Param("entregas") long entregas);
+
+    @Modifying
+    @Query(value = "DELETE FROM tab_estoque_total_diario " +
+            "WHERE tipo_produto_id = :tipoProdutoId AND pessoa_id = :pessoaId " +
+            "AND data_entrega = :dataEntrega AND total_entregas = 0",
+            nativeQuery = true)
+    void deleteEmptyDailyTotal(@Param("tipoProdutoId") UUID tipoProdutoId,
+                               @Param("pessoaId") UUID pessoaId,
+                               @Param("dataEntrega") LocalDate dataEntrega);
+
+    @Modifying
+    @Query(value = "INSERT INTO tab_estoque_total (tipo_produto_id, total_pacotes, total_entregas) " +
+            "VALUES (:tipoProdutoId, :pacotes, :entregas) " +
+            "ON CONFLICT (tipo_produto_id) DO UPDATE SET " +
+            "total_pacotes = tab_estoque_total.total_pacotes + EXCLUDED.total_pacotes, " +
+            "total_entregas = tab_estoque_total.total_entregas + EXCLUDED.total_entregas",
+            nativeQuery = true)
+    void addToTipoProdutoTotal(@Param("tipoProdutoId") UUID tipoProdutoId,
+                               @Param("pacotes") long pacotes,
+                               @Param("entregas") long entregas);
+
+    @Modifying
+    @Query(value = "LOCK TABLE tab_produto_estoque IN SHARE MODE", nativeQuery = true)
+    void lockProdutoEstoqueForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM tab_estoque_total_diario", nativeQuery = true)
+    void deleteAllDailyTotals();
+
+    @Modifying
+    @Query(value = "DELETE FROM tab_estoque_total", nativeQuery = true)
+    void deleteAllTipoProdutoTotals();
+
+    @Modifying
+    @Query(value = "INSERT INTO tab_estoque_total_diario " +
+            "(tipo_produto_id, pessoa_id, data_entrega, total_pacotes, total_entregas) " +
+            "SELECT tipo_pessoa_id, pessoa_id, data_entrega, sum(quantidade_pacote), count(*) " +
+            "FROM tab_produto_estoque GROUP BY tipo_pessoa_id, pessoa_id, data_entrega",
+            nativeQuery = true)
+    void insertDailyTotalsFromProdutoEstoque();
+
+    @Modifying
+    @Query(value = "INSERT INTO tab_estoque_total (tipo_produto_id, total_pacotes, total_entregas) " +
+            "SELECT tipo_pessoa_id, sum(quantidade_pacote), count(*) " +
+            "FROM tab_produto_estoque GROUP BY tipo_pessoa_id",
+            nativeQuery = true)
+    void insertTipoProdutoTotalsFromProdutoEstoque();
+
+    @Query(value = "SELECT count(*) FROM tab_estoque_total_diario d " +
+            "FULL OUTER JOIN (SELECT tipo_pessoa_id, pessoa_id, data_entrega, " +
+            "sum(quantidade_pacote) AS total_pacotes, count(*) AS total_entregas " +
+            "FROM tab_produto_estoque GROUP BY tipo_pessoa_id, pessoa_id, data_entrega) a " +
+            "ON a.tipo_pessoa_id = d.tipo_produto_id AND a.pessoa_id = d.pessoa_id AND a.data_entrega = d.data_entrega " +
+            "WHERE d.total_pacotes IS DISTINCT FROM a.total_pacotes " +
+            "OR d.total_entregas IS DISTINCT FROM a.total_entregas",
+            nativeQuery = true)
+    long countDivergentDailyTotals();
+
+    @Query(value = "SELECT count(*) FROM tab_estoque_total t " +
+            "FULL OUTER JOIN (SELECT tipo_pessoa_id, sum(quantidade_pacote) AS total_pacotes, count(*) AS total_entregas " +
+            "FROM tab_produto_estoque GROUP BY tipo_pessoa_id) a " +
+            "ON a.tipo_pessoa_id = t.tipo_produto_id " +
+            "WHERE coalesce(t.total_pacotes, 0) <> coalesce(a.total_pacotes, 0) " +
+            "OR coalesce(t.total_entregas, 0) <> coalesce(a.total_entregas, 0)",
+            nativeQuery = true)
+    long countDivergentTipoProdutoTotals();
+}
@@ -1,11 +1,27 @@
 package br.com.controleestoque.repository;
 
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.Permission;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.AvailableHints.HINT_CACHEABLE;
+
 @Repository
 public interface PermissionRepository extends JpaRepository<Permission, UUID> {
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Permission> findAll();
+
+    @Query("SELECT new br.com.controleestoque.model.dto.ResourceVersionDTO(cast(p.version as String)) " +
+            "FROM Permission p WHERE p.uuid = :id")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") UUID id);
 }
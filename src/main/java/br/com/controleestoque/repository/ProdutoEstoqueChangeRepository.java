@@ -0,0 +1,58 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ProdutoEstoqueChangeRepository extends JpaRepository<ProdutoEstoqueChange, Long> {
+    // One statement per mutation regardless of how many rows it touched
+    @Modifying
+    @Query(value = "INSERT INTO tab_produto_estoque_change " +
+            "(produto_estoque_id, operation, marca, quantidade_pacote, data_entrega, tamanho_pacote, tipo_produto_id, pessoa_id) " +
+            "SELECT c.produto_estoque_id, :operation, c.marca, c.quantidade_pacote, c.data_entrega, c.tamanho_pacote, " +
+            "c.tipo_produto_id, c.pessoa_id " +
+            "FROM unnest(CAST(:ids AS uuid[]), CAST(:marcas AS varchar[]), CAST(:quantidadesPacote AS int4[]), " +
+            "CAST(:datasEntrega AS date[]), CAST(:tamanhosPacote AS varchar[]), CAST(:tipoProdutoIds AS uuid[]), " +
+            "CAST(:pessoaIds AS uuid[])) WITH ORDINALITY " +
+            "AS c(produto_estoque_id, marca, quantidade_pacote, data_entrega, tamanho_pacote, tipo_produto_id, pessoa_id, ord) " +
+            "ORDER BY c.ord",
+            nativeQuery = true)
+    void insertChanges(@Param("operation") String operation,
+                       @Param("ids") UUID[] ids,
+                       @Param("marcas") String[] marcas,
+                       @Param("quantidadesPacote") Integer[] quantidadesPacote,
+                       @Param("datasEntrega") LocalDate[] datasEntrega,
+                       @Param("tamanhosPacote") String[] tamanhosPacote,
+                       @Param("tipoProdutoIds") UUID[] tipoProdutoIds,
+                       @Param("pessoaIds") UUID[] pessoaIds);
+
+    // Sequence values are taken before commit, so they can become visible out of order. Rows are only
+    // served once every older transaction has finished (tx_id below the snapshot xmin), which means no
+    // change can ever appear behind a token that was already handed out.
+    @Query(value = "SELECT c.* FROM tab_produto_estoque_change c " +
+            "WHERE c.tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "AND (c.tx_id, c.seq) > (CAST(CAST(:txId AS text) AS xid8), :seq) " +
+            "ORDER BY c.tx_id, c.seq " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<ProdutoEstoqueChange> findChangesAfter(@Param("txId") long txId,
+                                                @Param("seq") long seq,
+                                                @Param("limit") int limit);
+
+    // The newest change findChangesAfter would already serve, a starting point that skips the history
+    @Query(value = "SELECT c.* FROM tab_produto_estoque_change c " +
+            "WHERE c.tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY c.tx_id DESC, c.seq DESC " +
+            "LIMIT 1",
+            nativeQuery = true)
+    Optional<ProdutoEstoqueChange> findLastServableChange();
+}
@@ -1,11 +1,90 @@
 package br.com.controleestoque.repository;
 
+import br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueRowDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.ProdutoEstoque;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ProdutoEstoqueRepository extends JpaRepository<ProdutoEstoque, UUID> {
+public interface ProdutoEstoqueRepository extends JpaRepository<ProdutoEstoque, UUID>, JpaSpecificationExecutor<ProdutoEstoque> {
+    @Override
+    @EntityGraph(attributePaths = {"tipoProduto", "pessoa"})
+    List<ProdutoEstoque> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"tipoProduto", "pessoa"})
+    Page<ProdutoEstoque> findAll(Specification<ProdutoEstoque> specification, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"tipoProduto", "pessoa"})
+    Optional<ProdutoEstoque> findWithRelationsByUuid(UUID uuid);
+
+    @EntityGraph(attributePaths = {"tipoProduto", "pessoa"})
+    @Query("SELECT p FROM ProdutoEstoque p ORDER BY p.dataEntrega ASC, p.uuid ASC")
+    List<ProdutoEstoque> findFirstPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"tipoProduto", "pessoa"})
+    @Query("SELECT p FROM ProdutoEstoque p " +
+            "WHERE (p.dataEntrega, p.uuid) > (:dataEntrega, :uuid) " +
+            "ORDER BY p.dataEntrega ASC, p.uuid ASC")
+    List<ProdutoEstoque> findPageAfter(@Param("dataEntrega") LocalDate dataEntrega,
+                                       @Param("uuid") UUID uuid,
+                                       Pageable pageable);
+
+    // The representation embeds tipoProduto and pessoa, so their versions are part of the ETag
+    @Query("SELECT new br.com.controleestoque.model.dto.ResourceVersionDTO(" +
+            "concat(cast(p.version as String), '.', cast(t.version as String), '.', cast(pe.version as String)), " +
+            "greatest(p.updatedAt, t.updatedAt, pe.updatedAt)) " +
+            "FROM ProdutoEstoque p JOIN p.tipoProduto t JOIN p.pessoa pe WHERE p.uuid = :id")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new br.com.controleestoque.model.dto.ResourceVersionDTO(count(p), " +
+            "greatest(max(p.updatedAt), (SELECT max(t.updatedAt) FROM TipoProduto t), (SELECT max(pe.updatedAt) FROM Pessoa pe))) " +
+            "FROM ProdutoEstoque p")
+    ResourceVersionDTO findCollectionVersion();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new br.com.controleestoque.model.dto.ProdutoEstoqueRowDTO(" +
+            "p.uuid, p.marca, p.quantidadePacote, p.dataEntrega, p.tamanhoPacote, " +
+            "t.uuid, t.nome, pe.uuid, pe.nome, pe.sobrenome) " +
+            "FROM ProdutoEstoque p JOIN p.tipoProduto t JOIN p.pessoa pe " +
+            "ORDER BY p.dataEntrega ASC, p.uuid ASC")
+    Stream<ProdutoEstoqueRowDTO> streamAllRows();
+
+    @Query("SELECT new br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO(" +
+            "t.uuid, t.nome, year(p.dataEntrega), month(p.dataEntrega), count(p), sum(p.quantidadePacote)) " +
+            "FROM ProdutoEstoque p JOIN p.tipoProduto t " +
+            "WHERE p.dataEntrega BETWEEN :inicio AND :fim " +
+            "GROUP BY t.uuid, t.nome, year(p.dataEntrega), month(p.dataEntrega) " +
+            "ORDER BY year(p.dataEntrega), month(p.dataEntrega), t.nome")
+    List<ProdutoEstoqueMonthlySummaryDTO> summarizeByTipoProdutoAndMonth(@Param("inicio") LocalDate inicio,
+                                                                         @Param("fim") LocalDate fim);
+
+    @Query("SELECT new br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO(" +
+            "pe.uuid, pe.nome, pe.sobrenome, count(p), sum(p.quantidadePacote), max(p.dataEntrega)) " +
+            "FROM ProdutoEstoque p JOIN p.pessoa pe " +
+            "WHERE p.dataEntrega BETWEEN :inicio AND :fim " +
+            "GROUP BY pe.uuid, pe.nome, pe.sobrenome " +
+            "ORDER BY count(p) DESC, pe.nome")
+    List<ProdutoEstoquePessoaSummaryDTO> summarizeByPessoa(@Param("inicio") LocalDate inicio,
+                                                           @Param("fim") LocalDate fim);
 }
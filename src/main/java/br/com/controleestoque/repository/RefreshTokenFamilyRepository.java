@@ -0,0 +1,45 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, String> {
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO tab_refresh_token_family (family_id, current_jti, expires_at) " +
+            "VALUES (:familyId, :currentJti, :expiresAt)",
+            nativeQuery = true)
+    void insert(@Param("familyId") String familyId, @Param("currentJti") String currentJti,
+                @Param("expiresAt") Instant expiresAt);
+
+    // Matches only while the presented jti is still the current one, so of two concurrent rotations one wins
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tab_refresh_token_family SET current_jti = :nextJti, expires_at = :expiresAt " +
+            "WHERE family_id = :familyId AND current_jti = :presentedJti AND expires_at > :now",
+            nativeQuery = true)
+    int rotate(@Param("familyId") String familyId, @Param("presentedJti") String presentedJti,
+               @Param("nextJti") String nextJti, @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tab_refresh_token_family WHERE family_id = :familyId AND expires_at > :now)",
+            nativeQuery = true)
+    boolean existsActive(@Param("familyId") String familyId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tab_refresh_token_family WHERE family_id = :familyId", nativeQuery = true)
+    void deleteByFamilyId(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tab_refresh_token_family WHERE expires_at <= :now", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now);
+}
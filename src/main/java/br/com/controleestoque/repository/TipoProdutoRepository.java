@@ -1,11 +1,30 @@
 package br.com.controleestoque.repository;
 
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.TipoProduto;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.AvailableHints.HINT_CACHEABLE;
+
 @Repository
 public interface TipoProdutoRepository extends JpaRepository<TipoProduto, UUID> {
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<TipoProduto> findAll();
+
+    @Query("SELECT new br.com.controleestoque.model.dto.ResourceVersionDTO(cast(t.version as String), t.updatedAt) " +
+            "FROM TipoProduto t WHERE t.uuid = :id")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new br.com.controleestoque.model.dto.ResourceVersionDTO(count(t), max(t.updatedAt)) FROM TipoProduto t")
+    ResourceVersionDTO findCollectionVersion();
 }
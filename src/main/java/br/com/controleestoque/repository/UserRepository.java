@@ -1,15 +1,27 @@
 package br.com.controleestoque.repository;
 
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u WHERE u.username = :username")
     User findByUsername(@Param("username") String username);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    // Permission changes bump their own version only, so their versions are folded into the user ETag
+    @Query("SELECT new br.com.controleestoque.model.dto.ResourceVersionDTO(" +
+            "concat(cast(u.version as String), '.', cast(coalesce(sum(p.version), 0) as String))) " +
+            "FROM User u LEFT JOIN u.permissions p WHERE u.uuid = :id GROUP BY u.version")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") UUID id);
 }
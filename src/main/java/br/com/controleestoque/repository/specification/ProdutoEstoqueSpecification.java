@@ -0,0 +1,47 @@
+package br.com.controleestoque.repository.specification;
+
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.entity.ProdutoEstoque;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class ProdutoEstoqueSpecification {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ProdutoEstoqueSpecification() {
+    }
+
+    // Only the filters that were sent become predicates, so each query shape can use its own index
+    public static Specification<ProdutoEstoque> fromFilter(ProdutoEstoqueFilterDTO filter) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getMarca() != null && !filter.getMarca().isBlank()) {
+                String prefix = escapeLike(filter.getMarca().trim().toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("marca")), prefix, LIKE_ESCAPE));
+            }
+            if (filter.getDataEntregaInicio() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dataEntrega"), filter.getDataEntregaInicio()));
+            }
+            if (filter.getDataEntregaFim() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("dataEntrega"), filter.getDataEntregaFim()));
+            }
+            if (filter.getPessoaId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("pessoa").get("uuid"), filter.getPessoaId()));
+            }
+            if (filter.getTipoProdutoId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("tipoProduto").get("uuid"), filter.getTipoProdutoId()));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
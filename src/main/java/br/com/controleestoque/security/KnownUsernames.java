@@ -0,0 +1,93 @@
+package br.com.controleestoque.security;
+
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource;
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
+import br.com.controleestoque.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Every tab_user.user_name kept in memory so sign-ins for usernames that do not exist skip the database.
+// Changes made on this instance apply right away, the periodic rebuild picks up the ones made by other instances.
+@Component
+public class KnownUsernames {
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnownUsernames.class);
+    private final UserRepository userRepository;
+    private final long refreshIntervalMillis;
+    private final Set<String> addedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> usernames = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    private ScheduledExecutorService scheduler;
+
+    public KnownUsernames(UserRepository userRepository,
+                          @Value("${security.known-usernames.refresh-interval-ms:60000}") long refreshIntervalMillis) {
+        this.userRepository = userRepository;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        if (refreshIntervalMillis > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "known-usernames-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::rebuild, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // False only when the username is certainly absent, anything else still has to be checked against the database
+    public boolean mightExist(String username) {
+        return !loaded || (username != null && usernames.contains(username));
+    }
+
+    // Call only after the user is committed, otherwise a concurrent rebuild could miss it
+    public void add(String username) {
+        addedDuringRebuild.add(username);
+        usernames.add(username);
+    }
+
+    public void remove(String username) {
+        usernames.remove(username);
+    }
+
+    public int size() {
+        return usernames.size();
+    }
+
+    void rebuild() {
+        try {
+            addedDuringRebuild.clear();
+            Set<String> rebuilt = ConcurrentHashMap.newKeySet();
+            // A lagging replica could still miss a user that was just added here and committed
+            try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+                rebuilt.addAll(userRepository.findAllUsernames());
+            }
+            usernames = rebuilt;
+            rebuilt.addAll(addedDuringRebuild);
+            loaded = true;
+            LOGGER.debug("Rebuilt known usernames, size: {}", rebuilt.size());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not rebuild known usernames, keeping the previous set: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
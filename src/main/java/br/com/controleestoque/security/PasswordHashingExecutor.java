@@ -0,0 +1,117 @@
+package br.com.controleestoque.security;
+
+import br.com.controleestoque.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// BCrypt runs here instead of on the request thread. The pool caps the CPU it can take and the bounded
+// queue caps how many requests can wait for it, anything beyond that is answered with 429 right away.
+@Component
+public class PasswordHashingExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+    private static final String METRIC_PREFIX = "password.hashing";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final Counter rejectedMatches;
+    private final Counter rejectedEncodes;
+    private volatile String dummyEncodedPassword;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                   @Value("${security.password-hashing.threads:2}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:32}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.threadPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, METRIC_PREFIX);
+        this.rejectedMatches = rejectedCounter(meterRegistry, "matches");
+        this.rejectedEncodes = rejectedCounter(meterRegistry, "encode");
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), rejectedMatches);
+    }
+
+    // Same BCrypt cost as a real verification, used when there is no user so the response time does not reveal it
+    public void matchesNothing(CharSequence rawPassword) {
+        run(() -> passwordEncoder.matches(rawPassword, dummyEncodedPassword()), rejectedMatches);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), rejectedEncodes);
+    }
+
+    // Recognizes the hash a client read back from the API, which costs no hashing thread
+    public boolean isEncoded(String password) {
+        return password != null && BCRYPT_HASH.matcher(password).matches();
+    }
+
+    public int getQueueSize() {
+        return threadPool.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String dummyEncodedPassword() {
+        String encoded = dummyEncodedPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyEncodedPassword = encoded;
+        }
+        return encoded;
+    }
+
+    private <T> T run(Callable<T> task, Counter rejected) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            LOGGER.warn("Password hashing queue is full with {} pending tasks", threadPool.getQueue().size());
+            throw new TooManyRequestsException("Too many authentication requests, retry shortly");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
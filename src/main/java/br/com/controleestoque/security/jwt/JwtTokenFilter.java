@@ -1,5 +1,6 @@
 package br.com.controleestoque.security.jwt;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -19,10 +20,14 @@ public class JwtTokenFilter extends GenericFilterBean {
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
         String token = jwtTokenProvider.resolveToken((HttpServletRequest) servletRequest);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            Authentication authentication = jwtTokenProvider.getAuthentication(token);
-            if (authentication != null) {
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            DecodedJWT decodedJWT = jwtTokenProvider.verifyToken(token);
+            // Refresh tokens are only accepted by the refresh endpoint, never as request credentials
+            if (!jwtTokenProvider.isRefreshToken(decodedJWT) && jwtTokenProvider.validateToken(decodedJWT)) {
+                Authentication authentication = jwtTokenProvider.getAuthentication(decodedJWT);
+                if (authentication != null) {
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         }
         filterChain.doFilter(servletRequest, servletResponse);
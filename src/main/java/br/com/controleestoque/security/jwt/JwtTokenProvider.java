@@ -1,122 +1,250 @@
 package br.com.controleestoque.security.jwt;
 
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource;
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
 import br.com.controleestoque.model.entity.Permission;
 import br.com.controleestoque.repository.UserRepository;
 import br.com.controleestoque.security.TokenDTO;
+import br.com.controleestoque.security.jwt.RefreshTokenFamilies.Rotation;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.Base64;
-import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class JwtTokenProvider {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtTokenProvider.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String FAMILY_CLAIM = "fid";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+
     @Value("${security.jwt.token.secret-key:secret}")
     private String secretKey;
 
     @Value("${security.jwt.token.expire-length:3600000}")
     private Long validityInMilliseconds;
 
+    @Value("${security.jwt.token.issuer:}")
+    private String configuredIssuer;
+
+    @Value("${security.jwt.stateless-authentication:false}")
+    private boolean statelessAuthentication;
+
+    @Value("${security.jwt.verified-token-cache.max-size:1000}")
+    private long verifiedTokenCacheMaxSize;
+
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenFamilies refreshTokenFamilies;
     Algorithm algorithm;
+    private JWTVerifier jwtVerifier;
+    private Cache<String, DecodedJWT> verifiedTokens;
+    private volatile String issuerUrl;
 
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        jwtVerifier = JWT.require(algorithm).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheMaxSize)
+                .build();
+        issuerUrl = configuredIssuer == null || configuredIssuer.isBlank() ? null : configuredIssuer;
     }
 
     public TokenDTO createAccessToken(String username, List<Permission> roles) {
+        String familyId = UUID.randomUUID().toString();
+        String refreshTokenId = UUID.randomUUID().toString();
         Date now = new Date();
-        Date validity = new Date(now.getTime() + validityInMilliseconds);
-        var accessToken = getAccessToken(username, roles, now, validity);
-        var refreshToken = getRefreshToken(username, roles, now);
-        return new TokenDTO(username, true, now, validity, accessToken, refreshToken);
+        refreshTokenFamilies.open(familyId, refreshTokenId, refreshTokenExpiresAt(now).toInstant());
+        return createTokens(username, roles.stream().map(Permission::getDescription).toList(), familyId, refreshTokenId, now);
     }
 
-    public TokenDTO createRefreshToken(String refreshToken) {
-        if (refreshToken.contains("Bearer ")) {
-            refreshToken = refreshToken.substring("Bearer ".length());
-            refreshToken = refreshToken.substring(0, refreshToken.length() - 1);
-            refreshToken = refreshToken.trim();
+    // Rotates the refresh token: the presented one is spent and presenting it again revokes the whole family
+    public TokenDTO createRefreshToken(String username, String refreshToken) {
+        DecodedJWT decodedJWT = verifyToken(stripBearerPrefix(refreshToken));
+        String familyId = decodedJWT.getClaim(FAMILY_CLAIM).asString();
+        if (!isRefreshToken(decodedJWT) || familyId == null || decodedJWT.getId() == null
+                || !decodedJWT.getSubject().equals(username)) {
+            throw new BadCredentialsException("Invalid refresh token!");
+        }
+        if (tokenRevocationList.isRevoked(familyId)) {
+            throw new BadCredentialsException("Refresh token revoked!");
         }
-        JWTVerifier jwtVerifier = JWT.require(algorithm).build();
-        DecodedJWT decodedJWT = jwtVerifier.verify(refreshToken);
-        String username = decodedJWT.getSubject();
-        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
-        List<Permission> permissions = roles.stream()
-                .map(roleName -> {
-                    Permission permission = new Permission();
-                    permission.setDescription(roleName);
-                    return permission;
-                })
-                .collect(Collectors.toList());
 
-        return createAccessToken(username, permissions);
+        String refreshTokenId = UUID.randomUUID().toString();
+        Date now = new Date();
+        Rotation rotation = refreshTokenFamilies.rotate(familyId, decodedJWT.getId(), refreshTokenId,
+                refreshTokenExpiresAt(now).toInstant());
+        if (rotation == Rotation.REUSED) {
+            revokeFamily(familyId);
+            LOGGER.warn("Refresh token reuse detected for username: {}, token family revoked", username);
+            throw new BadCredentialsException("Refresh token revoked!");
+        }
+        if (rotation == Rotation.UNKNOWN) {
+            throw new BadCredentialsException("Invalid refresh token!");
+        }
+        return createTokens(username, decodedJWT.getClaim(ROLES_CLAIM).asList(String.class), familyId, refreshTokenId, now);
     }
 
-    private String getAccessToken(String username, List<Permission> roles, Date now, Date validity) {
-        String issuerUrl = ServletUriComponentsBuilder
-                .fromCurrentContextPath().build().toUriString();
+    // Revokes the token itself and its family, which also ends every refresh token issued with it
+    public void revokeToken(String token) {
+        DecodedJWT decodedJWT = verifyToken(stripBearerPrefix(token));
+        if (decodedJWT.getId() != null) {
+            tokenRevocationList.revoke(decodedJWT.getId(), decodedJWT.getExpiresAtAsInstant());
+        }
+        String familyId = decodedJWT.getClaim(FAMILY_CLAIM).asString();
+        if (familyId != null) {
+            revokeFamily(familyId);
+        }
+    }
+
+    public void revokeFamily(String familyId) {
+        tokenRevocationList.revoke(familyId, Instant.now().plusMillis(refreshValidityInMilliseconds()));
+        refreshTokenFamilies.remove(familyId);
+    }
+
+    public boolean isRefreshToken(DecodedJWT decodedJWT) {
+        return REFRESH_TOKEN_TYPE.equals(decodedJWT.getClaim(TOKEN_TYPE_CLAIM).asString());
+    }
+
+    private TokenDTO createTokens(String username, List<String> roles, String familyId, String refreshTokenId, Date now) {
+        List<String> roleNames = roles == null ? List.of() : roles;
+        Date validity = new Date(now.getTime() + validityInMilliseconds);
+        var accessToken = getAccessToken(username, roleNames, familyId, now, validity);
+        var refreshToken = getRefreshToken(username, roleNames, familyId, refreshTokenId, now);
+        return new TokenDTO(username, true, now, validity, accessToken, refreshToken);
+    }
 
+    private String getAccessToken(String username, List<String> roles, String familyId, Date now, Date validity) {
         return JWT.create()
-                .withClaim("roles", roles.stream().map(Permission::getDescription).collect(Collectors.toList()))
+                .withClaim(ROLES_CLAIM, roles)
+                .withClaim(FAMILY_CLAIM, familyId)
+                .withJWTId(UUID.randomUUID().toString())
                 .withIssuedAt(now)
                 .withExpiresAt(validity)
                 .withSubject(username)
-                .withIssuer(issuerUrl)
+                .withIssuer(getIssuerUrl())
                 .sign(algorithm)
                 .strip();
     }
 
-    private String getRefreshToken(String username, List<Permission> roles, Date now) {
-        Date validityRefreshToken = new Date(now.getTime() + (validityInMilliseconds) * 3);
+    private String getRefreshToken(String username, List<String> roles, String familyId, String refreshTokenId, Date now) {
         return JWT.create()
-                .withClaim("roles", roles.stream().map(Permission::getDescription).collect(Collectors.toList()))
+                .withClaim(ROLES_CLAIM, roles)
+                .withClaim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
+                .withClaim(FAMILY_CLAIM, familyId)
+                .withJWTId(refreshTokenId)
                 .withIssuedAt(now)
-                .withExpiresAt(validityRefreshToken)
+                .withExpiresAt(refreshTokenExpiresAt(now))
                 .withSubject(username)
                 .sign(algorithm)
                 .strip();
     }
 
+    // Resolved from the first request when security.jwt.token.issuer is not set, then reused
+    private String getIssuerUrl() {
+        String issuer = issuerUrl;
+        if (issuer == null) {
+            issuer = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+            issuerUrl = issuer;
+        }
+        return issuer;
+    }
+
+    private Date refreshTokenExpiresAt(Date now) {
+        return new Date(now.getTime() + refreshValidityInMilliseconds());
+    }
+
+    private long refreshValidityInMilliseconds() {
+        return validityInMilliseconds * 3;
+    }
+
+    private static String stripBearerPrefix(String token) {
+        return token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()).trim() : token.trim();
+    }
+
     public Authentication getAuthentication(String token) {
-        DecodedJWT decodedJWT = decodeToken(token);
-        UserDetails userDetails = this.userRepository.findByUsername(decodedJWT.getSubject());
+        return getAuthentication(verifyToken(token));
+    }
+
+    public Authentication getAuthentication(DecodedJWT decodedJWT) {
+        UserDetails userDetails = statelessAuthentication
+                ? getUserDetailsFromClaims(decodedJWT)
+                : principalCache.get(decodedJWT.getSubject(), decodedJWT.getIssuedAtAsInstant(), this::loadPrincipal);
+        if (userDetails == null) {
+            return null;
+        }
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
-    private DecodedJWT decodeToken(String token) {
-        Algorithm algorithm = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier jwtVerifier = JWT.require(algorithm).build();
-        return jwtVerifier.verify(token);
+    // Cached for longer than the replica may lag, right after the user was changed and the entry invalidated
+    private UserDetails loadPrincipal(String username) {
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            return userRepository.findByUsername(username);
+        }
+    }
+
+    private UserDetails getUserDetailsFromClaims(DecodedJWT decodedJWT) {
+        List<String> roles = decodedJWT.getClaim(ROLES_CLAIM).asList(String.class);
+        return User.withUsername(decodedJWT.getSubject())
+                .password("")
+                .authorities(roles == null ? new String[0] : roles.toArray(String[]::new))
+                .build();
+    }
+
+    public DecodedJWT verifyToken(String token) {
+        // Keyed by the whole token: a signature alone could be replayed with a tampered payload
+        DecodedJWT decodedJWT = verifiedTokens.getIfPresent(token);
+        if (decodedJWT != null && (decodedJWT.getExpiresAt() == null || decodedJWT.getExpiresAtAsInstant().isAfter(Instant.now()))) {
+            return decodedJWT;
+        }
+        verifiedTokens.invalidate(token);
+        decodedJWT = jwtVerifier.verify(token);
+        verifiedTokens.put(token, decodedJWT);
+        return decodedJWT;
     }
 
     public String resolveToken(HttpServletRequest httpServletRequest) {
         String bearerToken = httpServletRequest.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring("Bearer ".length());
+        if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
         }
         return null;
     }
 
     public boolean validateToken(String token) {
-        DecodedJWT decodedJWT = decodeToken(token);
+        return validateToken(verifyToken(token));
+    }
+
+    public boolean validateToken(DecodedJWT decodedJWT) {
         try {
+            if (tokenRevocationList.isRevoked(decodedJWT.getId())
+                    || tokenRevocationList.isRevoked(decodedJWT.getClaim(FAMILY_CLAIM).asString())) {
+                return false;
+            }
             return !decodedJWT.getExpiresAt().before(new Date());
         } catch (Exception exception) {
             throw new RuntimeException("Expired or invalid JWT token!");
@@ -0,0 +1,49 @@
+package br.com.controleestoque.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrincipalCache.class);
+    private final Cache<PrincipalKey, UserDetails> cache;
+
+    public PrincipalCache(@Value("${security.jwt.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.jwt.principal-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String username, Instant issuedAt, Function<String, UserDetails> loader) {
+        return cache.get(new PrincipalKey(username, issuedAt), key -> loader.apply(key.username()));
+    }
+
+    public void invalidate(String username) {
+        LOGGER.debug("Invalidating cached principals for username: {}", username);
+        cache.asMap().keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    public void invalidateAll() {
+        LOGGER.debug("Invalidating all cached principals");
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record PrincipalKey(String username, Instant issuedAt) {
+    }
+}
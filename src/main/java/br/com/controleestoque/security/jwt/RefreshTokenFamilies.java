@@ -0,0 +1,84 @@
+package br.com.controleestoque.security.jwt;
+
+import br.com.controleestoque.repository.RefreshTokenFamilyRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// The current jti of every refresh token family, kept in tab_refresh_token_family so a family rotated on one
+// instance is checked against the same jti on all of them. Nothing is held in memory: a stale copy would turn
+// a rotation made elsewhere into a false reuse.
+@Component
+public class RefreshTokenFamilies {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshTokenFamilies.class);
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    private final long cleanupIntervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    public enum Rotation {
+        ROTATED,
+        // The family exists but its current jti is another one: the presented token was already spent
+        REUSED,
+        // Never issued, expired or already revoked
+        UNKNOWN
+    }
+
+    public RefreshTokenFamilies(RefreshTokenFamilyRepository refreshTokenFamilyRepository,
+                                @Value("${security.jwt.refresh-token-families.cleanup-interval-ms:3600000}") long cleanupIntervalMillis) {
+        this.refreshTokenFamilyRepository = refreshTokenFamilyRepository;
+        this.cleanupIntervalMillis = cleanupIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (cleanupIntervalMillis > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "refresh-token-families-cleanup");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::deleteExpired, cleanupIntervalMillis, cleanupIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void open(String familyId, String refreshTokenId, Instant expiresAt) {
+        refreshTokenFamilyRepository.insert(familyId, refreshTokenId, expiresAt);
+    }
+
+    public Rotation rotate(String familyId, String presentedTokenId, String nextTokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (refreshTokenFamilyRepository.rotate(familyId, presentedTokenId, nextTokenId, expiresAt, now) == 1) {
+            return Rotation.ROTATED;
+        }
+        return refreshTokenFamilyRepository.existsActive(familyId, now) ? Rotation.REUSED : Rotation.UNKNOWN;
+    }
+
+    public void remove(String familyId) {
+        refreshTokenFamilyRepository.deleteByFamilyId(familyId);
+    }
+
+    void deleteExpired() {
+        try {
+            int deleted = refreshTokenFamilyRepository.deleteExpired(Instant.now());
+            LOGGER.debug("Deleted {} expired refresh token families", deleted);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not delete expired refresh token families: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.controleestoque.security.jwt;
+
+import br.com.controleestoque.model.entity.RevokedToken;
+import br.com.controleestoque.repository.RevokedTokenRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Revoked token ids checked on every request. Lookups hit a hash set only; ids are also grouped in buckets
+// by expiry so the sweep drops whole buckets once their tokens can no longer pass verification anyway.
+// tab_revoked_token is the source for restarts and for revocations made by other instances, so until it has
+// been loaded once every id counts as revoked: a token signed out or revoked for reuse is never accepted again.
+@Component
+public class TokenRevocationList {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final long LOAD_RETRY_MILLIS = 5000;
+    // Rows are stamped with the transaction start time, the overlap covers ones that committed late
+    private static final long SYNC_OVERLAP_MILLIS = 60000;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long bucketMillis;
+    private final long syncIntervalMillis;
+    private final Set<String> revokedIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+    private volatile long loadRetryAtMillis;
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+    private ScheduledExecutorService scheduler;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${security.jwt.revocation.bucket-ms:60000}") long bucketMillis,
+                               @Value("${security.jwt.revocation.sync-interval-ms:10000}") long syncIntervalMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bucketMillis = bucketMillis;
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    // Loads in the background so startup does not wait, a request arriving first loads it itself
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::ensureLoaded);
+        if (syncIntervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::refresh, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!loaded && !ensureLoaded()) {
+            return true;
+        }
+        return tokenId != null && revokedIds.contains(tokenId);
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        add(tokenId, expiresAt.toEpochMilli());
+        revokedTokenRepository.insertIfAbsent(tokenId, expiresAt);
+        LOGGER.debug("Revoked token ID: {} until {}", tokenId, expiresAt);
+    }
+
+    public int size() {
+        return revokedIds.size();
+    }
+
+    void refresh() {
+        try {
+            if (!loaded) {
+                ensureLoaded();
+            } else {
+                sync(syncedUpTo.minusMillis(SYNC_OVERLAP_MILLIS));
+            }
+            sweep(System.currentTimeMillis());
+            revokedTokenRepository.deleteExpired(Instant.now());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not synchronize revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    void sweep(long nowMillis) {
+        Map<Long, Set<String>> expired = buckets.headMap(nowMillis / bucketMillis, true);
+        expired.values().forEach(revokedIds::removeAll);
+        expired.clear();
+    }
+
+    // A lock instead of synchronized: the load waits on the database, and a virtual thread blocked in or on a monitor
+    // pins its carrier, so every request arriving meanwhile would hold one
+    private boolean ensureLoaded() {
+        loadLock.lock();
+        try {
+            if (loaded || System.currentTimeMillis() < loadRetryAtMillis) {
+                return loaded;
+            }
+            sync(Instant.EPOCH);
+            loaded = true;
+            LOGGER.info("Loaded {} revoked tokens", revokedIds.size());
+            return true;
+        } catch (RuntimeException e) {
+            loadRetryAtMillis = System.currentTimeMillis() + LOAD_RETRY_MILLIS;
+            LOGGER.error("Could not load revoked tokens, rejecting every token until the retry in {} ms: {}",
+                    LOAD_RETRY_MILLIS, e.getMessage());
+            return false;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void sync(Instant since) {
+        Instant latest = syncedUpTo;
+        for (RevokedToken revokedToken : revokedTokenRepository.findActiveRevokedSince(since, Instant.now())) {
+            add(revokedToken.getTokenId(), revokedToken.getExpiresAt().toEpochMilli());
+            if (revokedToken.getRevokedAt().isAfter(latest)) {
+                latest = revokedToken.getRevokedAt();
+            }
+        }
+        syncedUpTo = latest;
+    }
+
+    // A bucket holds ids expiring before its end, so it can be dropped as soon as that end has passed
+    private void add(String tokenId, long expiresAtMillis) {
+        buckets.computeIfAbsent(expiresAtMillis / bucketMillis + 1, bucket -> ConcurrentHashMap.newKeySet()).add(tokenId);
+        revokedIds.add(tokenId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
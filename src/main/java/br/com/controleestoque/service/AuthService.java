@@ -7,4 +7,6 @@ public interface AuthService {
     TokenDTO signIn(AccountCredentialsDTO accountCredentialsDTO);
 
     TokenDTO refreshToken(String username, String refreshToken);
+
+    void signOut(String token);
 }
@@ -0,0 +1,7 @@
+package br.com.controleestoque.service;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record EstoqueTotalDelta(UUID tipoProdutoId, UUID pessoaId, LocalDate dataEntrega, long pacotes, long entregas) {
+}
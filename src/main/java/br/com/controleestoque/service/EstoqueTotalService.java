@@ -0,0 +1,27 @@
+package br.com.controleestoque.service;
+
+import br.com.controleestoque.model.dto.EstoqueTotalConsistencyDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EstoqueTotalService {
+    EstoqueTotalDTO findByTipoProduto(UUID tipoProdutoId);
+
+    List<EstoqueTotalDTO> findAll();
+
+    List<EstoqueTotalPessoaDTO> findPessoaTotals(UUID tipoProdutoId, LocalDate inicio, LocalDate fim);
+
+    List<EstoqueTotalDiarioDTO> findDailyTotals(UUID tipoProdutoId, UUID pessoaId, LocalDate inicio, LocalDate fim);
+
+    void applyDeltas(Collection<EstoqueTotalDelta> deltas);
+
+    EstoqueTotalConsistencyDTO rebuild();
+
+    EstoqueTotalConsistencyDTO checkConsistency();
+}
@@ -1,6 +1,7 @@
 package br.com.controleestoque.service;
 
 import br.com.controleestoque.model.dto.PermissionDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,9 +11,11 @@ public interface PermissionService {
 
     List<PermissionDTO> findAll();
 
+    ResourceVersionDTO findVersionById(UUID id);
+
     PermissionDTO create(PermissionDTO permissionDTO);
 
-    void update(UUID id, PermissionDTO permissionDTO);
+    void update(UUID id, PermissionDTO permissionDTO, String ifMatch);
 
     void delete(UUID id);
 }
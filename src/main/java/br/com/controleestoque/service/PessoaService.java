@@ -1,6 +1,7 @@
 package br.com.controleestoque.service;
 
 import br.com.controleestoque.model.dto.PessoaDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,9 +11,13 @@ public interface PessoaService {
 
     List<PessoaDTO> findAll();
 
+    ResourceVersionDTO findVersionById(UUID id);
+
+    ResourceVersionDTO findCollectionVersion();
+
     PessoaDTO create(PessoaDTO pessoaDTO);
 
-    void update(UUID id, PessoaDTO pessoaDTO);
+    void update(UUID id, PessoaDTO pessoaDTO, String ifMatch);
 
     void delete(UUID id);
 }
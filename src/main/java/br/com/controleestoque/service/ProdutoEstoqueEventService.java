@@ -0,0 +1,11 @@
+package br.com.controleestoque.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface ProdutoEstoqueEventService {
+    SseEmitter subscribe(UUID tipoProdutoId, UUID pessoaId);
+
+    int countSubscribers();
+}
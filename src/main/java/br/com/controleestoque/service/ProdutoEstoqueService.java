@@ -1,18 +1,48 @@
 package br.com.controleestoque.service;
 
+import br.com.controleestoque.model.dto.ProdutoEstoqueBatchResultDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangesDTO;
 import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePageDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueSearchResultDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
+import br.com.controleestoque.shared.constant.ExportFormat;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 public interface ProdutoEstoqueService {
     ProdutoEstoqueDTO findById(UUID id);
 
-    List<ProdutoEstoqueDTO> findAll();
+    ProdutoEstoquePageDTO findAll();
+
+    ResourceVersionDTO findVersionById(UUID id);
+
+    ResourceVersionDTO findCollectionVersion();
+
+    ProdutoEstoquePageDTO findPage(String cursor, Integer size);
+
+    ProdutoEstoqueChangesDTO findChanges(String since, Integer size);
+
+    ProdutoEstoqueSearchResultDTO search(ProdutoEstoqueFilterDTO filter, Integer page, Integer size, String sort);
+
+    List<ProdutoEstoqueMonthlySummaryDTO> summarizeByTipoProdutoAndMonth(LocalDate inicio, LocalDate fim);
+
+    List<ProdutoEstoquePessoaSummaryDTO> summarizeByPessoa(LocalDate inicio, LocalDate fim);
+
+    void export(ExportFormat format, OutputStream outputStream) throws IOException;
 
     ProdutoEstoqueDTO create(ProdutoEstoqueDTO produtoEstoqueDTO);
 
-    void update(UUID id, ProdutoEstoqueDTO produtoEstoqueDTO);
+    List<ProdutoEstoqueBatchResultDTO> saveBatch(List<ProdutoEstoqueDTO> produtoEstoqueDTOS);
+
+    void update(UUID id, ProdutoEstoqueDTO produtoEstoqueDTO, String ifMatch);
 
     void delete(UUID id);
 }
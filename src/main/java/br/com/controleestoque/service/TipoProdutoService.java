@@ -1,6 +1,7 @@
 package br.com.controleestoque.service;
 
 import br.com.controleestoque.model.dto.TipoProdutoDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,9 +11,13 @@ public interface TipoProdutoService {
 
     List<TipoProdutoDTO> findAll();
 
+    ResourceVersionDTO findVersionById(UUID id);
+
+    ResourceVersionDTO findCollectionVersion();
+
     TipoProdutoDTO create(TipoProdutoDTO tipoProdutoDTO);
 
-    void update(UUID id, TipoProdutoDTO tipoProdutoDTO);
+    void update(UUID id, TipoProdutoDTO tipoProdutoDTO, String ifMatch);
 
     void delete(UUID id);
 }
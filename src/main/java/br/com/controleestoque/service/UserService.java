@@ -1,5 +1,6 @@
 package br.com.controleestoque.service;
 
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.dto.UserDTO;
 
 import java.util.List;
@@ -10,9 +11,11 @@ public interface UserService {
 
     List<UserDTO> findAll();
 
+    ResourceVersionDTO findVersionById(UUID id);
+
     UserDTO create(UserDTO userDTO);
 
-    void update(UUID id, UserDTO userDTO);
+    void update(UUID id, UserDTO userDTO, String ifMatch);
 
     void delete(UUID id);
 }
@@ -3,6 +3,8 @@ package br.com.controleestoque.service.impl;
 import br.com.controleestoque.model.entity.User;
 import br.com.controleestoque.repository.UserRepository;
 import br.com.controleestoque.security.AccountCredentialsDTO;
+import br.com.controleestoque.security.KnownUsernames;
+import br.com.controleestoque.security.PasswordHashingExecutor;
 import br.com.controleestoque.security.TokenDTO;
 import br.com.controleestoque.security.jwt.JwtTokenProvider;
 import br.com.controleestoque.service.AuthService;
@@ -11,7 +13,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -21,18 +22,22 @@ public class AuthServiceImpl implements AuthService {
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthServiceImpl.class);
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final KnownUsernames knownUsernames;
 
     @Override
     public TokenDTO signIn(AccountCredentialsDTO accountCredentialsDTO) {
         LOGGER.info("Signing in user: {}", accountCredentialsDTO.getUsername());
 
-        User user = userRepository.findByUsername(accountCredentialsDTO.getUsername());
+        User user = knownUsernames.mightExist(accountCredentialsDTO.getUsername())
+                ? userRepository.findByUsername(accountCredentialsDTO.getUsername())
+                : null;
         if (user == null) {
+            passwordHashingExecutor.matchesNothing(accountCredentialsDTO.getPassword());
             logAndThrowUsernameNotFound(accountCredentialsDTO.getUsername());
         }
 
-        if (user != null && !passwordEncoder.matches(accountCredentialsDTO.getPassword(), user.getPassword())) {
+        if (user != null && !passwordHashingExecutor.matches(accountCredentialsDTO.getPassword(), user.getPassword())) {
             LOGGER.error("Invalid password for username: {}", accountCredentialsDTO.getUsername());
             throw new BadCredentialsException("Invalid username/password supplied!");
         }
@@ -45,12 +50,18 @@ public class AuthServiceImpl implements AuthService {
     public TokenDTO refreshToken(String username, String refreshToken) {
         LOGGER.info("Refreshing token for user: {}", username);
 
-        User user = userRepository.findByUsername(username);
-        if (user == null) {
+        // Roles travel in the refresh token, a deleted user is caught by the in-memory username set
+        if (!knownUsernames.mightExist(username)) {
             logAndThrowUsernameNotFound(username);
         }
 
-        return jwtTokenProvider.createRefreshToken(refreshToken);
+        return jwtTokenProvider.createRefreshToken(username, refreshToken);
+    }
+
+    @Override
+    public void signOut(String token) {
+        LOGGER.info("Signing out token");
+        jwtTokenProvider.revokeToken(token);
     }
 
     private void logAndThrowUsernameNotFound(String username) {
@@ -0,0 +1,146 @@
+package br.com.controleestoque.service.impl;
+
+import br.com.controleestoque.exception.InvalidRequestException;
+import br.com.controleestoque.model.dto.EstoqueTotalConsistencyDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+import br.com.controleestoque.model.mapper.EstoqueTotalMapper;
+import br.com.controleestoque.repository.EstoqueTotalRepository;
+import br.com.controleestoque.service.EstoqueTotalDelta;
+import br.com.controleestoque.service.EstoqueTotalService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class EstoqueTotalServiceImpl implements EstoqueTotalService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EstoqueTotalServiceImpl.class);
+    private final EstoqueTotalRepository estoqueTotalRepository;
+    private static final EstoqueTotalMapper mapper = EstoqueTotalMapper.INSTANCE;
+    private static final LocalDate MIN_DATA_ENTREGA = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_DATA_ENTREGA = LocalDate.of(9999, 12, 31);
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstoqueTotalDTO findByTipoProduto(UUID tipoProdutoId) {
+        LOGGER.info("Finding EstoqueTotal by TipoProduto ID: {}", tipoProdutoId);
+        return estoqueTotalRepository.findById(tipoProdutoId)
+                .map(mapper::entityToDto)
+                .orElseGet(() -> new EstoqueTotalDTO(tipoProdutoId, 0L, 0L));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstoqueTotalDTO> findAll() {
+        LOGGER.info("Finding all EstoqueTotais");
+        return estoqueTotalRepository.findAll().stream()
+                .map(mapper::entityToDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstoqueTotalPessoaDTO> findPessoaTotals(UUID tipoProdutoId, LocalDate inicio, LocalDate fim) {
+        LOGGER.info("Finding EstoqueTotais by Pessoa for TipoProduto ID: {} from {} to {}", tipoProdutoId, inicio, fim);
+        validateRange(inicio, fim);
+        return estoqueTotalRepository.findPessoaTotals(tipoProdutoId,
+                Objects.requireNonNullElse(inicio, MIN_DATA_ENTREGA),
+                Objects.requireNonNullElse(fim, MAX_DATA_ENTREGA));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstoqueTotalDiarioDTO> findDailyTotals(UUID tipoProdutoId, UUID pessoaId, LocalDate inicio, LocalDate fim) {
+        LOGGER.info("Finding daily EstoqueTotais for TipoProduto ID: {} and Pessoa ID: {} from {} to {}",
+                tipoProdutoId, pessoaId, inicio, fim);
+        validateRange(inicio, fim);
+        LocalDate from = Objects.requireNonNullElse(inicio, MIN_DATA_ENTREGA);
+        LocalDate to = Objects.requireNonNullElse(fim, MAX_DATA_ENTREGA);
+        return pessoaId == null
+                ? estoqueTotalRepository.findDailyTotals(tipoProdutoId, from, to)
+                : estoqueTotalRepository.findDailyTotalsByPessoa(tipoProdutoId, pessoaId, from, to);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(Collection<EstoqueTotalDelta> deltas) {
+        // Sorted so concurrent writers touching the same rows always lock them in the same order and cannot deadlock
+        Map<DailyKey, long[]> dailyDeltas = new TreeMap<>(DailyKey.ORDER);
+        Map<UUID, long[]> tipoProdutoDeltas = new TreeMap<>();
+        for (EstoqueTotalDelta delta : deltas) {
+            merge(dailyDeltas, new DailyKey(delta.tipoProdutoId(), delta.pessoaId(), delta.dataEntrega()), delta);
+            merge(tipoProdutoDeltas, delta.tipoProdutoId(), delta);
+        }
+
+        dailyDeltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            estoqueTotalRepository.addToDailyTotal(key.tipoProdutoId(), key.pessoaId(), key.dataEntrega(), delta[0], delta[1]);
+            if (delta[1] < 0) {
+                estoqueTotalRepository.deleteEmptyDailyTotal(key.tipoProdutoId(), key.pessoaId(), key.dataEntrega());
+            }
+        });
+        tipoProdutoDeltas.forEach((tipoProdutoId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                estoqueTotalRepository.addToTipoProdutoTotal(tipoProdutoId, delta[0], delta[1]);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public EstoqueTotalConsistencyDTO rebuild() {
+        LOGGER.info("Rebuilding EstoqueTotais from ProdutoEstoque");
+        // Blocks concurrent stock writes until commit so no delta lands between the delete and the re-insert
+        estoqueTotalRepository.lockProdutoEstoqueForRebuild();
+        estoqueTotalRepository.deleteAllDailyTotals();
+        estoqueTotalRepository.deleteAllTipoProdutoTotals();
+        estoqueTotalRepository.insertDailyTotalsFromProdutoEstoque();
+        estoqueTotalRepository.insertTipoProdutoTotalsFromProdutoEstoque();
+        return checkConsistency();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstoqueTotalConsistencyDTO checkConsistency() {
+        long divergentDailyTotals = estoqueTotalRepository.countDivergentDailyTotals();
+        long divergentTipoProdutoTotals = estoqueTotalRepository.countDivergentTipoProdutoTotals();
+        if (divergentDailyTotals > 0 || divergentTipoProdutoTotals > 0) {
+            LOGGER.warn("EstoqueTotais diverge from ProdutoEstoque: {} daily, {} per TipoProduto",
+                    divergentDailyTotals, divergentTipoProdutoTotals);
+        }
+        return EstoqueTotalConsistencyDTO.builder()
+                .consistent(divergentDailyTotals == 0 && divergentTipoProdutoTotals == 0)
+                .divergentDailyTotals(divergentDailyTotals)
+                .divergentTipoProdutoTotals(divergentTipoProdutoTotals)
+                .build();
+    }
+
+    private void validateRange(LocalDate inicio, LocalDate fim) {
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            LOGGER.error("Invalid EstoqueTotal range: {} to {}", inicio, fim);
+            throw new InvalidRequestException("dataEntregaInicio must not be after dataEntregaFim");
+        }
+    }
+
+    private static <K> void merge(Map<K, long[]> deltas, K key, EstoqueTotalDelta delta) {
+        long[] totals = deltas.computeIfAbsent(key, ignored -> new long[2]);
+        totals[0] += delta.pacotes();
+        totals[1] += delta.entregas();
+    }
+
+    private record DailyKey(UUID tipoProdutoId, UUID pessoaId, LocalDate dataEntrega) {
+        private static final Comparator<DailyKey> ORDER = Comparator.comparing(DailyKey::tipoProdutoId)
+                .thenComparing(DailyKey::pessoaId)
+                .thenComparing(DailyKey::dataEntrega);
+    }
+}
@@ -1,68 +1,107 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource;
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
+import br.com.controleestoque.config.ReferenceCacheEvictor;
+import br.com.controleestoque.config.ResponseBytesCache;
+import br.com.controleestoque.config.ResponseBytesCache.Region;
 import br.com.controleestoque.controller.PermissionController;
 import br.com.controleestoque.exception.PermissionException;
 import br.com.controleestoque.model.dto.PermissionDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.Permission;
 import br.com.controleestoque.model.mapper.PermissionMapper;
 import br.com.controleestoque.repository.PermissionRepository;
+import br.com.controleestoque.security.jwt.PrincipalCache;
 import br.com.controleestoque.service.PermissionService;
+import br.com.controleestoque.util.ETagUtil;
+import br.com.controleestoque.util.HateoasLinkFactory;
+import br.com.controleestoque.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Service
 @RequiredArgsConstructor
 public class PermissionServiceImpl implements PermissionService {
     private static final Logger LOGGER = LoggerFactory.getLogger(PermissionServiceImpl.class);
     private final PermissionRepository permissionRepository;
+    private final ReferenceCacheEvictor referenceCacheEvictor;
+    private final ResponseBytesCache responseBytesCache;
+    private final PrincipalCache principalCache;
     private static final PermissionMapper mapper = PermissionMapper.INSTANCE;
+    private static final HateoasLinkFactory<PermissionController> SELF_LINK = HateoasLinkFactory.of(PermissionController.class, (controller, id) -> controller.findById(id, null));
 
     @Override
+    @Transactional(readOnly = true)
     public PermissionDTO findById(UUID id) {
         LOGGER.info("Finding Permission by ID: {}", id);
-        Permission permissionEntity = findPermissionById(id);
-        return addHateoasLinks(mapper.entityToDto(permissionEntity));
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            Permission permissionEntity = findPermissionById(id);
+            return addHateoasLinks(mapper.entityToDto(permissionEntity));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PermissionDTO> findAll() {
         LOGGER.info("Finding all Permissions");
-        return permissionRepository.findAll()
-                .stream()
-                .map(mapper::entityToDto)
-                .map(this::addHateoasLinks)
-                .toList();
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            return permissionRepository.findAll()
+                    .stream()
+                    .map(mapper::entityToDto)
+                    .map(this::addHateoasLinks)
+                    .toList();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findVersionById(UUID id) {
+        return permissionRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("Permission not found with ID: {}", id);
+                    return new PermissionException("Permission not found with ID: " + id);
+                });
     }
 
     @Override
+    @Transactional
     public PermissionDTO create(PermissionDTO permissionDTO) {
         LOGGER.info("Creating a new Permission");
         Permission permissionEntity = mapper.dtoToEntity(permissionDTO);
         permissionRepository.save(permissionEntity);
+        responseBytesCache.invalidate(Region.PERMISSION);
         return addHateoasLinks(mapper.entityToDto(permissionEntity));
     }
 
     @Override
-    public void update(UUID id, PermissionDTO permissionDTO) {
+    @Transactional
+    public void update(UUID id, PermissionDTO permissionDTO, String ifMatch) {
         LOGGER.info("Updating Permission with ID: {}", id);
         Permission permissionEntity = findPermissionById(id);
+        ETagUtil.checkIfMatch(ifMatch, () -> ETagUtil.version(permissionEntity.getVersion()));
         permissionEntity.setDescription(permissionDTO.getDescription());
         permissionRepository.save(permissionEntity);
+        referenceCacheEvictor.evict(Permission.class, id);
+        responseBytesCache.invalidate(Region.PERMISSION);
+        TransactionUtil.invalidateNowAndAfterCommit(principalCache::invalidateAll);
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
         LOGGER.info("Deleting Permission with ID: {}", id);
         Permission permissionEntity = findPermissionById(id);
         permissionRepository.delete(permissionEntity);
+        referenceCacheEvictor.evict(Permission.class, id);
+        responseBytesCache.invalidate(Region.PERMISSION);
+        TransactionUtil.invalidateNowAndAfterCommit(principalCache::invalidateAll);
     }
 
     private Permission findPermissionById(UUID id) {
@@ -74,7 +113,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     private PermissionDTO addHateoasLinks(PermissionDTO permissionDTO) {
-        permissionDTO.add(linkTo(methodOn(PermissionController.class).findById(permissionDTO.getUuid())).withSelfRel());
+        permissionDTO.add(SELF_LINK.selfLink(permissionDTO.getUuid()));
         return permissionDTO;
     }
 }
\ No newline at end of file
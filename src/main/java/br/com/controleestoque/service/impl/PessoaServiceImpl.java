@@ -1,44 +1,73 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource;
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
+import br.com.controleestoque.config.ReferenceCacheEvictor;
 import br.com.controleestoque.controller.PessoaController;
 import br.com.controleestoque.exception.PessoaException;
 import br.com.controleestoque.model.dto.PessoaDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.Pessoa;
 import br.com.controleestoque.model.mapper.PessoaMapper;
 import br.com.controleestoque.repository.PessoaRepository;
 import br.com.controleestoque.service.PessoaService;
+import br.com.controleestoque.util.ETagUtil;
+import br.com.controleestoque.util.HateoasLinkFactory;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Service
 @RequiredArgsConstructor
 public class PessoaServiceImpl implements PessoaService {
     private static final Logger LOGGER = LoggerFactory.getLogger(PessoaServiceImpl.class);
     private final PessoaRepository pessoaRepository;
+    private final ReferenceCacheEvictor referenceCacheEvictor;
     private static final PessoaMapper mapper = PessoaMapper.INSTANCE;
+    private static final HateoasLinkFactory<PessoaController> SELF_LINK = HateoasLinkFactory.of(PessoaController.class, (controller, id) -> controller.findById(id, null));
 
     @Override
+    @Transactional(readOnly = true)
     public PessoaDTO findById(UUID id) {
         LOGGER.info("Finding Pessoa by ID: {}", id);
-        Pessoa pessoaEntity = findPessoaById(id);
-        return addHateoasLinks(mapper.entityToDto(pessoaEntity));
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            Pessoa pessoaEntity = findPessoaById(id);
+            return addHateoasLinks(mapper.entityToDto(pessoaEntity));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PessoaDTO> findAll() {
         LOGGER.info("Finding all Pessoas");
-        return pessoaRepository.findAll().stream().map(mapper::entityToDto).map(this::addHateoasLinks).toList();
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            return pessoaRepository.findAll().stream().map(mapper::entityToDto).map(this::addHateoasLinks).toList();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findVersionById(UUID id) {
+        return pessoaRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("Pessoa not found with ID: {}", id);
+                    return new PessoaException("Pessoa not found with ID: " + id);
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findCollectionVersion() {
+        return pessoaRepository.findCollectionVersion();
     }
 
     @Override
+    @Transactional
     public PessoaDTO create(PessoaDTO pessoaDTO) {
         LOGGER.info("Creating a new Pessoa");
         Pessoa pessoaEntity = mapper.dtoToEntity(pessoaDTO);
@@ -47,19 +76,24 @@ public class PessoaServiceImpl implements PessoaService {
     }
 
     @Override
-    public void update(UUID id, PessoaDTO pessoaDTO) {
+    @Transactional
+    public void update(UUID id, PessoaDTO pessoaDTO, String ifMatch) {
         LOGGER.info("Updating Pessoa with ID: {}", id);
         Pessoa pessoaEntity = findPessoaById(id);
+        ETagUtil.checkIfMatch(ifMatch, () -> ETagUtil.version(pessoaEntity.getVersion()));
         pessoaEntity.setNome(pessoaDTO.getNome());
         pessoaEntity.setSobrenome(pessoaDTO.getSobrenome());
         pessoaRepository.save(pessoaEntity);
+        referenceCacheEvictor.evict(Pessoa.class, id);
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
         LOGGER.info("Deleting Pessoa with ID: {}", id);
         Pessoa pessoaEntity = findPessoaById(id);
         pessoaRepository.delete(pessoaEntity);
+        referenceCacheEvictor.evict(Pessoa.class, id);
     }
 
     private Pessoa findPessoaById(UUID id) {
@@ -70,7 +104,7 @@ public class PessoaServiceImpl implements PessoaService {
     }
 
     private PessoaDTO addHateoasLinks(PessoaDTO pessoaDTO) {
-        pessoaDTO.add(linkTo(methodOn(PessoaController.class).findById(pessoaDTO.getUuid())).withSelfRel());
+        pessoaDTO.add(SELF_LINK.selfLink(pessoaDTO.getUuid()));
         return pessoaDTO;
     }
 }
\ No newline at end of file
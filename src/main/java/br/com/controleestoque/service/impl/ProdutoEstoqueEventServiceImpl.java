@@ -0,0 +1,216 @@
+package br.com.controleestoque.service.impl;
+
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangeDTO;
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
+import br.com.controleestoque.model.mapper.ProdutoEstoqueChangeMapper;
+import br.com.controleestoque.repository.ProdutoEstoqueChangeRepository;
+import br.com.controleestoque.service.ProdutoEstoqueEventService;
+import br.com.controleestoque.util.ProdutoEstoqueChangeToken;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Every instance tails tab_produto_estoque_change with the same cursor as the changes feed, so subscribers
+// get the writes committed on any instance, in feed order and without duplicates.
+@Service
+public class ProdutoEstoqueEventServiceImpl implements ProdutoEstoqueEventService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProdutoEstoqueEventServiceImpl.class);
+    private static final int POLL_BATCH_SIZE = 500;
+    private static final ProdutoEstoqueChangeMapper changeMapper = ProdutoEstoqueChangeMapper.INSTANCE;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository;
+    private final Executor senderExecutor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long pollIntervalMillis;
+    // Only touched by the poller thread, null until the current end of the feed has been read
+    private ProdutoEstoqueChangeToken position;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public ProdutoEstoqueEventServiceImpl(ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository,
+                                          @Value("${produto.events.buffer-size:256}") int bufferSize,
+                                          @Value("${produto.events.timeout-ms:1800000}") long timeoutMillis,
+                                          @Value("${produto.events.sender-threads:4}") int senderThreads,
+                                          @Value("${produto.events.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this(produtoEstoqueChangeRepository, bufferSize, timeoutMillis, pollIntervalMillis,
+                Executors.newFixedThreadPool(senderThreads, senderThreadFactory()));
+    }
+
+    ProdutoEstoqueEventServiceImpl(ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository, int bufferSize,
+                                   long timeoutMillis, long pollIntervalMillis, Executor senderExecutor) {
+        this.produtoEstoqueChangeRepository = produtoEstoqueChangeRepository;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.senderExecutor = senderExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (pollIntervalMillis > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "produto-events-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID tipoProdutoId, UUID pessoaId) {
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, tipoProdutoId, pessoaId, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.add(subscriber);
+        LOGGER.info("Subscribed to ProdutoEstoque events, TipoProduto ID: {}, Pessoa ID: {}, subscribers: {}",
+                tipoProdutoId, pessoaId, subscribers.size());
+        return emitter;
+    }
+
+    // Starts from the end of the feed: subscribers only get the changes made after they connected
+    void poll() {
+        try {
+            if (position == null) {
+                position = produtoEstoqueChangeRepository.findLastServableChange()
+                        .map(change -> new ProdutoEstoqueChangeToken(change.getTxId(), change.getSeq()))
+                        .orElse(ProdutoEstoqueChangeToken.START);
+                return;
+            }
+            List<ProdutoEstoqueChange> changes;
+            do {
+                changes = produtoEstoqueChangeRepository.findChangesAfter(position.txId(), position.seq(), POLL_BATCH_SIZE);
+                if (changes.isEmpty()) {
+                    return;
+                }
+                ProdutoEstoqueChange last = changes.get(changes.size() - 1);
+                position = new ProdutoEstoqueChangeToken(last.getTxId(), last.getSeq());
+                if (!subscribers.isEmpty()) {
+                    dispatch(changes.stream().map(changeMapper::entityToDto).toList());
+                }
+            } while (changes.size() == POLL_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not read ProdutoEstoque changes for the events subscribers: {}", e.getMessage());
+        }
+    }
+
+    // Runs on the poller thread, so it only enqueues and leaves the network writes to the sender pool
+    void dispatch(List<ProdutoEstoqueChangeDTO> changes) {
+        for (Subscriber subscriber : subscribers) {
+            boolean enqueued = false;
+            for (ProdutoEstoqueChangeDTO change : changes) {
+                if (!subscriber.accepts(change)) {
+                    continue;
+                }
+                if (!subscriber.queue().offer(change)) {
+                    LOGGER.warn("Dropping slow ProdutoEstoque events subscriber after {} pending events", bufferSize);
+                    remove(subscriber);
+                    enqueued = false;
+                    break;
+                }
+                enqueued = true;
+            }
+            if (enqueued) {
+                scheduleSend(subscriber);
+            }
+        }
+    }
+
+    @Override
+    public int countSubscribers() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        subscribers.forEach(this::remove);
+        if (senderExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (subscriber.sending().compareAndSet(false, true)) {
+            try {
+                senderExecutor.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.sending().set(false);
+                remove(subscriber);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            ProdutoEstoqueChangeDTO change;
+            while ((change = subscriber.queue().poll()) != null) {
+                subscriber.emitter().send(SseEmitter.event()
+                        .name(change.getOperation().name())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.debug("ProdutoEstoque events subscriber disconnected: {}", e.getMessage());
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.sending().set(false);
+        }
+        // An event may have been enqueued after the last poll but before the flag was cleared
+        if (!subscriber.queue().isEmpty() && subscribers.contains(subscriber)) {
+            scheduleSend(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "produto-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Subscriber(SseEmitter emitter, UUID tipoProdutoId, UUID pessoaId,
+                              BlockingQueue<ProdutoEstoqueChangeDTO> queue, AtomicBoolean sending) {
+        Subscriber(SseEmitter emitter, UUID tipoProdutoId, UUID pessoaId, BlockingQueue<ProdutoEstoqueChangeDTO> queue) {
+            this(emitter, tipoProdutoId, pessoaId, queue, new AtomicBoolean());
+        }
+
+        boolean accepts(ProdutoEstoqueChangeDTO change) {
+            return (tipoProdutoId == null || tipoProdutoId.equals(change.getTipoProdutoId()))
+                    && (pessoaId == null || pessoaId.equals(change.getPessoaId()));
+        }
+    }
+}
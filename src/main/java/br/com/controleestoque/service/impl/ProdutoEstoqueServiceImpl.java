@@ -1,28 +1,58 @@
 package br.com.controleestoque.service.impl;
 
 import br.com.controleestoque.controller.ProdutoEstoqueController;
+import br.com.controleestoque.exception.InvalidRequestException;
 import br.com.controleestoque.exception.PessoaException;
 import br.com.controleestoque.exception.ProdutoEstoqueException;
 import br.com.controleestoque.exception.TipoProdutoException;
+import br.com.controleestoque.model.dto.ProdutoEstoqueBatchResultDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangesDTO;
 import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePageDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueRowDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueSearchResultDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.Pessoa;
 import br.com.controleestoque.model.entity.ProdutoEstoque;
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
 import br.com.controleestoque.model.entity.TipoProduto;
+import br.com.controleestoque.model.mapper.ProdutoEstoqueChangeMapper;
 import br.com.controleestoque.model.mapper.ProdutoEstoqueMapper;
 import br.com.controleestoque.repository.PessoaRepository;
+import br.com.controleestoque.repository.ProdutoEstoqueChangeRepository;
 import br.com.controleestoque.repository.ProdutoEstoqueRepository;
 import br.com.controleestoque.repository.TipoProdutoRepository;
+import br.com.controleestoque.repository.specification.ProdutoEstoqueSpecification;
+import br.com.controleestoque.service.EstoqueTotalDelta;
+import br.com.controleestoque.service.EstoqueTotalService;
 import br.com.controleestoque.service.ProdutoEstoqueService;
+import br.com.controleestoque.shared.constant.BatchItemStatus;
+import br.com.controleestoque.shared.constant.ChangeOperation;
+import br.com.controleestoque.shared.constant.ExportFormat;
+import br.com.controleestoque.util.ETagUtil;
+import br.com.controleestoque.util.HateoasLinkFactory;
+import br.com.controleestoque.util.ProdutoEstoqueChangeToken;
+import br.com.controleestoque.util.ProdutoEstoqueCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.UUID;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,25 +61,192 @@ public class ProdutoEstoqueServiceImpl implements ProdutoEstoqueService {
     private final ProdutoEstoqueRepository produtoEstoqueRepository;
     private final PessoaRepository pessoaRepository;
     private final TipoProdutoRepository tipoProdutoRepository;
+    private final ObjectMapper objectMapper;
+    private final EstoqueTotalService estoqueTotalService;
+    private final ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository;
     private static final ProdutoEstoqueMapper mapper = ProdutoEstoqueMapper.INSTANCE;
+    private static final ProdutoEstoqueChangeMapper changeMapper = ProdutoEstoqueChangeMapper.INSTANCE;
+    private static final HateoasLinkFactory<ProdutoEstoqueController> SELF_LINK = HateoasLinkFactory.of(ProdutoEstoqueController.class, (controller, id) -> controller.findById(id, null));
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final LocalDate SUMMARY_MIN_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate SUMMARY_MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final String DEFAULT_SEARCH_SORT = "dataEntrega";
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("marca", "dataEntrega", "quantidadePacote", "tamanhoPacote");
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    private static final String CSV_HEADER = "uuid,marca,quantidadePacote,dataEntrega,tamanhoPacote," +
+            "tipoProdutoId,tipoProdutoNome,pessoaId,pessoaNome,pessoaSobrenome\n";
 
     @Override
+    @Transactional(readOnly = true)
     public ProdutoEstoqueDTO findById(UUID id) {
         LOGGER.info("Finding ProdutoEstoque by ID: {}", id);
-        ProdutoEstoque produtoEstoqueEntity = findProdutoEstoqueById(id);
+        ProdutoEstoque produtoEstoqueEntity = findProdutoEstoqueWithRelationsById(id);
         return addHateoasLinks(mapper.entityToDto(produtoEstoqueEntity));
     }
 
     @Override
-    public List<ProdutoEstoqueDTO> findAll() {
-        LOGGER.info("Finding all ProdutosEstoque");
-        return produtoEstoqueRepository.findAll().stream()
-                .map(mapper::entityToDto)
-                .map(this::addHateoasLinks)
-                .toList();
+    @Transactional(readOnly = true)
+    public ProdutoEstoquePageDTO findAll() {
+        LOGGER.info("Finding all ProdutosEstoque, capped at {}", MAX_PAGE_SIZE);
+        // Loading the whole table would grow the heap with it, the rest is reached through the page cursor
+        return findPage(null, MAX_PAGE_SIZE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findVersionById(UUID id) {
+        return produtoEstoqueRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("ProdutoEstoque not found with ID: {}", id);
+                    return new ProdutoEstoqueException("Produto not found with ID: " + id);
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findCollectionVersion() {
+        return produtoEstoqueRepository.findCollectionVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProdutoEstoquePageDTO findPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        LOGGER.info("Finding page of ProdutosEstoque with size: {}", pageSize);
+        // One extra row tells whether there is a next page without a count query
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<ProdutoEstoque> produtoEstoqueEntities;
+        if (cursor == null || cursor.isBlank()) {
+            produtoEstoqueEntities = produtoEstoqueRepository.findFirstPage(pageRequest);
+        } else {
+            ProdutoEstoqueCursor position = ProdutoEstoqueCursor.decode(cursor);
+            produtoEstoqueEntities = produtoEstoqueRepository.findPageAfter(position.dataEntrega(), position.uuid(), pageRequest);
+        }
+
+        boolean hasNext = produtoEstoqueEntities.size() > pageSize;
+        List<ProdutoEstoque> pageEntities = hasNext ? produtoEstoqueEntities.subList(0, pageSize) : produtoEstoqueEntities;
+        String nextCursor = null;
+        if (hasNext) {
+            ProdutoEstoque last = pageEntities.get(pageEntities.size() - 1);
+            nextCursor = new ProdutoEstoqueCursor(last.getDataEntrega(), last.getUuid()).encode();
+        }
+
+        return ProdutoEstoquePageDTO.builder()
+                .content(pageEntities.stream()
+                        .map(mapper::entityToDto)
+                        .map(this::addHateoasLinks)
+                        .toList())
+                .size(pageEntities.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProdutoEstoqueChangesDTO findChanges(String since, Integer size) {
+        int pageSize = resolvePageSize(size);
+        ProdutoEstoqueChangeToken position = ProdutoEstoqueChangeToken.decode(since);
+        LOGGER.info("Finding ProdutoEstoque changes after {} with size: {}", position, pageSize);
+        List<ProdutoEstoqueChange> changes = produtoEstoqueChangeRepository.findChangesAfter(
+                position.txId(), position.seq(), pageSize + 1);
+
+        boolean hasMore = changes.size() > pageSize;
+        List<ProdutoEstoqueChange> pageChanges = hasMore ? changes.subList(0, pageSize) : changes;
+        // An empty page hands the same position back so clients can keep polling with it
+        ProdutoEstoqueChangeToken next = position;
+        if (!pageChanges.isEmpty()) {
+            ProdutoEstoqueChange last = pageChanges.get(pageChanges.size() - 1);
+            next = new ProdutoEstoqueChangeToken(last.getTxId(), last.getSeq());
+        }
+
+        return ProdutoEstoqueChangesDTO.builder()
+                .changes(pageChanges.stream().map(changeMapper::entityToDto).toList())
+                .size(pageChanges.size())
+                .hasMore(hasMore)
+                .nextToken(next.encode())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProdutoEstoqueSearchResultDTO search(ProdutoEstoqueFilterDTO filter, Integer page, Integer size, String sort) {
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            LOGGER.error("Invalid page number: {}", page);
+            throw new InvalidRequestException("Page number must not be negative");
+        }
+        if (filter.getDataEntregaInicio() != null && filter.getDataEntregaFim() != null
+                && filter.getDataEntregaInicio().isAfter(filter.getDataEntregaFim())) {
+            LOGGER.error("Invalid dataEntrega range: {} to {}", filter.getDataEntregaInicio(), filter.getDataEntregaFim());
+            throw new InvalidRequestException("dataEntregaInicio must not be after dataEntregaFim");
+        }
+        int pageSize = resolvePageSize(size);
+        LOGGER.info("Searching ProdutosEstoque, page: {}, size: {}", pageNumber, pageSize);
+        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, resolveSearchSort(sort));
+        Page<ProdutoEstoque> produtoEstoquePage = produtoEstoqueRepository.findAll(
+                ProdutoEstoqueSpecification.fromFilter(filter), pageRequest);
+
+        return ProdutoEstoqueSearchResultDTO.builder()
+                .content(produtoEstoquePage.getContent().stream()
+                        .map(mapper::entityToDto)
+                        .map(this::addHateoasLinks)
+                        .toList())
+                .page(produtoEstoquePage.getNumber())
+                .size(produtoEstoquePage.getNumberOfElements())
+                .totalElements(produtoEstoquePage.getTotalElements())
+                .hasNext(produtoEstoquePage.hasNext())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProdutoEstoqueMonthlySummaryDTO> summarizeByTipoProdutoAndMonth(LocalDate inicio, LocalDate fim) {
+        LOGGER.info("Summarizing ProdutosEstoque by TipoProduto and month from {} to {}", inicio, fim);
+        validateSummaryRange(inicio, fim);
+        return produtoEstoqueRepository.summarizeByTipoProdutoAndMonth(
+                Objects.requireNonNullElse(inicio, SUMMARY_MIN_DATE),
+                Objects.requireNonNullElse(fim, SUMMARY_MAX_DATE));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProdutoEstoquePessoaSummaryDTO> summarizeByPessoa(LocalDate inicio, LocalDate fim) {
+        LOGGER.info("Summarizing ProdutosEstoque by Pessoa from {} to {}", inicio, fim);
+        validateSummaryRange(inicio, fim);
+        return produtoEstoqueRepository.summarizeByPessoa(
+                Objects.requireNonNullElse(inicio, SUMMARY_MIN_DATE),
+                Objects.requireNonNullElse(fim, SUMMARY_MAX_DATE));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream outputStream) throws IOException {
+        LOGGER.info("Exporting all ProdutosEstoque as {}", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        long exportedRows = 0;
+        try (Stream<ProdutoEstoqueRowDTO> rowStream = produtoEstoqueRepository.streamAllRows()) {
+            Iterator<ProdutoEstoqueRowDTO> iterator = rowStream.iterator();
+            while (iterator.hasNext()) {
+                writeRow(format, iterator.next(), writer);
+                if (++exportedRows % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        LOGGER.info("Exported {} ProdutosEstoque", exportedRows);
+    }
+
+    @Override
+    @Transactional
     public ProdutoEstoqueDTO create(ProdutoEstoqueDTO produtoEstoqueDTO) {
         LOGGER.info("Creating a new ProdutoEstoque");
         ProdutoEstoque produtoEstoqueEntity = mapper.dtoToEntity(produtoEstoqueDTO);
@@ -58,29 +255,281 @@ public class ProdutoEstoqueServiceImpl implements ProdutoEstoqueService {
         produtoEstoqueEntity.setPessoa(pessoaEntity);
         produtoEstoqueEntity.setTipoProduto(tipoProdutoEntity);
         produtoEstoqueRepository.save(produtoEstoqueEntity);
+        estoqueTotalService.applyDeltas(List.of(totalDelta(produtoEstoqueEntity, 1)));
+        recordChanges(ChangeOperation.CREATED, List.of(produtoEstoqueEntity));
         return addHateoasLinks(mapper.entityToDto(produtoEstoqueEntity));
     }
 
     @Override
-    public void update(UUID id, ProdutoEstoqueDTO produtoEstoqueDTO) {
+    @Transactional
+    public List<ProdutoEstoqueBatchResultDTO> saveBatch(List<ProdutoEstoqueDTO> produtoEstoqueDTOS) {
+        if (produtoEstoqueDTOS == null || produtoEstoqueDTOS.isEmpty() || produtoEstoqueDTOS.size() > MAX_BATCH_SIZE) {
+            LOGGER.error("Invalid ProdutoEstoque batch size");
+            throw new InvalidRequestException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+        LOGGER.info("Saving batch of {} ProdutosEstoque", produtoEstoqueDTOS.size());
+
+        Map<UUID, Pessoa> pessoas = indexById(
+                pessoaRepository.findAllById(collectIds(produtoEstoqueDTOS, dto -> dto.getPessoa() == null ? null : dto.getPessoa().getUuid())),
+                Pessoa::getUuid);
+        Map<UUID, TipoProduto> tiposProduto = indexById(
+                tipoProdutoRepository.findAllById(collectIds(produtoEstoqueDTOS, dto -> dto.getTipoProduto() == null ? null : dto.getTipoProduto().getUuid())),
+                TipoProduto::getUuid);
+        Map<UUID, ProdutoEstoque> produtosExistentes = indexById(
+                produtoEstoqueRepository.findAllById(collectIds(produtoEstoqueDTOS, ProdutoEstoqueDTO::getUuid)),
+                ProdutoEstoque::getUuid);
+
+        List<ProdutoEstoqueBatchResultDTO> results = new ArrayList<>(produtoEstoqueDTOS.size());
+        // Parallel lists: savedResults.get(i) reports savedEntities.get(i)
+        List<ProdutoEstoqueBatchResultDTO> savedResults = new ArrayList<>();
+        List<ProdutoEstoque> savedEntities = new ArrayList<>();
+        List<EstoqueTotalDelta> totalDeltas = new ArrayList<>();
+        for (int index = 0; index < produtoEstoqueDTOS.size(); index++) {
+            ProdutoEstoqueDTO produtoEstoqueDTO = produtoEstoqueDTOS.get(index);
+            String error = validateBatchItem(produtoEstoqueDTO, pessoas, tiposProduto, produtosExistentes);
+            if (error != null) {
+                results.add(ProdutoEstoqueBatchResultDTO.builder()
+                        .index(index)
+                        .uuid(produtoEstoqueDTO == null ? null : produtoEstoqueDTO.getUuid())
+                        .status(BatchItemStatus.REJECTED)
+                        .message(error)
+                        .build());
+                continue;
+            }
+
+            boolean isNew = produtoEstoqueDTO.getUuid() == null;
+            ProdutoEstoque produtoEstoqueEntity = isNew ? new ProdutoEstoque() : produtosExistentes.get(produtoEstoqueDTO.getUuid());
+            if (!isNew) {
+                totalDeltas.add(totalDelta(produtoEstoqueEntity, -1));
+            }
+            applyChanges(produtoEstoqueEntity, produtoEstoqueDTO,
+                    pessoas.get(produtoEstoqueDTO.getPessoa().getUuid()),
+                    tiposProduto.get(produtoEstoqueDTO.getTipoProduto().getUuid()));
+            totalDeltas.add(totalDelta(produtoEstoqueEntity, 1));
+            ProdutoEstoqueBatchResultDTO result = ProdutoEstoqueBatchResultDTO.builder()
+                    .index(index)
+                    .status(isNew ? BatchItemStatus.CREATED : BatchItemStatus.UPDATED)
+                    .build();
+            results.add(result);
+            savedResults.add(result);
+            savedEntities.add(produtoEstoqueEntity);
+        }
+
+        // Statements are flushed at commit and grouped by hibernate.jdbc.batch_size
+        produtoEstoqueRepository.saveAll(savedEntities);
+        estoqueTotalService.applyDeltas(totalDeltas);
+        List<ProdutoEstoque> created = new ArrayList<>();
+        List<ProdutoEstoque> updated = new ArrayList<>();
+        for (int saved = 0; saved < savedEntities.size(); saved++) {
+            ProdutoEstoqueBatchResultDTO result = savedResults.get(saved);
+            ProdutoEstoque produtoEstoqueEntity = savedEntities.get(saved);
+            result.setUuid(produtoEstoqueEntity.getUuid());
+            (result.getStatus() == BatchItemStatus.CREATED ? created : updated).add(produtoEstoqueEntity);
+        }
+        recordChanges(ChangeOperation.CREATED, created);
+        recordChanges(ChangeOperation.UPDATED, updated);
+        LOGGER.info("Saved {} of {} ProdutosEstoque in batch", savedEntities.size(), produtoEstoqueDTOS.size());
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public void update(UUID id, ProdutoEstoqueDTO produtoEstoqueDTO, String ifMatch) {
         LOGGER.info("Updating ProdutoEstoque with ID: {}", id);
         ProdutoEstoque produtoEstoqueEntity = findProdutoEstoqueById(id);
+        ETagUtil.checkIfMatch(ifMatch, () -> ETagUtil.version(produtoEstoqueEntity.getVersion(),
+                produtoEstoqueEntity.getTipoProduto().getVersion(), produtoEstoqueEntity.getPessoa().getVersion()));
         Pessoa pessoaEntity = findPessoaById(produtoEstoqueDTO.getPessoa().getUuid());
         TipoProduto tipoProdutoEntity = findTipoProdutoById(produtoEstoqueDTO.getTipoProduto().getUuid());
-        produtoEstoqueEntity.setPessoa(pessoaEntity);
-        produtoEstoqueEntity.setTipoProduto(tipoProdutoEntity);
-        produtoEstoqueEntity.setMarca(produtoEstoqueDTO.getMarca());
-        produtoEstoqueEntity.setQuantidadePacote(produtoEstoqueDTO.getQuantidadePacote());
-        produtoEstoqueEntity.setTamanhoPacote(produtoEstoqueDTO.getTamanhoPacote());
-        produtoEstoqueEntity.setDataEntrega(produtoEstoqueDTO.getDataEntrega());
+        EstoqueTotalDelta previousTotal = totalDelta(produtoEstoqueEntity, -1);
+        applyChanges(produtoEstoqueEntity, produtoEstoqueDTO, pessoaEntity, tipoProdutoEntity);
         produtoEstoqueRepository.save(produtoEstoqueEntity);
+        estoqueTotalService.applyDeltas(List.of(previousTotal, totalDelta(produtoEstoqueEntity, 1)));
+        recordChanges(ChangeOperation.UPDATED, List.of(produtoEstoqueEntity));
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
         LOGGER.info("Deleting ProdutoEstoque with ID: {}", id);
         ProdutoEstoque produtoEstoqueEntity = findProdutoEstoqueById(id);
         produtoEstoqueRepository.delete(produtoEstoqueEntity);
+        estoqueTotalService.applyDeltas(List.of(totalDelta(produtoEstoqueEntity, -1)));
+        recordChanges(ChangeOperation.DELETED, List.of(produtoEstoqueEntity));
+    }
+
+    // Tombstones carry the id and the relation ids, so filtered events subscribers still see the delete.
+    // The other entries carry the state after the change.
+    private void recordChanges(ChangeOperation operation, List<ProdutoEstoque> produtoEstoqueEntities) {
+        if (produtoEstoqueEntities.isEmpty()) {
+            return;
+        }
+        int size = produtoEstoqueEntities.size();
+        boolean tombstone = operation == ChangeOperation.DELETED;
+        UUID[] ids = new UUID[size];
+        String[] marcas = new String[size];
+        Integer[] quantidadesPacote = new Integer[size];
+        LocalDate[] datasEntrega = new LocalDate[size];
+        String[] tamanhosPacote = new String[size];
+        UUID[] tipoProdutoIds = new UUID[size];
+        UUID[] pessoaIds = new UUID[size];
+        for (int index = 0; index < size; index++) {
+            ProdutoEstoque produtoEstoqueEntity = produtoEstoqueEntities.get(index);
+            ids[index] = produtoEstoqueEntity.getUuid();
+            if (!tombstone) {
+                marcas[index] = produtoEstoqueEntity.getMarca();
+                quantidadesPacote[index] = produtoEstoqueEntity.getQuantidadePacote();
+                datasEntrega[index] = produtoEstoqueEntity.getDataEntrega();
+                tamanhosPacote[index] = produtoEstoqueEntity.getTamanhoPacote();
+            }
+            tipoProdutoIds[index] = produtoEstoqueEntity.getTipoProduto().getUuid();
+            pessoaIds[index] = produtoEstoqueEntity.getPessoa().getUuid();
+        }
+        produtoEstoqueChangeRepository.insertChanges(operation.name(), ids, marcas, quantidadesPacote,
+                datasEntrega, tamanhosPacote, tipoProdutoIds, pessoaIds);
+    }
+
+    private static EstoqueTotalDelta totalDelta(ProdutoEstoque produtoEstoqueEntity, int sign) {
+        return new EstoqueTotalDelta(
+                produtoEstoqueEntity.getTipoProduto().getUuid(),
+                produtoEstoqueEntity.getPessoa().getUuid(),
+                produtoEstoqueEntity.getDataEntrega(),
+                (long) sign * produtoEstoqueEntity.getQuantidadePacote(),
+                sign);
+    }
+
+    private void applyChanges(ProdutoEstoque produtoEstoqueEntity, ProdutoEstoqueDTO produtoEstoqueDTO,
+                              Pessoa pessoaEntity, TipoProduto tipoProdutoEntity) {
+        produtoEstoqueEntity.setPessoa(pessoaEntity);
+        produtoEstoqueEntity.setTipoProduto(tipoProdutoEntity);
+        produtoEstoqueEntity.setMarca(produtoEstoqueDTO.getMarca());
+        produtoEstoqueEntity.setQuantidadePacote(produtoEstoqueDTO.getQuantidadePacote());
+        produtoEstoqueEntity.setTamanhoPacote(produtoEstoqueDTO.getTamanhoPacote());
+        produtoEstoqueEntity.setDataEntrega(produtoEstoqueDTO.getDataEntrega());
+    }
+
+    private String validateBatchItem(ProdutoEstoqueDTO produtoEstoqueDTO, Map<UUID, Pessoa> pessoas,
+                                     Map<UUID, TipoProduto> tiposProduto, Map<UUID, ProdutoEstoque> produtosExistentes) {
+        if (produtoEstoqueDTO == null) {
+            return "Item must not be null";
+        }
+        if (produtoEstoqueDTO.getUuid() != null && !produtosExistentes.containsKey(produtoEstoqueDTO.getUuid())) {
+            return "Produto not found with ID: " + produtoEstoqueDTO.getUuid();
+        }
+        String marca = produtoEstoqueDTO.getMarca();
+        if (marca == null || marca.isBlank() || marca.length() < 4 || marca.length() > 25) {
+            return "Marca must have between 4 and 25 characters";
+        }
+        if (produtoEstoqueDTO.getQuantidadePacote() == null || produtoEstoqueDTO.getQuantidadePacote() < 1) {
+            return "QuantidadePacote must be at least 1";
+        }
+        if (produtoEstoqueDTO.getDataEntrega() == null) {
+            return "DataEntrega is required";
+        }
+        String tamanhoPacote = produtoEstoqueDTO.getTamanhoPacote();
+        if (tamanhoPacote == null || tamanhoPacote.length() < 3 || tamanhoPacote.length() > 5) {
+            return "TamanhoPacote must have between 3 and 5 characters";
+        }
+        if (produtoEstoqueDTO.getPessoa() == null || produtoEstoqueDTO.getPessoa().getUuid() == null) {
+            return "Pessoa is required";
+        }
+        if (!pessoas.containsKey(produtoEstoqueDTO.getPessoa().getUuid())) {
+            return "Pessoa not found with ID: " + produtoEstoqueDTO.getPessoa().getUuid();
+        }
+        if (produtoEstoqueDTO.getTipoProduto() == null || produtoEstoqueDTO.getTipoProduto().getUuid() == null) {
+            return "TipoProduto is required";
+        }
+        if (!tiposProduto.containsKey(produtoEstoqueDTO.getTipoProduto().getUuid())) {
+            return "TipoProduto not found with ID: " + produtoEstoqueDTO.getTipoProduto().getUuid();
+        }
+        return null;
+    }
+
+    private Set<UUID> collectIds(List<ProdutoEstoqueDTO> produtoEstoqueDTOS, Function<ProdutoEstoqueDTO, UUID> idExtractor) {
+        return produtoEstoqueDTOS.stream()
+                .filter(Objects::nonNull)
+                .map(idExtractor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private <T> Map<UUID, T> indexById(List<T> entities, Function<T, UUID> idExtractor) {
+        return entities.stream().collect(Collectors.toMap(idExtractor, Function.identity()));
+    }
+
+    private void writeRow(ExportFormat format, ProdutoEstoqueRowDTO row, Writer writer) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(row));
+        } else {
+            writer.write(String.join(",",
+                    csvValue(row.getUuid()),
+                    csvValue(row.getMarca()),
+                    csvValue(row.getQuantidadePacote()),
+                    csvValue(row.getDataEntrega()),
+                    csvValue(row.getTamanhoPacote()),
+                    csvValue(row.getTipoProdutoId()),
+                    csvValue(row.getTipoProdutoNome()),
+                    csvValue(row.getPessoaId()),
+                    csvValue(row.getPessoaNome()),
+                    csvValue(row.getPessoaSobrenome())));
+        }
+        writer.write('\n');
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            LOGGER.error("Invalid page size: {}", size);
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private void validateSummaryRange(LocalDate inicio, LocalDate fim) {
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            LOGGER.error("Invalid summary range: {} to {}", inicio, fim);
+            throw new InvalidRequestException("dataEntregaInicio must not be after dataEntregaFim");
+        }
+    }
+
+    private Sort resolveSearchSort(String sort) {
+        String property = DEFAULT_SEARCH_SORT;
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            property = parts[0].trim();
+            if (parts.length > 1) {
+                direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new InvalidRequestException("Invalid sort direction: " + sort));
+            }
+        }
+        if (!SEARCH_SORT_PROPERTIES.contains(property)) {
+            LOGGER.error("Invalid sort property: {}", property);
+            throw new InvalidRequestException("Sort must be one of " + SEARCH_SORT_PROPERTIES);
+        }
+        // The id tie-breaker keeps page boundaries stable when sort values repeat
+        return Sort.by(direction, property).and(Sort.by(Sort.Direction.ASC, "uuid"));
+    }
+
+    private ProdutoEstoque findProdutoEstoqueWithRelationsById(UUID id) {
+        return produtoEstoqueRepository.findWithRelationsByUuid(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("ProdutoEstoque not found with ID: {}", id);
+                    return new ProdutoEstoqueException("Produto not found with ID: " + id);
+                });
     }
 
     private ProdutoEstoque findProdutoEstoqueById(UUID id) {
@@ -108,7 +557,7 @@ public class ProdutoEstoqueServiceImpl implements ProdutoEstoqueService {
     }
 
     private ProdutoEstoqueDTO addHateoasLinks(ProdutoEstoqueDTO produtoEstoqueDTO) {
-        produtoEstoqueDTO.add(linkTo(methodOn(ProdutoEstoqueController.class).findById(produtoEstoqueDTO.getUuid())).withSelfRel());
+        produtoEstoqueDTO.add(SELF_LINK.selfLink(produtoEstoqueDTO.getUuid()));
         return produtoEstoqueDTO;
     }
 }
\ No newline at end of file
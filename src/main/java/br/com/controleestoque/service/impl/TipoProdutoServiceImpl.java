@@ -1,67 +1,107 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource;
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
+import br.com.controleestoque.config.ReferenceCacheEvictor;
+import br.com.controleestoque.config.ResponseBytesCache;
+import br.com.controleestoque.config.ResponseBytesCache.Region;
 import br.com.controleestoque.controller.TipoProdutoController;
 import br.com.controleestoque.exception.TipoProdutoException;
 import br.com.controleestoque.model.dto.TipoProdutoDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.entity.TipoProduto;
 import br.com.controleestoque.model.mapper.TipoProdutoMapper;
 import br.com.controleestoque.repository.TipoProdutoRepository;
 import br.com.controleestoque.service.TipoProdutoService;
+import br.com.controleestoque.util.ETagUtil;
+import br.com.controleestoque.util.HateoasLinkFactory;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Service
 @RequiredArgsConstructor
 public class TipoProdutoServiceImpl implements TipoProdutoService {
     private static final Logger LOGGER = LoggerFactory.getLogger(TipoProdutoServiceImpl.class);
     private final TipoProdutoRepository tipoProdutoRepository;
+    private final ReferenceCacheEvictor referenceCacheEvictor;
+    private final ResponseBytesCache responseBytesCache;
     private static final TipoProdutoMapper mapper = TipoProdutoMapper.INSTANCE;
+    private static final HateoasLinkFactory<TipoProdutoController> SELF_LINK = HateoasLinkFactory.of(TipoProdutoController.class, (controller, id) -> controller.findById(id, null));
 
     @Override
+    @Transactional(readOnly = true)
     public TipoProdutoDTO findById(UUID id) {
         LOGGER.info("Finding Tipo Produto by ID: {}", id);
-        TipoProduto tipoProdutoEntity = findTipoProdutoById(id);
-        return addHateoasLinks(mapper.entityToDto(tipoProdutoEntity));
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            TipoProduto tipoProdutoEntity = findTipoProdutoById(id);
+            return addHateoasLinks(mapper.entityToDto(tipoProdutoEntity));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TipoProdutoDTO> findAll() {
         LOGGER.info("Finding all Tipo Produtos");
-        return tipoProdutoRepository.findAll().stream()
-                .map(mapper::entityToDto)
-                .map(this::addHateoasLinks)
-                .toList();
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            return tipoProdutoRepository.findAll().stream()
+                    .map(mapper::entityToDto)
+                    .map(this::addHateoasLinks)
+                    .toList();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findVersionById(UUID id) {
+        return tipoProdutoRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("Tipo Produto not found with ID: {}", id);
+                    return new TipoProdutoException("Tipo Produto not found with ID: " + id);
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findCollectionVersion() {
+        return tipoProdutoRepository.findCollectionVersion();
     }
 
     @Override
+    @Transactional
     public TipoProdutoDTO create(TipoProdutoDTO tipoProdutoDTO) {
         LOGGER.info("Creating a new Tipo Produto");
         TipoProduto tipoProdutoEntity = mapper.dtoToEntity(tipoProdutoDTO);
         tipoProdutoRepository.save(tipoProdutoEntity);
+        responseBytesCache.invalidate(Region.TIPO_PRODUTO);
         return addHateoasLinks(mapper.entityToDto(tipoProdutoEntity));
     }
 
     @Override
-    public void update(UUID id, TipoProdutoDTO tipoProdutoDTO) {
+    @Transactional
+    public void update(UUID id, TipoProdutoDTO tipoProdutoDTO, String ifMatch) {
         LOGGER.info("Updating Tipo Produto with ID: {}", id);
         TipoProduto tipoProdutoEntity = findTipoProdutoById(id);
+        ETagUtil.checkIfMatch(ifMatch, () -> ETagUtil.version(tipoProdutoEntity.getVersion()));
         tipoProdutoEntity.setNome(tipoProdutoDTO.getNome());
         tipoProdutoRepository.save(tipoProdutoEntity);
+        referenceCacheEvictor.evict(TipoProduto.class, id);
+        responseBytesCache.invalidate(Region.TIPO_PRODUTO);
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
         LOGGER.info("Deleting Tipo Produto with ID: {}", id);
         TipoProduto tipoProdutoEntity = findTipoProdutoById(id);
         tipoProdutoRepository.delete(tipoProdutoEntity);
+        referenceCacheEvictor.evict(TipoProduto.class, id);
+        responseBytesCache.invalidate(Region.TIPO_PRODUTO);
     }
 
     private TipoProduto findTipoProdutoById(UUID id) {
@@ -73,7 +113,7 @@ public class TipoProdutoServiceImpl implements TipoProdutoService {
     }
 
     private TipoProdutoDTO addHateoasLinks(TipoProdutoDTO tipoProdutoDTO) {
-        tipoProdutoDTO.add(linkTo(methodOn(TipoProdutoController.class).findById(tipoProdutoDTO.getUuid())).withSelfRel());
+        tipoProdutoDTO.add(SELF_LINK.selfLink(tipoProdutoDTO.getUuid()));
         return tipoProdutoDTO;
     }
 }
\ No newline at end of file
@@ -1,34 +1,47 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource;
+import br.com.controleestoque.config.ReadReplicaRoutingDataSource.PrimaryOnlyScope;
 import br.com.controleestoque.controller.UserController;
+import br.com.controleestoque.exception.InvalidRequestException;
 import br.com.controleestoque.exception.UserException;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.dto.UserDTO;
+import br.com.controleestoque.model.entity.Permission;
 import br.com.controleestoque.model.entity.User;
 import br.com.controleestoque.model.mapper.UserMapper;
 import br.com.controleestoque.repository.UserRepository;
+import br.com.controleestoque.security.KnownUsernames;
+import br.com.controleestoque.security.PasswordHashingExecutor;
+import br.com.controleestoque.security.jwt.PrincipalCache;
 import br.com.controleestoque.service.UserService;
+import br.com.controleestoque.util.ETagUtil;
+import br.com.controleestoque.util.HateoasLinkFactory;
+import br.com.controleestoque.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.UUID;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserDetailsService, UserService {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserServiceImpl.class);
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final PrincipalCache principalCache;
+    private final KnownUsernames knownUsernames;
+    private final TransactionTemplate transactionTemplate;
     private static final UserMapper mapper = UserMapper.INSTANCE;
+    private static final HateoasLinkFactory<UserController> SELF_LINK = HateoasLinkFactory.of(UserController.class, (controller, id) -> controller.findById(id, null));
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -43,46 +56,98 @@ public class UserServiceImpl implements UserDetailsService, UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO findById(UUID id) {
         LOGGER.info("Finding User by ID: {}", id);
-        User userEntity = findUserById(id);
-        return addHateoasLinks(mapper.entityToDto(userEntity));
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            User userEntity = findUserById(id);
+            return addHateoasLinks(mapper.entityToDto(userEntity));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> findAll() {
         LOGGER.info("Finding all Users");
-        return userRepository.findAll()
-                .stream()
-                .map(mapper::entityToDto)
-                .map(this::addHateoasLinks)
-                .toList();
+        try (PrimaryOnlyScope ignored = ReadReplicaRoutingDataSource.primaryOnly()) {
+            return userRepository.findAll()
+                    .stream()
+                    .map(mapper::entityToDto)
+                    .map(this::addHateoasLinks)
+                    .toList();
+        }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO findVersionById(UUID id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("User not found with ID: {}", id);
+                    return new UserException("User not found with ID: " + id);
+                });
+    }
+
+    // Not @Transactional: the password is hashed before any connection is taken, so a request waiting for a
+    // hashing thread does not hold one of the pool's connections meanwhile
     @Override
     public UserDTO create(UserDTO userDTO) {
         LOGGER.info("Creating a new User");
         User userEntity = mapper.dtoToEntity(userDTO);
-        userEntity.setPassword(passwordEncoder.encode(userDTO.getPassword()));
-        userRepository.save(userEntity);
+        userEntity.setPassword(passwordHashingExecutor.encode(userDTO.getPassword()));
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(userEntity);
+            TransactionUtil.afterCommit(() -> knownUsernames.add(userEntity.getUsername()));
+        });
         return addHateoasLinks(mapper.entityToDto(userEntity));
     }
 
+    // Hashes before the transaction like create. Reading the current hash first would take the connection that
+    // open-in-view then keeps until the response, so a password that already is a hash is checked inside instead.
     @Override
-    public void update(UUID id, UserDTO userDTO) {
+    public void update(UUID id, UserDTO userDTO, String ifMatch) {
         LOGGER.info("Updating User with ID: {}", id);
-        User userEntity = findUserById(id);
-        userEntity.setUsername(userDTO.getUsername());
-        userEntity.setFullName(userDTO.getFullName());
-        userEntity.setPassword(passwordEncoder.encode(userDTO.getPassword()));
-        userRepository.save(userEntity);
+        boolean passwordUnchanged = passwordHashingExecutor.isEncoded(userDTO.getPassword());
+        String encodedPassword = passwordUnchanged ? null : passwordHashingExecutor.encode(userDTO.getPassword());
+        transactionTemplate.executeWithoutResult(status -> {
+            User userEntity = findUserById(id);
+            ETagUtil.checkIfMatch(ifMatch, () -> ETagUtil.version(userEntity.getVersion(),
+                    userEntity.getPermissions().stream().mapToLong(Permission::getVersion).sum()));
+            if (passwordUnchanged && !userDTO.getPassword().equals(userEntity.getPassword())) {
+                LOGGER.error("Password hash does not match the current one of User with ID: {}", id);
+                throw new InvalidRequestException("Password must be the current hash or a new plain text password");
+            }
+            String previousUsername = userEntity.getUsername();
+            userEntity.setUsername(userDTO.getUsername());
+            userEntity.setFullName(userDTO.getFullName());
+            if (!passwordUnchanged) {
+                userEntity.setPassword(encodedPassword);
+            }
+            userRepository.save(userEntity);
+            invalidatePrincipal(previousUsername);
+            String username = userEntity.getUsername();
+            TransactionUtil.afterCommit(() -> {
+                if (!previousUsername.equals(username)) {
+                    knownUsernames.remove(previousUsername);
+                }
+                knownUsernames.add(username);
+            });
+        });
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
         LOGGER.info("Deleting User with ID: {}", id);
         User userEntity = findUserById(id);
         userRepository.delete(userEntity);
+        invalidatePrincipal(userEntity.getUsername());
+        TransactionUtil.afterCommit(() -> knownUsernames.remove(userEntity.getUsername()));
+    }
+
+    // Runs after the write so a request in between cannot cache the old principal again
+    private void invalidatePrincipal(String username) {
+        TransactionUtil.invalidateNowAndAfterCommit(() -> principalCache.invalidate(username));
     }
 
     private User findUserById(UUID id) {
@@ -94,7 +159,7 @@ public class UserServiceImpl implements UserDetailsService, UserService {
     }
 
     private UserDTO addHateoasLinks(UserDTO userDTO) {
-        userDTO.add(linkTo(methodOn(UserController.class).findById(userDTO.getUuid())).withSelfRel());
+        userDTO.add(SELF_LINK.selfLink(userDTO.getUuid()));
         return userDTO;
     }
 }
\ No newline at end of file
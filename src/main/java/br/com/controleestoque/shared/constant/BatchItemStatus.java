@@ -0,0 +1,7 @@
+package br.com.controleestoque.shared.constant;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    REJECTED
+}
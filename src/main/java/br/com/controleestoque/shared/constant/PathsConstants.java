@@ -5,6 +5,7 @@ public class PathsConstants {
     public static final String AUTH_BASE = "/api/auth";
     public static final String AUTH_SIGN_IN = "/sign-in";
     public static final String AUTH_REFRESH_TOKEN = "/refresh-token/{username}";
+    public static final String AUTH_SIGN_OUT = "/sign-out";
     public static final String AUTH_BY_ID = "/user/{id}";
     public static final String AUTH_ALL = "/user/";
     public static final String AUTH_CREATE = "/user/create";
@@ -29,10 +30,27 @@ public class PathsConstants {
     public static final String PRODUTO_BASE = "/api/produto";
     public static final String PRODUTO_BY_ID = "/{id}";
     public static final String PRODUTO_ALL = "/";
+    public static final String PRODUTO_PAGE = "/page";
+    public static final String PRODUTO_SEARCH = "/search";
+    public static final String PRODUTO_CHANGES = "/changes";
+    public static final String PRODUTO_EVENTS = "/events";
+    public static final String PRODUTO_SUMMARY_TIPO_PRODUTO_MONTHLY = "/summary/tipo-produto/monthly";
+    public static final String PRODUTO_SUMMARY_PESSOA = "/summary/pessoa";
+    public static final String PRODUTO_EXPORT = "/export";
     public static final String PRODUTO_CREATE = "/create";
+    public static final String PRODUTO_BATCH = "/batch";
     public static final String PRODUTO_UPDATE = "/update/{id}";
     public static final String PRODUTO_DELETE = "/delete/{id}";
 
+    // ESTOQUE_TOTAL
+    public static final String ESTOQUE_TOTAL_BASE = "/api/estoque-total";
+    public static final String ESTOQUE_TOTAL_BY_TIPO_PRODUTO = "/{tipoProdutoId}";
+    public static final String ESTOQUE_TOTAL_BY_TIPO_PRODUTO_PESSOAS = "/{tipoProdutoId}/pessoas";
+    public static final String ESTOQUE_TOTAL_BY_TIPO_PRODUTO_DIARIO = "/{tipoProdutoId}/diario";
+    public static final String ESTOQUE_TOTAL_ALL = "/";
+    public static final String ESTOQUE_TOTAL_REBUILD = "/rebuild";
+    public static final String ESTOQUE_TOTAL_CONSISTENCY = "/consistency";
+
     // TIPO_PRODUTO
     public static final String TIPO_PRODUTO_BASE = "/api/tipo-produto";
     public static final String TIPO_PRODUTO_BY_ID = "/{id}";
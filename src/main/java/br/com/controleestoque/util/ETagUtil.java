@@ -0,0 +1,55 @@
+package br.com.controleestoque.util;
+
+import br.com.controleestoque.exception.PreconditionFailedException;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    // Must stay in line with the version projections in the repositories
+    public static String version(Object... versions) {
+        return Arrays.stream(versions).map(String::valueOf).collect(Collectors.joining("."));
+    }
+
+    public static String strongETag(ResourceVersionDTO resourceVersion) {
+        return strongETag(resourceVersion.getVersion());
+    }
+
+    public static String strongETag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    // Callers resolve the version before loading the body, so a concurrent write can leave the ETag
+    // older than the payload (next poll refetches) but never newer (client would keep a stale copy)
+    public static boolean checkNotModified(WebRequest webRequest, ResourceVersionDTO resourceVersion) {
+        long lastModified = resourceVersion.getLastModified() == null ? -1 : resourceVersion.getLastModified().toEpochMilli();
+        return webRequest.checkNotModified(strongETag(resourceVersion), lastModified);
+    }
+
+    // max(updatedAt) does not move when a row is deleted, so collections answer on the ETag (which includes
+    // the row count) only and never send Last-Modified for If-Modified-Since to be checked against
+    public static boolean checkCollectionNotModified(WebRequest webRequest, ResourceVersionDTO resourceVersion) {
+        return webRequest.checkNotModified(strongETag(resourceVersion));
+    }
+
+    // If-Match uses the strong comparison, so weak validators never match
+    public static void checkIfMatch(String ifMatch, Supplier<String> currentVersion) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        String currentETag = strongETag(currentVersion.get());
+        boolean matches = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(eTag -> eTag.equals("*") || eTag.equals(currentETag));
+        if (!matches) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match current ETag " + currentETag);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.controleestoque.util;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+public final class HateoasLinkFactory<C> {
+    private static final UUID SENTINEL = new UUID(0L, 0L);
+    private static final String SENTINEL_VALUE = SENTINEL.toString();
+
+    private final Class<C> controllerType;
+    private final BiFunction<C, UUID, ?> invocation;
+    private final String attributeName;
+
+    private HateoasLinkFactory(Class<C> controllerType, BiFunction<C, UUID, ?> invocation) {
+        this.controllerType = controllerType;
+        this.invocation = invocation;
+        this.attributeName = HateoasLinkFactory.class.getName() + "." + controllerType.getName()
+                + "@" + Integer.toHexString(System.identityHashCode(this));
+    }
+
+    public static <C> HateoasLinkFactory<C> of(Class<C> controllerType, BiFunction<C, UUID, ?> invocation) {
+        return new HateoasLinkFactory<>(controllerType, invocation);
+    }
+
+    public Link selfLink(UUID id) {
+        if (id == null) {
+            return buildLink(null);
+        }
+        Template template = resolveTemplate();
+        return Link.of(template.prefix() + id + template.suffix(), IanaLinkRelations.SELF);
+    }
+
+    private Template resolveTemplate() {
+        // The base URI depends on the request (host, forwarded headers), so the template lives in request scope
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST) instanceof Template cached) {
+            return cached;
+        }
+        String href = buildLink(SENTINEL).getHref();
+        int index = href.indexOf(SENTINEL_VALUE);
+        Template template = new Template(href.substring(0, index), href.substring(index + SENTINEL_VALUE.length()));
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(attributeName, template, RequestAttributes.SCOPE_REQUEST);
+        }
+        return template;
+    }
+
+    private Link buildLink(UUID id) {
+        return linkTo(invocation.apply(methodOn(controllerType), id)).withSelfRel();
+    }
+
+    private record Template(String prefix, String suffix) {
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.controleestoque.util;
+
+import br.com.controleestoque.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record ProdutoEstoqueChangeToken(long txId, long seq) {
+    public static final ProdutoEstoqueChangeToken START = new ProdutoEstoqueChangeToken(0, 0);
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = txId + SEPARATOR + seq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProdutoEstoqueChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            ProdutoEstoqueChangeToken decoded = new ProdutoEstoqueChangeToken(
+                    Long.parseLong(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1)));
+            if (decoded.txId() < 0 || decoded.seq() < 0) {
+                throw new IllegalArgumentException("Negative position");
+            }
+            return decoded;
+        } catch (RuntimeException exception) {
+            throw new InvalidRequestException("Invalid change token: " + token);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.controleestoque.util;
+
+import br.com.controleestoque.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+public record ProdutoEstoqueCursor(LocalDate dataEntrega, UUID uuid) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = dataEntrega + SEPARATOR + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProdutoEstoqueCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new ProdutoEstoqueCursor(
+                    LocalDate.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException exception) {
+            throw new InvalidRequestException("Invalid cursor: " + token);
+        }
+    }
+}
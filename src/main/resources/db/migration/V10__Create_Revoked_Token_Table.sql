@@ -0,0 +1,13 @@
+-- Holds both access token ids (jti) and refresh token family ids (fid), see TokenRevocationList
+CREATE TABLE IF NOT EXISTS public.tab_revoked_token (
+    token_id varchar(36) NOT NULL,
+    expires_at timestamptz NOT NULL,
+    revoked_at timestamptz NOT NULL DEFAULT now(),
+    CONSTRAINT tab_revoked_token_pkey PRIMARY KEY (token_id)
+    );
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_revoked_at
+    ON public.tab_revoked_token (revoked_at);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_expires_at
+    ON public.tab_revoked_token (expires_at);
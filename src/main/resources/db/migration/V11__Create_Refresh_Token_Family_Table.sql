@@ -0,0 +1,11 @@
+-- One row per refresh token family (fid) with the jti of the only refresh token that may still be used,
+-- shared by every instance, see RefreshTokenFamilies
+CREATE TABLE IF NOT EXISTS public.tab_refresh_token_family (
+    family_id varchar(36) NOT NULL,
+    current_jti varchar(36) NOT NULL,
+    expires_at timestamptz NOT NULL,
+    CONSTRAINT tab_refresh_token_family_pkey PRIMARY KEY (family_id)
+    );
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family_expires_at
+    ON public.tab_refresh_token_family (expires_at);
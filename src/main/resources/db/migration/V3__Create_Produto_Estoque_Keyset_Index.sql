@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_data_entrega_id
+    ON public.tab_produto_estoque (data_entrega, id);
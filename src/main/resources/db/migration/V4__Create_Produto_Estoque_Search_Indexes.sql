@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_lower_marca
+    ON public.tab_produto_estoque (lower(marca) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_pessoa_data_entrega
+    ON public.tab_produto_estoque (pessoa_id, data_entrega);
+
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_tipo_data_entrega
+    ON public.tab_produto_estoque (tipo_pessoa_id, data_entrega);
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_summary
+    ON public.tab_produto_estoque (data_entrega) INCLUDE (tipo_pessoa_id, pessoa_id, quantidade_pacote);
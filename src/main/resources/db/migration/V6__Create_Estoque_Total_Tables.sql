@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS public.tab_estoque_total_diario (
+    tipo_produto_id uuid NOT NULL,
+    pessoa_id uuid NOT NULL,
+    data_entrega date NOT NULL,
+    total_pacotes int8 NOT NULL,
+    total_entregas int8 NOT NULL,
+    CONSTRAINT tab_estoque_total_diario_pkey PRIMARY KEY (tipo_produto_id, pessoa_id, data_entrega),
+    CONSTRAINT fk_estoque_total_diario_tipo_produto FOREIGN KEY (tipo_produto_id) REFERENCES public.tab_tipo_produto(id) ON DELETE CASCADE,
+    CONSTRAINT fk_estoque_total_diario_pessoa FOREIGN KEY (pessoa_id) REFERENCES public.tab_pessoa(id) ON DELETE CASCADE
+    );
+
+CREATE TABLE IF NOT EXISTS public.tab_estoque_total (
+    tipo_produto_id uuid NOT NULL,
+    total_pacotes int8 NOT NULL,
+    total_entregas int8 NOT NULL,
+    CONSTRAINT tab_estoque_total_pkey PRIMARY KEY (tipo_produto_id),
+    CONSTRAINT fk_estoque_total_tipo_produto FOREIGN KEY (tipo_produto_id) REFERENCES public.tab_tipo_produto(id) ON DELETE CASCADE
+    );
+
+INSERT INTO public.tab_estoque_total_diario (tipo_produto_id, pessoa_id, data_entrega, total_pacotes, total_entregas)
+SELECT tipo_pessoa_id, pessoa_id, data_entrega, sum(quantidade_pacote), count(*)
+FROM public.tab_produto_estoque
+GROUP BY tipo_pessoa_id, pessoa_id, data_entrega;
+
+INSERT INTO public.tab_estoque_total (tipo_produto_id, total_pacotes, total_entregas)
+SELECT tipo_pessoa_id, sum(quantidade_pacote), count(*)
+FROM public.tab_produto_estoque
+GROUP BY tipo_pessoa_id;
@@ -0,0 +1,16 @@
+ALTER TABLE public.tab_pessoa
+    ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS updated_at timestamptz NOT NULL DEFAULT now();
+
+ALTER TABLE public.tab_tipo_produto
+    ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS updated_at timestamptz NOT NULL DEFAULT now();
+
+ALTER TABLE public.tab_produto_estoque
+    ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS updated_at timestamptz NOT NULL DEFAULT now();
+
+-- max(updated_at) backs the collection ETags, keep it an index lookup
+CREATE INDEX IF NOT EXISTS idx_pessoa_updated_at ON public.tab_pessoa (updated_at);
+CREATE INDEX IF NOT EXISTS idx_tipo_produto_updated_at ON public.tab_tipo_produto (updated_at);
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_updated_at ON public.tab_produto_estoque (updated_at);
@@ -0,0 +1,5 @@
+ALTER TABLE public.tab_user
+    ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0;
+
+ALTER TABLE public.tab_permission
+    ADD COLUMN IF NOT EXISTS version int8 NOT NULL DEFAULT 0;
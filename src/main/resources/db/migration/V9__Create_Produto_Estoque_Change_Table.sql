@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS public.tab_produto_estoque_change (
+    seq bigserial NOT NULL,
+    tx_id xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    changed_at timestamptz NOT NULL DEFAULT now(),
+    produto_estoque_id uuid NOT NULL,
+    operation varchar(7) NOT NULL,
+    marca varchar(25) NULL,
+    quantidade_pacote int4 NULL,
+    data_entrega date NULL,
+    tamanho_pacote varchar(5) NULL,
+    tipo_produto_id uuid NULL,
+    pessoa_id uuid NULL,
+    CONSTRAINT tab_produto_estoque_change_pkey PRIMARY KEY (seq)
+    );
+
+-- The feed is read in (tx_id, seq) order, see ProdutoEstoqueChangeRepository
+CREATE INDEX IF NOT EXISTS idx_produto_estoque_change_cursor
+    ON public.tab_produto_estoque_change (tx_id, seq);
+
+-- Existing rows become the first entries, so a client starting without a token replays the full stock
+INSERT INTO public.tab_produto_estoque_change (produto_estoque_id, operation, marca, quantidade_pacote,
+                                              data_entrega, tamanho_pacote, tipo_produto_id, pessoa_id)
+SELECT id, 'CREATED', marca, quantidade_pacote, data_entrega, tamanho_pacote, tipo_pessoa_id, pessoa_id
+FROM public.tab_produto_estoque
+ORDER BY data_entrega, id;
@@ -0,0 +1,142 @@
+package br.com.controleestoque.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two independent embedded databases stand in for the primary and the replica, each one tagged with its own name
+class ReadReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MILLIS = 100L;
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+
+    private StubLagMonitor replicaLagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeAll
+    static void startDatabases() throws IOException {
+        primary = EmbeddedPostgres.start();
+        replica = EmbeddedPostgres.start();
+        tagDatabase(primary.getPostgresDatabase(), "primary");
+        tagDatabase(replica.getPostgresDatabase(), "replica");
+    }
+
+    @AfterAll
+    static void stopDatabases() throws IOException {
+        primary.close();
+        replica.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicaLagMonitor = new StubLagMonitor(replica.getPostgresDatabase());
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+                primary.getPostgresDatabase(), replica.getPostgresDatabase(), replicaLagMonitor);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        replicaLagMonitor.refresh();
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> origin()));
+        assertEquals("primary", readWriteTransaction.execute(status -> origin()));
+        assertEquals("primary", origin());
+    }
+
+    @Test
+    void testPrimaryOnlyScopeKeepsReadOnlyTransactionsOnPrimary() {
+        replicaLagMonitor.refresh();
+
+        try (ReadReplicaRoutingDataSource.PrimaryOnlyScope outer = ReadReplicaRoutingDataSource.primaryOnly()) {
+            try (ReadReplicaRoutingDataSource.PrimaryOnlyScope inner = ReadReplicaRoutingDataSource.primaryOnly()) {
+                assertEquals("primary", readOnlyTransaction.execute(status -> origin()));
+            }
+            assertEquals("primary", readOnlyTransaction.execute(status -> origin()));
+        }
+        assertEquals("replica", readOnlyTransaction.execute(status -> origin()));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        replicaLagMonitor.lagMillis = MAX_LAG_MILLIS + 1;
+        replicaLagMonitor.refresh();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals("primary", readOnlyTransaction.execute(status -> origin()));
+
+        replicaLagMonitor.lagMillis = MAX_LAG_MILLIS;
+        replicaLagMonitor.refresh();
+        assertEquals("replica", readOnlyTransaction.execute(status -> origin()));
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() {
+        replicaLagMonitor.failure = new SQLException("Connection refused");
+        replicaLagMonitor.refresh();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals(-1, replicaLagMonitor.getLagMillis());
+        assertEquals("primary", readOnlyTransaction.execute(status -> origin()));
+    }
+
+    @Test
+    void testLagQueryOnServerOutOfRecovery() throws SQLException {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica.getPostgresDatabase(), MAX_LAG_MILLIS, 1000L);
+
+        assertEquals(0, monitor.measureLagMillis());
+        assertFalse(monitor.isReplicaUsable());
+        monitor.refresh();
+        assertTrue(monitor.isReplicaUsable());
+    }
+
+    private String origin() {
+        return jdbcTemplate.queryForObject("SELECT nome FROM tab_origem", String.class);
+    }
+
+    private static void tagDatabase(DataSource dataSource, String nome) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE tab_origem (nome varchar(10))");
+        jdbcTemplate.update("INSERT INTO tab_origem VALUES (?)", nome);
+    }
+
+    private static class StubLagMonitor extends ReplicaLagMonitor {
+        private long lagMillis;
+        private SQLException failure;
+
+        StubLagMonitor(DataSource replicaDataSource) {
+            super(replicaDataSource, MAX_LAG_MILLIS, 60000L);
+        }
+
+        @Override
+        long measureLagMillis() throws SQLException {
+            if (failure != null) {
+                throw failure;
+            }
+            return lagMillis;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.controleestoque.config;
+
+import br.com.controleestoque.model.dto.PessoaDTO;
+import br.com.controleestoque.model.entity.Pessoa;
+import br.com.controleestoque.repository.PessoaRepository;
+import br.com.controleestoque.service.PessoaService;
+import br.com.controleestoque.service.impl.PessoaServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The replica is a second database on the same server that never receives the writes, so it lags forever
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReadReplicaSecondLevelCacheTest.ReplicaConfig.class, CacheConfig.class, ReferenceCacheEvictor.class,
+        PessoaServiceImpl.class})
+class ReadReplicaSecondLevelCacheTest {
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private Cache cache;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictAllRegions();
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    void testReadRightAfterWriteCachesThePrimaryRow() {
+        UUID id = insertReplicated("Rafael");
+        assertEquals("Rafael", pessoaService.findById(id).getNome());
+
+        pessoaService.update(id, PessoaDTO.builder().nome("Rafa").sobrenome("Gabriel").build(), null);
+        assertFalse(cache.containsEntity(Pessoa.class, id));
+        assertEquals("Rafa", pessoaService.findById(id).getNome());
+
+        assertTrue(cache.containsEntity(Pessoa.class, id));
+        assertEquals("Rafael", nomeOnReplica(id));
+        assertEquals("Rafa", readOnlyTransaction.execute(status -> pessoaRepository.findById(id).orElseThrow().getNome()));
+        assertTrue(pessoaService.findAll().stream().anyMatch(pessoa -> "Rafa".equals(pessoa.getNome())));
+        assertTrue(readOnlyTransaction.execute(status -> pessoaRepository.findAll()).stream()
+                .anyMatch(pessoa -> "Rafa".equals(pessoa.getNome())));
+    }
+
+    @Test
+    void testReplicaReadsDoNotFillTheCache() {
+        UUID id = insertReplicated("José");
+        new JdbcTemplate(primaryDataSource).update("UPDATE tab_pessoa SET nome = 'Zé', version = 1 WHERE id = ?", id);
+
+        assertEquals("José", readOnlyTransaction.execute(status -> pessoaRepository.findById(id).orElseThrow().getNome()));
+
+        assertFalse(cache.containsEntity(Pessoa.class, id));
+        assertEquals("Zé", pessoaService.findById(id).getNome());
+        assertTrue(cache.containsEntity(Pessoa.class, id));
+    }
+
+    private UUID insertReplicated(String nome) {
+        UUID id = UUID.randomUUID();
+        for (DataSource dataSource : new DataSource[]{primaryDataSource, replicaDataSource}) {
+            new JdbcTemplate(dataSource).update("INSERT INTO tab_pessoa (id, nome, sobrenome) VALUES (?, ?, 'Gabriel')", id, nome);
+        }
+        return id;
+    }
+
+    private String nomeOnReplica(UUID id) {
+        return new JdbcTemplate(replicaDataSource).queryForObject("SELECT nome FROM tab_pessoa WHERE id = ?", String.class, id);
+    }
+
+    @TestConfiguration
+    static class ReplicaConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE replica");
+            return postgres;
+        }
+
+        @Bean
+        DataSource primaryDataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+
+        @Bean
+        DataSource replicaDataSource(EmbeddedPostgres embeddedPostgres) {
+            DataSource replicaDataSource = embeddedPostgres.getDatabase("postgres", "replica");
+            Flyway.configure().dataSource(replicaDataSource).locations("classpath:db/migration").load().migrate();
+            return replicaDataSource;
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(DataSource primaryDataSource, DataSource replicaDataSource) {
+            ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replicaDataSource, 5000L, 60000L) {
+                @Override
+                long measureLagMillis() {
+                    return 0;
+                }
+            };
+            replicaLagMonitor.refresh();
+            ReadReplicaRoutingDataSource routingDataSource =
+                    new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+            routingDataSource.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.controleestoque.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// An embedded server cannot be a streaming standby, so the recovery functions and pg_stat_wal_receiver are shadowed
+// by a schema placed before pg_catalog in the search_path of a dedicated database
+class ReplicaLagMonitorTest {
+
+    private static final long MAX_LAG_MILLIS = 5000L;
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource standby;
+
+    private JdbcTemplate jdbcTemplate;
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        JdbcTemplate admin = new JdbcTemplate(postgres.getPostgresDatabase());
+        admin.execute("CREATE DATABASE standby");
+        admin.execute("ALTER DATABASE standby SET search_path = standby_sim, pg_catalog");
+        standby = postgres.getDatabase("postgres", "standby");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(standby);
+        jdbcTemplate.execute("CREATE SCHEMA standby_sim");
+        jdbcTemplate.execute("CREATE TABLE standby_sim.recovery_state (in_recovery boolean, receive_lsn pg_lsn, " +
+                "replay_lsn pg_lsn, replay_timestamp timestamptz)");
+        jdbcTemplate.execute("CREATE TABLE standby_sim.pg_stat_wal_receiver (status text)");
+        jdbcTemplate.execute("CREATE FUNCTION standby_sim.pg_is_in_recovery() RETURNS boolean LANGUAGE sql " +
+                "AS 'SELECT in_recovery FROM standby_sim.recovery_state'");
+        jdbcTemplate.execute("CREATE FUNCTION standby_sim.pg_last_wal_receive_lsn() RETURNS pg_lsn LANGUAGE sql " +
+                "AS 'SELECT receive_lsn FROM standby_sim.recovery_state'");
+        jdbcTemplate.execute("CREATE FUNCTION standby_sim.pg_last_wal_replay_lsn() RETURNS pg_lsn LANGUAGE sql " +
+                "AS 'SELECT replay_lsn FROM standby_sim.recovery_state'");
+        jdbcTemplate.execute("CREATE FUNCTION standby_sim.pg_last_xact_replay_timestamp() RETURNS timestamptz " +
+                "LANGUAGE sql AS 'SELECT replay_timestamp FROM standby_sim.recovery_state'");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(standby);
+        jdbcTemplate.update("DELETE FROM standby_sim.recovery_state");
+        jdbcTemplate.update("DELETE FROM standby_sim.pg_stat_wal_receiver");
+        replicaLagMonitor = new ReplicaLagMonitor(standby, MAX_LAG_MILLIS, 1000L);
+    }
+
+    @Test
+    void testStreamingStandbyThatReplayedEverythingHasNoLag() throws SQLException {
+        standbyState("0/3000000", "0/3000000", "10 minutes");
+        jdbcTemplate.update("INSERT INTO standby_sim.pg_stat_wal_receiver VALUES ('streaming')");
+
+        assertEquals(0, replicaLagMonitor.measureLagMillis());
+        replicaLagMonitor.refresh();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void testStreamingStandbyBehindReportsReplayAge() throws SQLException {
+        standbyState("0/3000000", "0/2000000", "10 minutes");
+        jdbcTemplate.update("INSERT INTO standby_sim.pg_stat_wal_receiver VALUES ('streaming')");
+
+        assertTrue(replicaLagMonitor.measureLagMillis() >= 600000);
+        replicaLagMonitor.refresh();
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void testDisconnectedReceiverIsNotReportedCurrent() throws SQLException {
+        standbyState("0/3000000", "0/3000000", "10 minutes");
+
+        assertTrue(replicaLagMonitor.measureLagMillis() >= 600000);
+        replicaLagMonitor.refresh();
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+
+        jdbcTemplate.update("INSERT INTO standby_sim.pg_stat_wal_receiver VALUES ('waiting')");
+        replicaLagMonitor.refresh();
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void testStandbyWithoutReplayedTransactionIsUnusable() throws SQLException {
+        jdbcTemplate.update("INSERT INTO standby_sim.recovery_state VALUES (true, '0/3000000', '0/3000000', NULL)");
+
+        assertEquals(-1, replicaLagMonitor.measureLagMillis());
+        replicaLagMonitor.refresh();
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals(-1, replicaLagMonitor.getLagMillis());
+    }
+
+    private void standbyState(String receiveLsn, String replayLsn, String replayAge) {
+        jdbcTemplate.update("INSERT INTO standby_sim.recovery_state VALUES (true, ?::pg_lsn, ?::pg_lsn, " +
+                "now() - ?::interval)", receiveLsn, replayLsn, replayAge);
+    }
+}
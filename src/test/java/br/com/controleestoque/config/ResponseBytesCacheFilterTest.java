@@ -0,0 +1,211 @@
+package br.com.controleestoque.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBytesCacheFilterTest {
+
+    private static final String TIPO_PRODUTO_ALL = "/api/tipo-produto/";
+    private static final String PERMISSION_ALL = "/api/auth/permission/";
+    private static final String JSON = "application/json";
+    private static final String XML = "application/xml";
+    private static final String ETAG = "\"3\"";
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private ResponseBytesCache responseBytesCache;
+    private ResponseBytesCacheFilter responseBytesCacheFilter;
+
+    @BeforeEach
+    void setUp() {
+        responseBytesCache = new ResponseBytesCache(60, 100);
+        responseBytesCacheFilter = new ResponseBytesCacheFilter(responseBytesCache);
+    }
+
+    @Test
+    void testSecondRequestIsServedFromCache() throws Exception {
+        MockHttpServletResponse first = perform(get(TIPO_PRODUTO_ALL, JSON), renderList(ETAG));
+        MockHttpServletResponse second = perform(get(TIPO_PRODUTO_ALL, JSON), renderList(ETAG));
+
+        assertEquals(1, renders.get());
+        assertEquals(200, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(first.getContentType(), second.getContentType());
+        assertEquals(first.getContentLength(), second.getContentLength());
+        assertEquals(ETAG, second.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testCachedETagAnswersNotModified() throws Exception {
+        perform(get(TIPO_PRODUTO_ALL, JSON), renderList(ETAG));
+        MockHttpServletRequest conditional = get(TIPO_PRODUTO_ALL, JSON);
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        MockHttpServletResponse response = perform(conditional, renderList(ETAG));
+
+        assertEquals(1, renders.get());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testEntriesAreSeparatedByAcceptAndHost() throws Exception {
+        perform(get(TIPO_PRODUTO_ALL, JSON), renderList(null));
+        perform(get(TIPO_PRODUTO_ALL, XML), renderList(null));
+        MockHttpServletRequest forwarded = get(TIPO_PRODUTO_ALL, JSON);
+        forwarded.addHeader("X-Forwarded-Host", "api.example.com");
+        perform(forwarded, renderList(null));
+        perform(get(TIPO_PRODUTO_ALL, XML), renderList(null));
+
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void testInvalidateDropsOnlyItsRegion() throws Exception {
+        perform(get(TIPO_PRODUTO_ALL, JSON), renderList(null));
+        perform(get(PERMISSION_ALL, JSON), renderList(null));
+
+        responseBytesCache.invalidate(ResponseBytesCache.Region.PERMISSION);
+        perform(get(TIPO_PRODUTO_ALL, JSON), renderList(null));
+        perform(get(PERMISSION_ALL, JSON), renderList(null));
+
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void testResponseRenderedDuringInvalidationIsNotCached() throws Exception {
+        FilterChain invalidatingChain = (request, response) -> {
+            renderList(null).doFilter(request, response);
+            responseBytesCache.invalidate(ResponseBytesCache.Region.TIPO_PRODUTO);
+        };
+
+        perform(get(TIPO_PRODUTO_ALL, JSON), invalidatingChain);
+        perform(get(TIPO_PRODUTO_ALL, JSON), renderList(null));
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testResponseRenderedBeforeCommitIsDroppedAfterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            responseBytesCache.invalidate(ResponseBytesCache.Region.TIPO_PRODUTO);
+            // Rendered from the committed list, which the pending write has not changed yet
+            perform(get(TIPO_PRODUTO_ALL, JSON), renderList(null));
+            assertEquals(1, responseBytesCache.size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(0, responseBytesCache.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testOtherRequestsAndErrorsAreNotCached() throws Exception {
+        MockHttpServletRequest post = get(TIPO_PRODUTO_ALL, JSON);
+        post.setMethod("POST");
+        perform(post, renderList(null));
+        perform(post, renderList(null));
+        perform(get("/api/pessoa/", JSON), renderList(null));
+        perform(get("/api/pessoa/", JSON), renderList(null));
+        FilterChain failingChain = (request, response) -> {
+            renders.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(500);
+        };
+        perform(get(PERMISSION_ALL, JSON), failingChain);
+        perform(get(PERMISSION_ALL, JSON), failingChain);
+
+        assertEquals(6, renders.get());
+        assertEquals(0, responseBytesCache.size());
+    }
+
+    @Test
+    void testListRenderedRightAfterWriteIsReadFromPrimary() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            JdbcTemplate primary = new JdbcTemplate(postgres.getPostgresDatabase());
+            primary.execute("CREATE DATABASE replica");
+            DataSource replicaDataSource = postgres.getDatabase("postgres", "replica");
+            JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+            for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+                database.execute("CREATE TABLE tab_tipo_produto (nome varchar(10))");
+                database.update("INSERT INTO tab_tipo_produto VALUES ('Arroz')");
+            }
+            ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replicaDataSource, 5000L, 60000L) {
+                @Override
+                long measureLagMillis() {
+                    return 0;
+                }
+            };
+            replicaLagMonitor.refresh();
+            ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+                    postgres.getPostgresDatabase(), replicaDataSource, replicaLagMonitor);
+            routingDataSource.afterPropertiesSet();
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            readOnlyTransaction.setReadOnly(true);
+            Supplier<String> readList = () -> readOnlyTransaction.execute(status -> String.join(",",
+                    new JdbcTemplate(dataSource).queryForList("SELECT nome FROM tab_tipo_produto ORDER BY nome", String.class)));
+            FilterChain renderFromDatabase = (request, response) -> {
+                renders.incrementAndGet();
+                response.setContentType(JSON);
+                response.getOutputStream().write(readList.get().getBytes(StandardCharsets.UTF_8));
+            };
+
+            // The write reaches the primary and invalidates the entry while the replica has not replayed it yet
+            primary.update("INSERT INTO tab_tipo_produto VALUES ('Feijão')");
+            responseBytesCache.invalidate(ResponseBytesCache.Region.TIPO_PRODUTO);
+            MockHttpServletResponse first = perform(get(TIPO_PRODUTO_ALL, JSON), renderFromDatabase);
+            MockHttpServletResponse second = perform(get(TIPO_PRODUTO_ALL, JSON), renderFromDatabase);
+
+            assertEquals("Arroz", readList.get());
+            assertEquals("Arroz,Feijão", first.getContentAsString(StandardCharsets.UTF_8));
+            assertEquals("Arroz,Feijão", second.getContentAsString(StandardCharsets.UTF_8));
+            assertEquals(1, renders.get());
+        }
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain filterChain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseBytesCacheFilter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private FilterChain renderList(String eTag) {
+        return (request, response) -> {
+            renders.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            String accept = ((MockHttpServletRequest) request).getHeader(HttpHeaders.ACCEPT);
+            httpResponse.setContentType(accept);
+            if (eTag != null) {
+                httpResponse.setHeader(HttpHeaders.ETAG, eTag);
+            }
+            String body = XML.equals(accept) ? "<List><item>Café</item></List>" : "[{\"nome\":\"Café\"}]";
+            httpResponse.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest get(String uri, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return request;
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Date;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class AuthControllerTest {
 
@@ -127,4 +127,21 @@ class AuthControllerTest {
         assertEquals(400, response.getStatusCodeValue());
         assertEquals(INVALID_CLIENT_REQUEST_MESSAGE, response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSignOutSuccess() {
+        String accessToken = "Bearer " + MOCK_ACCESS_TOKEN;
+
+        ResponseEntity<?> response = authController.signOut(accessToken);
+        assertEquals(204, response.getStatusCodeValue());
+        verify(authService).signOut(accessToken);
+    }
+
+    @Test
+    void testSignOutFailureDueToBadRequest() {
+        ResponseEntity<?> response = authController.signOut(" ");
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals(INVALID_CLIENT_REQUEST_MESSAGE, response.getBody());
+        verify(authService, never()).signOut(any());
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.controleestoque.controller;
+
+import br.com.controleestoque.model.dto.EstoqueTotalConsistencyDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+import br.com.controleestoque.service.EstoqueTotalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class EstoqueTotalControllerTest {
+
+    private static final UUID TIPO_PRODUTO_ID = UUID.randomUUID();
+    private static final UUID PESSOA_ID = UUID.randomUUID();
+    private static final LocalDate DATA_ENTREGA = LocalDate.of(2024, 3, 10);
+    private static final EstoqueTotalDTO ESTOQUE_TOTAL_DTO = new EstoqueTotalDTO(TIPO_PRODUTO_ID, 10L, 2L);
+
+    @InjectMocks
+    private EstoqueTotalController estoqueTotalController;
+
+    @Mock
+    private EstoqueTotalService estoqueTotalService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testFindByTipoProdutoSuccess() {
+        when(estoqueTotalService.findByTipoProduto(TIPO_PRODUTO_ID)).thenReturn(ESTOQUE_TOTAL_DTO);
+
+        ResponseEntity<EstoqueTotalDTO> response = estoqueTotalController.findByTipoProduto(TIPO_PRODUTO_ID);
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(10L, response.getBody().getTotalPacotes());
+    }
+
+    @Test
+    void testFindAllSuccess() {
+        when(estoqueTotalService.findAll()).thenReturn(Collections.singletonList(ESTOQUE_TOTAL_DTO));
+
+        ResponseEntity<List<EstoqueTotalDTO>> response = estoqueTotalController.findAll();
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1, response.getBody().size());
+    }
+
+    @Test
+    void testFindPessoaTotalsSuccess() {
+        when(estoqueTotalService.findPessoaTotals(TIPO_PRODUTO_ID, null, null))
+                .thenReturn(List.of(new EstoqueTotalPessoaDTO(TIPO_PRODUTO_ID, PESSOA_ID, 10L, 2L)));
+
+        ResponseEntity<List<EstoqueTotalPessoaDTO>> response = estoqueTotalController.findPessoaTotals(TIPO_PRODUTO_ID, null, null);
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(PESSOA_ID, response.getBody().get(0).getPessoaId());
+    }
+
+    @Test
+    void testFindDailyTotalsSuccess() {
+        when(estoqueTotalService.findDailyTotals(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, DATA_ENTREGA))
+                .thenReturn(List.of(new EstoqueTotalDiarioDTO(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 10L, 2L)));
+
+        ResponseEntity<List<EstoqueTotalDiarioDTO>> response =
+                estoqueTotalController.findDailyTotals(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, DATA_ENTREGA);
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(DATA_ENTREGA, response.getBody().get(0).getDataEntrega());
+    }
+
+    @Test
+    void testRebuildSuccess() {
+        EstoqueTotalConsistencyDTO consistencyDTO = new EstoqueTotalConsistencyDTO(true, 0L, 0L);
+        when(estoqueTotalService.rebuild()).thenReturn(consistencyDTO);
+
+        ResponseEntity<EstoqueTotalConsistencyDTO> response = estoqueTotalController.rebuild();
+        assertEquals(200, response.getStatusCodeValue());
+        assertTrue(response.getBody().getConsistent());
+    }
+
+    @Test
+    void testCheckConsistencySuccess() {
+        EstoqueTotalConsistencyDTO consistencyDTO = new EstoqueTotalConsistencyDTO(false, 1L, 0L);
+        when(estoqueTotalService.checkConsistency()).thenReturn(consistencyDTO);
+
+        ResponseEntity<EstoqueTotalConsistencyDTO> response = estoqueTotalController.checkConsistency();
+        assertEquals(200, response.getStatusCodeValue());
+        assertFalse(response.getBody().getConsistent());
+    }
+}
@@ -1,13 +1,18 @@
 package br.com.controleestoque.controller;
 
 import br.com.controleestoque.model.dto.PermissionDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.service.PermissionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Collections;
 import java.util.List;
@@ -16,7 +21,10 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PermissionControllerTest {
@@ -39,14 +47,27 @@ class PermissionControllerTest {
     void testFindByIdSuccess() {
         PERMISSION_DTO.setUuid(PERMISSION_ID);
 
+        when(permissionService.findVersionById(PERMISSION_ID)).thenReturn(new ResourceVersionDTO("3.1"));
         when(permissionService.findById(PERMISSION_ID)).thenReturn(PERMISSION_DTO);
 
-        ResponseEntity<PermissionDTO> response = permissionController.findById(PERMISSION_ID);
+        ResponseEntity<PermissionDTO> response = permissionController.findById(PERMISSION_ID, new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals(PERMISSION_ID, response.getBody().getUuid());
     }
 
+    @Test
+    void testFindByIdNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3.1\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(permissionService.findVersionById(PERMISSION_ID)).thenReturn(new ResourceVersionDTO("3.1"));
+
+        assertNull(permissionController.findById(PERMISSION_ID, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(permissionService, never()).findById(PERMISSION_ID);
+    }
+
     @Test
     void testFindAllSuccess() {
         when(permissionService.findAll()).thenReturn(Collections.singletonList(PERMISSION_DTO));
@@ -70,12 +91,18 @@ class PermissionControllerTest {
     void testUpdatePermissionSuccess() {
         PERMISSION_DTO.setUuid(PERMISSION_ID);
 
-        doNothing().when(permissionService).update(eq(PERMISSION_ID), any(PermissionDTO.class));
+        doNothing().when(permissionService).update(eq(PERMISSION_ID), any(PermissionDTO.class), isNull());
 
-        ResponseEntity<Void> response = permissionController.update(PERMISSION_ID, PERMISSION_DTO);
+        ResponseEntity<Void> response = permissionController.update(PERMISSION_ID, PERMISSION_DTO, null);
         assertEquals(200, response.getStatusCodeValue());
     }
 
+    @Test
+    void testUpdateForwardsIfMatch() {
+        permissionController.update(PERMISSION_ID, PERMISSION_DTO, "\"3\"");
+        verify(permissionService).update(PERMISSION_ID, PERMISSION_DTO, "\"3\"");
+    }
+
     @Test
     void testDeletePermissionSuccess() {
         doNothing().when(permissionService).delete(PERMISSION_ID);
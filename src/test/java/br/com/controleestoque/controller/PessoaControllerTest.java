@@ -1,14 +1,20 @@
 package br.com.controleestoque.controller;
 
 import br.com.controleestoque.model.dto.PessoaDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.service.PessoaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -16,13 +22,17 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PessoaControllerTest {
 
     private static final UUID PESSOA_ID = UUID.randomUUID();
     private static final PessoaDTO PESSOA_DTO = new PessoaDTO();
+    private static final ResourceVersionDTO RESOURCE_VERSION = new ResourceVersionDTO("3", Instant.parse("2024-05-01T10:00:00Z"));
 
     @InjectMocks
     private PessoaController pessoaController;
@@ -39,9 +49,10 @@ class PessoaControllerTest {
     void testFindByIdSuccess() {
         PESSOA_DTO.setUuid(PESSOA_ID);
 
+        when(pessoaService.findVersionById(PESSOA_ID)).thenReturn(RESOURCE_VERSION);
         when(pessoaService.findById(PESSOA_ID)).thenReturn(PESSOA_DTO);
 
-        ResponseEntity<PessoaDTO> response = pessoaController.findById(PESSOA_ID);
+        ResponseEntity<PessoaDTO> response = pessoaController.findById(PESSOA_ID, new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals(PESSOA_ID, response.getBody().getUuid());
@@ -49,14 +60,73 @@ class PessoaControllerTest {
 
     @Test
     void testFindAllSuccess() {
+        when(pessoaService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
         when(pessoaService.findAll()).thenReturn(Collections.singletonList(PESSOA_DTO));
 
-        ResponseEntity<List<PessoaDTO>> response = pessoaController.findAll();
+        ResponseEntity<List<PessoaDTO>> response = pessoaController.findAll(new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isEmpty());
     }
 
+    @Test
+    void testFindByIdSetsValidators() {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(pessoaService.findVersionById(PESSOA_ID)).thenReturn(RESOURCE_VERSION);
+        when(pessoaService.findById(PESSOA_ID)).thenReturn(PESSOA_DTO);
+
+        pessoaController.findById(PESSOA_ID, new ServletWebRequest(new MockHttpServletRequest("GET", "/"), servletResponse));
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNotNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindByIdNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(pessoaService.findVersionById(PESSOA_ID)).thenReturn(RESOURCE_VERSION);
+
+        assertNull(pessoaController.findById(PESSOA_ID, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(pessoaService, never()).findById(PESSOA_ID);
+    }
+
+    @Test
+    void testFindAllNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(pessoaService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+
+        assertNull(pessoaController.findAll(new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(pessoaService, never()).findAll();
+    }
+
+    @Test
+    void testFindAllIgnoresIfModifiedSince() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, RESOURCE_VERSION.getLastModified().toEpochMilli());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(pessoaService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(pessoaService.findAll()).thenReturn(Collections.emptyList());
+
+        assertEquals(200, pessoaController.findAll(new ServletWebRequest(servletRequest, servletResponse)).getStatusCodeValue());
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindAllModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2\"");
+        when(pessoaService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(pessoaService.findAll()).thenReturn(Collections.singletonList(PESSOA_DTO));
+
+        assertEquals(200, pessoaController.findAll(new ServletWebRequest(servletRequest)).getStatusCodeValue());
+    }
+
     @Test
     void testCreatePessoaSuccess() {
         when(pessoaService.create(any(PessoaDTO.class))).thenReturn(PESSOA_DTO);
@@ -70,12 +140,18 @@ class PessoaControllerTest {
     void testUpdatePessoaSuccess() {
         PESSOA_DTO.setUuid(PESSOA_ID);
 
-        doNothing().when(pessoaService).update(eq(PESSOA_ID), any(PessoaDTO.class));
+        doNothing().when(pessoaService).update(eq(PESSOA_ID), any(PessoaDTO.class), isNull());
 
-        ResponseEntity<Void> response = pessoaController.update(PESSOA_ID, PESSOA_DTO);
+        ResponseEntity<Void> response = pessoaController.update(PESSOA_ID, PESSOA_DTO, null);
         assertEquals(200, response.getStatusCodeValue());
     }
 
+    @Test
+    void testUpdateForwardsIfMatch() {
+        pessoaController.update(PESSOA_ID, PESSOA_DTO, "\"3\"");
+        verify(pessoaService).update(PESSOA_ID, PESSOA_DTO, "\"3\"");
+    }
+
     @Test
     void testDeletePessoaSuccess() {
         doNothing().when(pessoaService).delete(PESSOA_ID);
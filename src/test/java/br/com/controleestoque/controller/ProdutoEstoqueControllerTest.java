@@ -1,28 +1,52 @@
 package br.com.controleestoque.controller;
 
+import br.com.controleestoque.exception.InvalidRequestException;
+import br.com.controleestoque.model.dto.ProdutoEstoqueBatchResultDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangesDTO;
 import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePageDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueSearchResultDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
+import br.com.controleestoque.service.ProdutoEstoqueEventService;
 import br.com.controleestoque.service.ProdutoEstoqueService;
+import br.com.controleestoque.shared.constant.BatchItemStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ProdutoEstoqueControllerTest {
 
     private static final UUID PRODUTO_ID = UUID.randomUUID();
     private static final ProdutoEstoqueDTO PRODUTO_DTO = new ProdutoEstoqueDTO();
+    private static final ResourceVersionDTO RESOURCE_VERSION = new ResourceVersionDTO("3", Instant.parse("2024-05-01T10:00:00Z"));
 
     @InjectMocks
     private ProdutoEstoqueController produtoEstoqueController;
@@ -30,6 +54,9 @@ class ProdutoEstoqueControllerTest {
     @Mock
     private ProdutoEstoqueService produtoEstoqueService;
 
+    @Mock
+    private ProdutoEstoqueEventService produtoEstoqueEventService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -39,9 +66,10 @@ class ProdutoEstoqueControllerTest {
     void testFindByIdSuccess() {
         PRODUTO_DTO.setUuid(PRODUTO_ID);
 
+        when(produtoEstoqueService.findVersionById(PRODUTO_ID)).thenReturn(RESOURCE_VERSION);
         when(produtoEstoqueService.findById(PRODUTO_ID)).thenReturn(PRODUTO_DTO);
 
-        ResponseEntity<ProdutoEstoqueDTO> response = produtoEstoqueController.findById(PRODUTO_ID);
+        ResponseEntity<ProdutoEstoqueDTO> response = produtoEstoqueController.findById(PRODUTO_ID, new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals(PRODUTO_ID, response.getBody().getUuid());
@@ -49,12 +77,180 @@ class ProdutoEstoqueControllerTest {
 
     @Test
     void testFindAllSuccess() {
-        when(produtoEstoqueService.findAll()).thenReturn(Collections.singletonList(PRODUTO_DTO));
+        when(produtoEstoqueService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(produtoEstoqueService.findAll()).thenReturn(createPage(Collections.singletonList(PRODUTO_DTO), null));
 
-        ResponseEntity<List<ProdutoEstoqueDTO>> response = produtoEstoqueController.findAll();
+        ResponseEntity<List<ProdutoEstoqueDTO>> response = produtoEstoqueController.findAll(new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isEmpty());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.LINK));
+    }
+
+    @Test
+    void testFindAllLinksToNextPageWhenCapped() {
+        when(produtoEstoqueService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(produtoEstoqueService.findAll()).thenReturn(createPage(Collections.singletonList(PRODUTO_DTO), "cursor-1"));
+
+        ResponseEntity<List<ProdutoEstoqueDTO>> response = produtoEstoqueController.findAll(new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1, response.getBody().size());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.LINK)
+                .endsWith("/api/produto/page?cursor=cursor-1&size=1>;rel=\"next\""));
+    }
+
+    @Test
+    void testFindChangesSuccess() {
+        ProdutoEstoqueChangesDTO changesDTO = ProdutoEstoqueChangesDTO.builder()
+                .changes(Collections.emptyList())
+                .size(0)
+                .hasMore(false)
+                .nextToken("token")
+                .build();
+
+        when(produtoEstoqueService.findChanges("token", null)).thenReturn(changesDTO);
+
+        ResponseEntity<ProdutoEstoqueChangesDTO> response = produtoEstoqueController.findChanges("token", null);
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals("token", response.getBody().getNextToken());
+    }
+
+    @Test
+    void testSubscribeForwardsFilters() {
+        UUID tipoProdutoId = UUID.randomUUID();
+        SseEmitter emitter = new SseEmitter();
+        when(produtoEstoqueEventService.subscribe(tipoProdutoId, null)).thenReturn(emitter);
+
+        assertSame(emitter, produtoEstoqueController.subscribe(tipoProdutoId, null));
+    }
+
+    @Test
+    void testFindPageSuccess() {
+        ProdutoEstoquePageDTO pageDTO = ProdutoEstoquePageDTO.builder()
+                .content(Collections.singletonList(PRODUTO_DTO))
+                .size(1)
+                .hasNext(false)
+                .build();
+
+        when(produtoEstoqueService.findPage(null, 10)).thenReturn(pageDTO);
+
+        ResponseEntity<ProdutoEstoquePageDTO> response = produtoEstoqueController.findPage(null, 10);
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+    }
+
+    @Test
+    void testSearchSuccess() {
+        ProdutoEstoqueSearchResultDTO searchResultDTO = ProdutoEstoqueSearchResultDTO.builder()
+                .content(Collections.singletonList(PRODUTO_DTO))
+                .page(0)
+                .size(1)
+                .totalElements(1L)
+                .hasNext(false)
+                .build();
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+
+        when(produtoEstoqueService.search(any(ProdutoEstoqueFilterDTO.class), eq(0), eq(10), eq("marca")))
+                .thenReturn(searchResultDTO);
+
+        ResponseEntity<ProdutoEstoqueSearchResultDTO> response = produtoEstoqueController.search(
+                "Mel", inicio, null, null, null, 0, 10, "marca");
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+        verify(produtoEstoqueService).search(argThat(filter ->
+                "Mel".equals(filter.getMarca()) && inicio.equals(filter.getDataEntregaInicio())), eq(0), eq(10), eq("marca"));
+    }
+
+    @Test
+    void testSummarizeByPessoaSuccess() {
+        ProdutoEstoquePessoaSummaryDTO pessoaSummary = ProdutoEstoquePessoaSummaryDTO.builder()
+                .pessoaId(UUID.randomUUID())
+                .pessoaNome("Rafael")
+                .totalEntregas(2L)
+                .totalPacotes(5L)
+                .build();
+
+        when(produtoEstoqueService.summarizeByPessoa(null, null)).thenReturn(List.of(pessoaSummary));
+
+        ResponseEntity<List<ProdutoEstoquePessoaSummaryDTO>> response = produtoEstoqueController.summarizeByPessoa(null, null);
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals(5L, response.getBody().get(0).getTotalPacotes());
+    }
+
+    @Test
+    void testExportCsvSuccess() {
+        ResponseEntity<StreamingResponseBody> response = produtoEstoqueController.export("csv");
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("text/csv", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        assertNotNull(response.getBody());
+    }
+
+    @Test
+    void testExportUnsupportedFormat() {
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueController.export("xlsx"));
+    }
+
+    @Test
+    void testFindByIdSetsValidators() {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(produtoEstoqueService.findVersionById(PRODUTO_ID)).thenReturn(RESOURCE_VERSION);
+        when(produtoEstoqueService.findById(PRODUTO_ID)).thenReturn(PRODUTO_DTO);
+
+        produtoEstoqueController.findById(PRODUTO_ID, new ServletWebRequest(new MockHttpServletRequest("GET", "/"), servletResponse));
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNotNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindByIdNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(produtoEstoqueService.findVersionById(PRODUTO_ID)).thenReturn(RESOURCE_VERSION);
+
+        assertNull(produtoEstoqueController.findById(PRODUTO_ID, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(produtoEstoqueService, never()).findById(PRODUTO_ID);
+    }
+
+    @Test
+    void testFindAllNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(produtoEstoqueService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+
+        assertNull(produtoEstoqueController.findAll(new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(produtoEstoqueService, never()).findAll();
+    }
+
+    @Test
+    void testFindAllIgnoresIfModifiedSince() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, RESOURCE_VERSION.getLastModified().toEpochMilli());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(produtoEstoqueService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(produtoEstoqueService.findAll()).thenReturn(createPage(Collections.emptyList(), null));
+
+        assertEquals(200, produtoEstoqueController.findAll(new ServletWebRequest(servletRequest, servletResponse)).getStatusCodeValue());
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindAllModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2\"");
+        when(produtoEstoqueService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(produtoEstoqueService.findAll()).thenReturn(createPage(Collections.singletonList(PRODUTO_DTO), null));
+
+        assertEquals(200, produtoEstoqueController.findAll(new ServletWebRequest(servletRequest)).getStatusCodeValue());
     }
 
     @Test
@@ -66,16 +262,44 @@ class ProdutoEstoqueControllerTest {
         assertNotNull(response.getBody());
     }
 
+    @Test
+    void testSaveBatchAllAccepted() {
+        ProdutoEstoqueBatchResultDTO result = ProdutoEstoqueBatchResultDTO.builder()
+                .index(0).uuid(PRODUTO_ID).status(BatchItemStatus.CREATED).build();
+        when(produtoEstoqueService.saveBatch(anyList())).thenReturn(List.of(result));
+
+        ResponseEntity<List<ProdutoEstoqueBatchResultDTO>> response = produtoEstoqueController.saveBatch(List.of(PRODUTO_DTO));
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().size());
+    }
+
+    @Test
+    void testSaveBatchWithRejectedItems() {
+        ProdutoEstoqueBatchResultDTO result = ProdutoEstoqueBatchResultDTO.builder()
+                .index(0).status(BatchItemStatus.REJECTED).message("Pessoa is required").build();
+        when(produtoEstoqueService.saveBatch(anyList())).thenReturn(List.of(result));
+
+        ResponseEntity<List<ProdutoEstoqueBatchResultDTO>> response = produtoEstoqueController.saveBatch(List.of(PRODUTO_DTO));
+        assertEquals(207, response.getStatusCodeValue());
+    }
+
     @Test
     void testUpdateProdutoSuccess() {
         PRODUTO_DTO.setUuid(PRODUTO_ID);
 
-        doNothing().when(produtoEstoqueService).update(eq(PRODUTO_ID), any(ProdutoEstoqueDTO.class));
+        doNothing().when(produtoEstoqueService).update(eq(PRODUTO_ID), any(ProdutoEstoqueDTO.class), isNull());
 
-        ResponseEntity<Void> response = produtoEstoqueController.update(PRODUTO_ID, PRODUTO_DTO);
+        ResponseEntity<Void> response = produtoEstoqueController.update(PRODUTO_ID, PRODUTO_DTO, null);
         assertEquals(200, response.getStatusCodeValue());
     }
 
+    @Test
+    void testUpdateForwardsIfMatch() {
+        produtoEstoqueController.update(PRODUTO_ID, PRODUTO_DTO, "\"3\"");
+        verify(produtoEstoqueService).update(PRODUTO_ID, PRODUTO_DTO, "\"3\"");
+    }
+
     @Test
     void testDeleteProdutoSuccess() {
         doNothing().when(produtoEstoqueService).delete(PRODUTO_ID);
@@ -83,4 +307,13 @@ class ProdutoEstoqueControllerTest {
         ResponseEntity<Void> response = produtoEstoqueController.delete(PRODUTO_ID);
         assertEquals(204, response.getStatusCodeValue());
     }
+
+    private static ProdutoEstoquePageDTO createPage(List<ProdutoEstoqueDTO> content, String nextCursor) {
+        return ProdutoEstoquePageDTO.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,14 +1,20 @@
 package br.com.controleestoque.controller;
 
 import br.com.controleestoque.model.dto.TipoProdutoDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.service.TipoProdutoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -16,13 +22,17 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TipoProdutoControllerTest {
 
     private static final UUID TIPO_PRODUTO_ID = UUID.randomUUID();
     private static final TipoProdutoDTO TIPO_PRODUTO_DTO = new TipoProdutoDTO();
+    private static final ResourceVersionDTO RESOURCE_VERSION = new ResourceVersionDTO("3", Instant.parse("2024-05-01T10:00:00Z"));
 
     @InjectMocks
     private TipoProdutoController tipoProdutoController;
@@ -39,9 +49,10 @@ class TipoProdutoControllerTest {
     void testFindByIdSuccess() {
         TIPO_PRODUTO_DTO.setUuid(TIPO_PRODUTO_ID);
 
+        when(tipoProdutoService.findVersionById(TIPO_PRODUTO_ID)).thenReturn(RESOURCE_VERSION);
         when(tipoProdutoService.findById(TIPO_PRODUTO_ID)).thenReturn(TIPO_PRODUTO_DTO);
 
-        ResponseEntity<TipoProdutoDTO> response = tipoProdutoController.findById(TIPO_PRODUTO_ID);
+        ResponseEntity<TipoProdutoDTO> response = tipoProdutoController.findById(TIPO_PRODUTO_ID, new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals(TIPO_PRODUTO_ID, response.getBody().getUuid());
@@ -49,14 +60,73 @@ class TipoProdutoControllerTest {
 
     @Test
     void testFindAllSuccess() {
+        when(tipoProdutoService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
         when(tipoProdutoService.findAll()).thenReturn(Collections.singletonList(TIPO_PRODUTO_DTO));
 
-        ResponseEntity<List<TipoProdutoDTO>> response = tipoProdutoController.findAll();
+        ResponseEntity<List<TipoProdutoDTO>> response = tipoProdutoController.findAll(new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isEmpty());
     }
 
+    @Test
+    void testFindByIdSetsValidators() {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(tipoProdutoService.findVersionById(TIPO_PRODUTO_ID)).thenReturn(RESOURCE_VERSION);
+        when(tipoProdutoService.findById(TIPO_PRODUTO_ID)).thenReturn(TIPO_PRODUTO_DTO);
+
+        tipoProdutoController.findById(TIPO_PRODUTO_ID, new ServletWebRequest(new MockHttpServletRequest("GET", "/"), servletResponse));
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNotNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindByIdNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(tipoProdutoService.findVersionById(TIPO_PRODUTO_ID)).thenReturn(RESOURCE_VERSION);
+
+        assertNull(tipoProdutoController.findById(TIPO_PRODUTO_ID, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(tipoProdutoService, never()).findById(TIPO_PRODUTO_ID);
+    }
+
+    @Test
+    void testFindAllNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(tipoProdutoService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+
+        assertNull(tipoProdutoController.findAll(new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(tipoProdutoService, never()).findAll();
+    }
+
+    @Test
+    void testFindAllIgnoresIfModifiedSince() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, RESOURCE_VERSION.getLastModified().toEpochMilli());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(tipoProdutoService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(tipoProdutoService.findAll()).thenReturn(Collections.emptyList());
+
+        assertEquals(200, tipoProdutoController.findAll(new ServletWebRequest(servletRequest, servletResponse)).getStatusCodeValue());
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(servletResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindAllModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2\"");
+        when(tipoProdutoService.findCollectionVersion()).thenReturn(RESOURCE_VERSION);
+        when(tipoProdutoService.findAll()).thenReturn(Collections.singletonList(TIPO_PRODUTO_DTO));
+
+        assertEquals(200, tipoProdutoController.findAll(new ServletWebRequest(servletRequest)).getStatusCodeValue());
+    }
+
     @Test
     void testCreateTipoProdutoSuccess() {
         when(tipoProdutoService.create(any(TipoProdutoDTO.class))).thenReturn(TIPO_PRODUTO_DTO);
@@ -70,12 +140,18 @@ class TipoProdutoControllerTest {
     void testUpdateTipoProdutoSuccess() {
         TIPO_PRODUTO_DTO.setUuid(TIPO_PRODUTO_ID);
 
-        doNothing().when(tipoProdutoService).update(eq(TIPO_PRODUTO_ID), any(TipoProdutoDTO.class));
+        doNothing().when(tipoProdutoService).update(eq(TIPO_PRODUTO_ID), any(TipoProdutoDTO.class), isNull());
 
-        ResponseEntity<Void> response = tipoProdutoController.update(TIPO_PRODUTO_ID, TIPO_PRODUTO_DTO);
+        ResponseEntity<Void> response = tipoProdutoController.update(TIPO_PRODUTO_ID, TIPO_PRODUTO_DTO, null);
         assertEquals(200, response.getStatusCodeValue());
     }
 
+    @Test
+    void testUpdateForwardsIfMatch() {
+        tipoProdutoController.update(TIPO_PRODUTO_ID, TIPO_PRODUTO_DTO, "\"3\"");
+        verify(tipoProdutoService).update(TIPO_PRODUTO_ID, TIPO_PRODUTO_DTO, "\"3\"");
+    }
+
     @Test
     void testDeleteTipoProdutoSuccess() {
         doNothing().when(tipoProdutoService).delete(TIPO_PRODUTO_ID);
@@ -1,5 +1,6 @@
 package br.com.controleestoque.controller;
 
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
 import br.com.controleestoque.model.dto.UserDTO;
 import br.com.controleestoque.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,7 +8,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Collections;
 import java.util.List;
@@ -16,7 +21,10 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserControllerTest {
@@ -39,14 +47,27 @@ class UserControllerTest {
     void testFindByIdSuccess() {
         USER_DTO.setUuid(USER_ID);
 
+        when(userService.findVersionById(USER_ID)).thenReturn(new ResourceVersionDTO("3.1"));
         when(userService.findById(USER_ID)).thenReturn(USER_DTO);
 
-        ResponseEntity<UserDTO> response = userController.findById(USER_ID);
+        ResponseEntity<UserDTO> response = userController.findById(USER_ID, new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals(USER_ID, response.getBody().getUuid());
     }
 
+    @Test
+    void testFindByIdNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3.1\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(userService.findVersionById(USER_ID)).thenReturn(new ResourceVersionDTO("3.1"));
+
+        assertNull(userController.findById(USER_ID, new ServletWebRequest(servletRequest, servletResponse)));
+        assertEquals(304, servletResponse.getStatus());
+        verify(userService, never()).findById(USER_ID);
+    }
+
     @Test
     void testFindAllSuccess() {
         when(userService.findAll()).thenReturn(Collections.singletonList(USER_DTO));
@@ -70,12 +91,18 @@ class UserControllerTest {
     void testUpdateUserSuccess() {
         USER_DTO.setUuid(USER_ID);
 
-        doNothing().when(userService).update(eq(USER_ID), any(UserDTO.class));
+        doNothing().when(userService).update(eq(USER_ID), any(UserDTO.class), isNull());
 
-        ResponseEntity<Void> response = userController.update(USER_ID, USER_DTO);
+        ResponseEntity<Void> response = userController.update(USER_ID, USER_DTO, null);
         assertEquals(200, response.getStatusCodeValue());
     }
 
+    @Test
+    void testUpdateForwardsIfMatch() {
+        userController.update(USER_ID, USER_DTO, "\"3\"");
+        verify(userService).update(USER_ID, USER_DTO, "\"3\"");
+    }
+
     @Test
     void testDeleteUserSuccess() {
         doNothing().when(userService).delete(USER_ID);
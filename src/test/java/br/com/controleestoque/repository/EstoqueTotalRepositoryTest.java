@@ -0,0 +1,155 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+import br.com.controleestoque.model.entity.EstoqueTotal;
+import br.com.controleestoque.model.entity.Pessoa;
+import br.com.controleestoque.model.entity.ProdutoEstoque;
+import br.com.controleestoque.model.entity.TipoProduto;
+import br.com.controleestoque.service.EstoqueTotalDelta;
+import br.com.controleestoque.service.impl.EstoqueTotalServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmbeddedPostgresConfig.class, EstoqueTotalServiceImpl.class})
+class EstoqueTotalRepositoryTest {
+
+    private static final LocalDate DATA_ENTREGA = LocalDate.of(2024, 5, 1);
+
+    @Autowired
+    private EstoqueTotalServiceImpl estoqueTotalService;
+
+    @Autowired
+    private EstoqueTotalRepository estoqueTotalRepository;
+
+    @Autowired
+    private ProdutoEstoqueRepository produtoEstoqueRepository;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private TipoProdutoRepository tipoProdutoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testDeltasKeepTotalsConsistentWithProdutoEstoque() {
+        TipoProduto tipoProduto = tipoProdutoRepository.save(TipoProduto.builder().nome("Arroz").build());
+        Pessoa pessoa = pessoaRepository.save(Pessoa.builder().nome("Rafael").sobrenome("Gabriel").build());
+        ProdutoEstoque primeiro = saveProduto(tipoProduto, pessoa, 4);
+        saveProduto(tipoProduto, pessoa, 6);
+
+        estoqueTotalService.applyDeltas(List.of(
+                delta(tipoProduto, pessoa, 4, 1),
+                delta(tipoProduto, pessoa, 6, 1)));
+
+        assertTotal(tipoProduto, 10L, 2L);
+        assertTrue(estoqueTotalService.checkConsistency().getConsistent());
+
+        produtoEstoqueRepository.delete(primeiro);
+        estoqueTotalService.applyDeltas(List.of(delta(tipoProduto, pessoa, -4, -1)));
+
+        assertTotal(tipoProduto, 6L, 1L);
+        assertTrue(estoqueTotalService.checkConsistency().getConsistent());
+    }
+
+    @Test
+    void testEmptyDailyTotalsArePruned() {
+        TipoProduto tipoProduto = tipoProdutoRepository.save(TipoProduto.builder().nome("Feijão").build());
+        Pessoa pessoa = pessoaRepository.save(Pessoa.builder().nome("Ana").sobrenome("Souza").build());
+        ProdutoEstoque produtoEstoque = saveProduto(tipoProduto, pessoa, 3);
+        estoqueTotalService.applyDeltas(List.of(delta(tipoProduto, pessoa, 3, 1)));
+
+        produtoEstoqueRepository.delete(produtoEstoque);
+        estoqueTotalService.applyDeltas(List.of(delta(tipoProduto, pessoa, -3, -1)));
+
+        Number dailyRows = (Number) entityManager.createNativeQuery(
+                        "SELECT count(*) FROM tab_estoque_total_diario WHERE tipo_produto_id = :tipoProdutoId")
+                .setParameter("tipoProdutoId", tipoProduto.getUuid())
+                .getSingleResult();
+        assertEquals(0, dailyRows.intValue());
+        assertTrue(estoqueTotalService.checkConsistency().getConsistent());
+    }
+
+    @Test
+    void testRebuildRepairsDivergentTotals() {
+        TipoProduto tipoProduto = tipoProdutoRepository.save(TipoProduto.builder().nome("Milho").build());
+        Pessoa pessoa = pessoaRepository.save(Pessoa.builder().nome("Bia").sobrenome("Lima").build());
+        saveProduto(tipoProduto, pessoa, 8);
+        // A write that bypassed the service leaves the totals behind
+        estoqueTotalService.applyDeltas(List.of(delta(tipoProduto, pessoa, 1, 1)));
+
+        assertFalse(estoqueTotalService.checkConsistency().getConsistent());
+        assertTrue(estoqueTotalService.rebuild().getConsistent());
+        assertTotal(tipoProduto, 8L, 1L);
+    }
+
+    @Test
+    void testReadsDailyAndPessoaTotals() {
+        TipoProduto tipoProduto = tipoProdutoRepository.save(TipoProduto.builder().nome("Trigo").build());
+        Pessoa pessoa = pessoaRepository.save(Pessoa.builder().nome("Caio").sobrenome("Reis").build());
+        Pessoa outraPessoa = pessoaRepository.save(Pessoa.builder().nome("Duda").sobrenome("Melo").build());
+        LocalDate diaSeguinte = DATA_ENTREGA.plusDays(1);
+        estoqueTotalService.applyDeltas(List.of(
+                delta(tipoProduto, pessoa, 4, 1),
+                new EstoqueTotalDelta(tipoProduto.getUuid(), pessoa.getUuid(), diaSeguinte, 5, 2),
+                delta(tipoProduto, outraPessoa, 7, 1)));
+        entityManager.clear();
+
+        List<EstoqueTotalPessoaDTO> pessoaTotals = estoqueTotalRepository.findPessoaTotals(
+                tipoProduto.getUuid(), DATA_ENTREGA, diaSeguinte);
+        assertEquals(2, pessoaTotals.size());
+        EstoqueTotalPessoaDTO pessoaTotal = pessoaTotals.stream()
+                .filter(total -> total.getPessoaId().equals(pessoa.getUuid()))
+                .findFirst().orElseThrow();
+        assertEquals(9L, pessoaTotal.getTotalPacotes());
+        assertEquals(3L, pessoaTotal.getTotalEntregas());
+
+        List<EstoqueTotalDiarioDTO> dailyTotals = estoqueTotalRepository.findDailyTotals(
+                tipoProduto.getUuid(), DATA_ENTREGA, DATA_ENTREGA);
+        assertEquals(2, dailyTotals.size());
+
+        List<EstoqueTotalDiarioDTO> pessoaDailyTotals = estoqueTotalRepository.findDailyTotalsByPessoa(
+                tipoProduto.getUuid(), pessoa.getUuid(), DATA_ENTREGA, diaSeguinte);
+        assertEquals(List.of(DATA_ENTREGA, diaSeguinte),
+                pessoaDailyTotals.stream().map(EstoqueTotalDiarioDTO::getDataEntrega).toList());
+        assertEquals(5L, pessoaDailyTotals.get(1).getTotalPacotes());
+    }
+
+    private ProdutoEstoque saveProduto(TipoProduto tipoProduto, Pessoa pessoa, int quantidadePacote) {
+        ProdutoEstoque produtoEstoque = produtoEstoqueRepository.save(ProdutoEstoque.builder()
+                .marca("Marca")
+                .quantidadePacote(quantidadePacote)
+                .dataEntrega(DATA_ENTREGA)
+                .tamanhoPacote("1kg")
+                .tipoProduto(tipoProduto)
+                .pessoa(pessoa)
+                .build());
+        entityManager.flush();
+        return produtoEstoque;
+    }
+
+    private EstoqueTotalDelta delta(TipoProduto tipoProduto, Pessoa pessoa, long pacotes, long entregas) {
+        return new EstoqueTotalDelta(tipoProduto.getUuid(), pessoa.getUuid(), DATA_ENTREGA, pacotes, entregas);
+    }
+
+    private void assertTotal(TipoProduto tipoProduto, long totalPacotes, long totalEntregas) {
+        entityManager.clear();
+        EstoqueTotal estoqueTotal = estoqueTotalRepository.findById(tipoProduto.getUuid()).orElseThrow();
+        assertEquals(totalPacotes, estoqueTotal.getTotalPacotes());
+        assertEquals(totalEntregas, estoqueTotal.getTotalEntregas());
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
+import br.com.controleestoque.shared.constant.ChangeOperation;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Visibility depends on commits, so this test manages its own transactions instead of rolling back
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProdutoEstoqueChangeRepositoryTest {
+
+    private static final LocalDate DATA_ENTREGA = LocalDate.of(2024, 5, 1);
+
+    private final UUID primeiroId = UUID.randomUUID();
+    private final UUID segundoId = UUID.randomUUID();
+
+    @Autowired
+    private ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createNativeQuery("DELETE FROM tab_produto_estoque_change WHERE produto_estoque_id IN (:ids)")
+                .setParameter("ids", List.of(primeiroId, segundoId))
+                .executeUpdate());
+    }
+
+    @Test
+    void testChangesBecomeVisibleOnlyAfterCommitInOrder() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<ProdutoEstoqueChange> insideTransaction = transactionTemplate.execute(status -> {
+            UUID tipoProdutoId = UUID.randomUUID();
+            UUID pessoaId = UUID.randomUUID();
+            produtoEstoqueChangeRepository.insertChanges(ChangeOperation.CREATED.name(),
+                    new UUID[]{primeiroId, segundoId}, new String[]{"Melitta", "Pilão"}, new Integer[]{2, 3},
+                    new LocalDate[]{DATA_ENTREGA, DATA_ENTREGA}, new String[]{"500g", "1kg"},
+                    new UUID[]{tipoProdutoId, tipoProdutoId}, new UUID[]{pessoaId, pessoaId});
+            return ownChanges();
+        });
+        assertTrue(insideTransaction.isEmpty());
+
+        transactionTemplate.executeWithoutResult(status -> produtoEstoqueChangeRepository.insertChanges(
+                ChangeOperation.DELETED.name(), new UUID[]{primeiroId}, new String[1], new Integer[1],
+                new LocalDate[1], new String[1], new UUID[1], new UUID[1]));
+
+        List<ProdutoEstoqueChange> changes = transactionTemplate.execute(status -> ownChanges());
+        assertEquals(3, changes.size());
+        assertEquals(primeiroId, changes.get(0).getProdutoEstoqueId());
+        assertEquals("Melitta", changes.get(0).getMarca());
+        assertEquals(DATA_ENTREGA, changes.get(0).getDataEntrega());
+        assertEquals(segundoId, changes.get(1).getProdutoEstoqueId());
+        assertEquals(ChangeOperation.DELETED, changes.get(2).getOperation());
+        assertNull(changes.get(2).getMarca());
+        assertTrue(changes.get(2).getTxId() > changes.get(1).getTxId());
+
+        ProdutoEstoqueChange first = changes.get(0);
+        List<ProdutoEstoqueChange> afterFirst = transactionTemplate.execute(status -> produtoEstoqueChangeRepository
+                .findChangesAfter(first.getTxId(), first.getSeq(), Integer.MAX_VALUE).stream()
+                .filter(change -> Set.of(primeiroId, segundoId).contains(change.getProdutoEstoqueId()))
+                .toList());
+        assertEquals(changes.subList(1, 3).stream().map(ProdutoEstoqueChange::getSeq).toList(),
+                afterFirst.stream().map(ProdutoEstoqueChange::getSeq).toList());
+        assertEquals(changes.get(2).getSeq(), transactionTemplate.execute(status ->
+                produtoEstoqueChangeRepository.findLastServableChange()).orElseThrow().getSeq());
+    }
+
+    private List<ProdutoEstoqueChange> ownChanges() {
+        return produtoEstoqueChangeRepository.findChangesAfter(0L, 0L, Integer.MAX_VALUE).stream()
+                .filter(change -> Set.of(primeiroId, segundoId).contains(change.getProdutoEstoqueId()))
+                .toList();
+    }
+}
@@ -0,0 +1,282 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePessoaSummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueRowDTO;
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
+import br.com.controleestoque.model.entity.Pessoa;
+import br.com.controleestoque.model.entity.ProdutoEstoque;
+import br.com.controleestoque.model.entity.TipoProduto;
+import br.com.controleestoque.repository.specification.ProdutoEstoqueSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+class ProdutoEstoqueRepositoryTest {
+
+    private static final LocalDate DATA_ENTREGA = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private ProdutoEstoqueRepository produtoEstoqueRepository;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private TipoProdutoRepository tipoProdutoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFindFirstPageUsesSingleQueryRegardlessOfPageSize() {
+        insertProdutos(20);
+
+        assertEquals(1, countStatements(() -> touchRelations(produtoEstoqueRepository.findFirstPage(PageRequest.of(0, 5)))));
+        assertEquals(1, countStatements(() -> touchRelations(produtoEstoqueRepository.findFirstPage(PageRequest.of(0, 20)))));
+    }
+
+    @Test
+    void testFindPageAfterUsesSingleQuery() {
+        List<ProdutoEstoque> produtos = insertProdutos(10);
+        ProdutoEstoque first = produtos.get(0);
+
+        long statements = countStatements(() -> {
+            List<ProdutoEstoque> page = produtoEstoqueRepository.findPageAfter(first.getDataEntrega(), first.getUuid(), PageRequest.of(0, 10));
+            assertEquals(9, page.size());
+            touchRelations(page);
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testFindAllUsesSingleQuery() {
+        insertProdutos(15);
+
+        assertEquals(1, countStatements(() -> touchRelations(produtoEstoqueRepository.findAll())));
+    }
+
+    @Test
+    void testFindWithRelationsByUuidUsesSingleQuery() {
+        UUID uuid = insertProdutos(1).get(0).getUuid();
+
+        long statements = countStatements(() -> {
+            ProdutoEstoque produtoEstoque = produtoEstoqueRepository.findWithRelationsByUuid(uuid).orElseThrow();
+            touchRelations(List.of(produtoEstoque));
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testStreamAllRowsNeverLoadsRelatedEntities() {
+        insertProdutos(12);
+
+        long statements = countStatements(() -> {
+            try (Stream<ProdutoEstoqueRowDTO> rows = produtoEstoqueRepository.streamAllRows()) {
+                List<ProdutoEstoqueRowDTO> rowList = rows.toList();
+                assertEquals(12, rowList.size());
+                assertNotNull(rowList.get(0).getPessoaNome());
+                assertNotNull(rowList.get(0).getTipoProdutoNome());
+            }
+        });
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testSearchFiltersByMarcaPrefixIgnoringCase() {
+        insertProdutos(12);
+
+        Page<ProdutoEstoque> page = produtoEstoqueRepository.findAll(
+                ProdutoEstoqueSpecification.fromFilter(ProdutoEstoqueFilterDTO.builder().marca("marca1").build()),
+                PageRequest.of(0, 10, Sort.by("marca")));
+
+        assertEquals(List.of("Marca1", "Marca10", "Marca11"), page.getContent().stream().map(ProdutoEstoque::getMarca).toList());
+    }
+
+    @Test
+    void testSearchTreatsLikeWildcardsLiterally() {
+        insertProdutos(3);
+
+        Page<ProdutoEstoque> page = produtoEstoqueRepository.findAll(
+                ProdutoEstoqueSpecification.fromFilter(ProdutoEstoqueFilterDTO.builder().marca("%").build()),
+                PageRequest.of(0, 10));
+
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void testSearchCombinesFiltersInSingleQuery() {
+        List<ProdutoEstoque> produtos = insertProdutos(10);
+        ProdutoEstoque target = produtos.get(4);
+        ProdutoEstoqueFilterDTO filter = ProdutoEstoqueFilterDTO.builder()
+                .dataEntregaInicio(DATA_ENTREGA.plusDays(2))
+                .dataEntregaFim(DATA_ENTREGA.plusDays(6))
+                .pessoaId(target.getPessoa().getUuid())
+                .tipoProdutoId(target.getTipoProduto().getUuid())
+                .build();
+
+        long statements = countStatements(() -> {
+            Page<ProdutoEstoque> page = produtoEstoqueRepository.findAll(
+                    ProdutoEstoqueSpecification.fromFilter(filter), PageRequest.of(0, 10));
+            assertEquals(List.of(target.getUuid()), page.getContent().stream().map(ProdutoEstoque::getUuid).toList());
+            touchRelations(page.getContent());
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testSummarizeByTipoProdutoAndMonthAggregatesInDatabase() {
+        // 40 daily deliveries starting 2024-01-01: 31 in January, 9 in February
+        insertProdutos(40);
+
+        List<ProdutoEstoqueMonthlySummaryDTO> summary = produtoEstoqueRepository.summarizeByTipoProdutoAndMonth(
+                DATA_ENTREGA, DATA_ENTREGA.plusYears(1));
+
+        assertEquals(2, summary.size());
+        assertEquals(2024, summary.get(0).getAno());
+        assertEquals(1, summary.get(0).getMes());
+        assertEquals(31L, summary.get(0).getTotalEntregas());
+        assertEquals(496L, summary.get(0).getTotalPacotes());
+        assertEquals(2, summary.get(1).getMes());
+        assertEquals(9L, summary.get(1).getTotalEntregas());
+        assertEquals(324L, summary.get(1).getTotalPacotes());
+        assertEquals("Café", summary.get(1).getTipoProdutoNome());
+    }
+
+    @Test
+    void testSummarizeByPessoaRespectsRangeAndLoadsNoEntities() {
+        insertProdutos(10);
+
+        long statements = countStatements(() -> {
+            List<ProdutoEstoquePessoaSummaryDTO> summary = produtoEstoqueRepository.summarizeByPessoa(
+                    DATA_ENTREGA.plusDays(3), DATA_ENTREGA.plusDays(5));
+            assertEquals(3, summary.size());
+            summary.forEach(pessoaSummary -> assertEquals(1L, pessoaSummary.getTotalEntregas()));
+            assertEquals(DATA_ENTREGA.plusDays(3), summary.stream()
+                    .filter(pessoaSummary -> "Nome3".equals(pessoaSummary.getPessoaNome()))
+                    .findFirst().orElseThrow().getUltimaEntrega());
+        });
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testSearchIndexesArePresent() {
+        List<?> indexes = entityManager.createNativeQuery(
+                        "SELECT indexname FROM pg_indexes WHERE tablename = 'tab_produto_estoque' ORDER BY indexname")
+                .getResultList();
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_produto_estoque_lower_marca",
+                "idx_produto_estoque_pessoa_data_entrega",
+                "idx_produto_estoque_tipo_data_entrega")));
+    }
+
+    @Test
+    void testFindVersionByIdFollowsEmbeddedRelations() {
+        ProdutoEstoque produto = insertProdutos(1).get(0);
+        ResourceVersionDTO before = produtoEstoqueRepository.findVersionById(produto.getUuid()).orElseThrow();
+
+        Pessoa pessoa = pessoaRepository.findById(produto.getPessoa().getUuid()).orElseThrow();
+        pessoa.setNome("Renomeado");
+        pessoaRepository.saveAndFlush(pessoa);
+        entityManager.clear();
+
+        ResourceVersionDTO after = produtoEstoqueRepository.findVersionById(produto.getUuid()).orElseThrow();
+        assertEquals("0.0.0", before.getVersion());
+        assertEquals("0.0.1", after.getVersion());
+        assertFalse(after.getLastModified().isBefore(before.getLastModified()));
+        assertTrue(produtoEstoqueRepository.findVersionById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void testFindCollectionVersionChangesOnInsertAndDeleteWithoutLoadingRows() {
+        List<ProdutoEstoque> produtos = insertProdutos(3);
+        statistics.clear();
+        ResourceVersionDTO before = produtoEstoqueRepository.findCollectionVersion();
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        produtoEstoqueRepository.deleteById(produtos.get(0).getUuid());
+        entityManager.flush();
+        ResourceVersionDTO afterDelete = produtoEstoqueRepository.findCollectionVersion();
+        assertNotEquals(before.getVersion(), afterDelete.getVersion());
+
+        insertProdutos(1);
+        ResourceVersionDTO afterInsert = produtoEstoqueRepository.findCollectionVersion();
+        assertNotEquals(afterDelete.getVersion(), afterInsert.getVersion());
+        assertTrue(afterInsert.getLastModified().isAfter(before.getLastModified()));
+    }
+
+    private List<ProdutoEstoque> insertProdutos(int quantity) {
+        TipoProduto tipoProduto = tipoProdutoRepository.save(TipoProduto.builder().nome("Café").build());
+        List<ProdutoEstoque> produtos = new ArrayList<>();
+        for (int i = 0; i < quantity; i++) {
+            // A distinct Pessoa per row is what made the EAGER mapping issue one select per row
+            Pessoa pessoa = pessoaRepository.save(Pessoa.builder().nome("Nome" + i).sobrenome("Sobrenome" + i).build());
+            produtos.add(produtoEstoqueRepository.save(ProdutoEstoque.builder()
+                    .marca("Marca" + i)
+                    .quantidadePacote(i + 1)
+                    .dataEntrega(DATA_ENTREGA.plusDays(i))
+                    .tamanhoPacote("500g")
+                    .tipoProduto(tipoProduto)
+                    .pessoa(pessoa)
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return produtos;
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void touchRelations(List<ProdutoEstoque> produtos) {
+        produtos.forEach(produto -> {
+            assertNotNull(produto.getPessoa().getNome());
+            assertNotNull(produto.getTipoProduto().getNome());
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.controleestoque.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+class RefreshTokenFamilyRepositoryTest {
+
+    @Autowired
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    @Test
+    void testRotateOnlyFromCurrentJti() {
+        Instant now = Instant.now();
+        String familyId = UUID.randomUUID().toString();
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        refreshTokenFamilyRepository.insert(familyId, first, now.plusSeconds(3600));
+
+        assertEquals(1, refreshTokenFamilyRepository.rotate(familyId, first, second, now.plusSeconds(7200), now));
+        assertEquals(0, refreshTokenFamilyRepository.rotate(familyId, first, UUID.randomUUID().toString(), now.plusSeconds(7200), now));
+        assertEquals(0, refreshTokenFamilyRepository.rotate(UUID.randomUUID().toString(), second, first, now.plusSeconds(7200), now));
+        assertTrue(refreshTokenFamilyRepository.existsActive(familyId, now));
+        assertEquals(second, refreshTokenFamilyRepository.findById(familyId).orElseThrow().getCurrentJti());
+
+        refreshTokenFamilyRepository.deleteByFamilyId(familyId);
+        assertFalse(refreshTokenFamilyRepository.existsActive(familyId, now));
+    }
+
+    @Test
+    void testExpiredFamilyIsNotRotatedAndIsDeleted() {
+        Instant now = Instant.now();
+        String familyId = UUID.randomUUID().toString();
+        String current = UUID.randomUUID().toString();
+        refreshTokenFamilyRepository.insert(familyId, current, now.minusSeconds(1));
+
+        assertEquals(0, refreshTokenFamilyRepository.rotate(familyId, current, UUID.randomUUID().toString(), now.plusSeconds(3600), now));
+        assertFalse(refreshTokenFamilyRepository.existsActive(familyId, now));
+        assertTrue(refreshTokenFamilyRepository.deleteExpired(now) >= 1);
+        assertFalse(refreshTokenFamilyRepository.existsById(familyId));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.entity.RevokedToken;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+class RevokedTokenRepositoryTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testInsertFindAndDeleteExpired() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        String activeId = UUID.randomUUID().toString();
+        String expiredId = UUID.randomUUID().toString();
+
+        revokedTokenRepository.insertIfAbsent(activeId, now.plusSeconds(3600));
+        revokedTokenRepository.insertIfAbsent(activeId, now.plusSeconds(7200));
+        revokedTokenRepository.insertIfAbsent(expiredId, now.minusSeconds(1));
+        entityManager.clear();
+
+        List<RevokedToken> active = revokedTokenRepository.findActiveRevokedSince(Instant.EPOCH, now).stream()
+                .filter(revokedToken -> List.of(activeId, expiredId).contains(revokedToken.getTokenId()))
+                .toList();
+        assertEquals(1, active.size());
+        assertEquals(activeId, active.get(0).getTokenId());
+        assertEquals(now.plusSeconds(3600), active.get(0).getExpiresAt());
+        assertNotNull(active.get(0).getRevokedAt());
+
+        assertTrue(revokedTokenRepository.deleteExpired(now) >= 1);
+        assertFalse(revokedTokenRepository.existsById(expiredId));
+        assertTrue(revokedTokenRepository.existsById(activeId));
+    }
+}
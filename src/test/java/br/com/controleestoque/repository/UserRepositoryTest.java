@@ -0,0 +1,90 @@
+package br.com.controleestoque.repository;
+
+import br.com.controleestoque.model.dto.ResourceVersionDTO;
+import br.com.controleestoque.model.entity.Permission;
+import br.com.controleestoque.model.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testFindVersionByIdFollowsPermissionChanges() {
+        Permission permission = permissionRepository.save(Permission.builder().description("AUDITOR").build());
+        User user = userRepository.save(createUser(List.of(permission)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals("0.0", userRepository.findVersionById(user.getUuid()).orElseThrow().getVersion());
+
+        Permission renamed = permissionRepository.findById(permission.getUuid()).orElseThrow();
+        renamed.setDescription("AUDITORIA");
+        permissionRepository.saveAndFlush(renamed);
+        entityManager.clear();
+
+        ResourceVersionDTO after = userRepository.findVersionById(user.getUuid()).orElseThrow();
+        assertEquals("0.1", after.getVersion());
+        assertTrue(userRepository.findVersionById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void testFindVersionByIdWithoutPermissions() {
+        User user = userRepository.saveAndFlush(createUser(List.of()));
+
+        assertEquals("0.0", userRepository.findVersionById(user.getUuid()).orElseThrow().getVersion());
+        assertEquals("0", permissionRepository.findVersionById(
+                permissionRepository.saveAndFlush(Permission.builder().description("LEITOR").build()).getUuid())
+                .orElseThrow().getVersion());
+    }
+
+    @Test
+    void testStaleWriteIsRejected() {
+        User user = userRepository.saveAndFlush(createUser(List.of()));
+        entityManager.clear();
+
+        User stale = userRepository.findById(user.getUuid()).orElseThrow();
+        entityManager.detach(stale);
+
+        User current = userRepository.findById(user.getUuid()).orElseThrow();
+        current.setFullName("Escritor Concorrente");
+        userRepository.saveAndFlush(current);
+
+        stale.setFullName("Escritor Atrasado");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userRepository.saveAndFlush(stale));
+    }
+
+    private User createUser(List<Permission> permissions) {
+        return User.builder()
+                .username("user" + UUID.randomUUID().toString().substring(0, 8))
+                .fullName("Usuário de Teste")
+                .password("secret")
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enable(true)
+                .permissions(permissions)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.controleestoque.security;
+
+import br.com.controleestoque.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class KnownUsernamesTest {
+
+    private static final String USERNAME = "rafal325";
+    private static final String OTHER_USERNAME = "rafael.gabriel";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private KnownUsernames knownUsernames;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        knownUsernames = new KnownUsernames(userRepository, 0);
+    }
+
+    @Test
+    void testEverythingMightExistUntilLoaded() {
+        assertTrue(knownUsernames.mightExist(USERNAME));
+
+        when(userRepository.findAllUsernames()).thenThrow(new IllegalStateException("database down"));
+        knownUsernames.rebuild();
+
+        assertTrue(knownUsernames.mightExist(OTHER_USERNAME));
+    }
+
+    @Test
+    void testRebuildLoadsUsernames() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of(USERNAME));
+
+        knownUsernames.start();
+
+        assertTrue(knownUsernames.mightExist(USERNAME));
+        assertFalse(knownUsernames.mightExist(OTHER_USERNAME));
+        assertFalse(knownUsernames.mightExist(null));
+        assertEquals(1, knownUsernames.size());
+    }
+
+    @Test
+    void testAddAndRemove() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of(USERNAME));
+        knownUsernames.rebuild();
+
+        knownUsernames.add(OTHER_USERNAME);
+        knownUsernames.remove(USERNAME);
+
+        assertTrue(knownUsernames.mightExist(OTHER_USERNAME));
+        assertFalse(knownUsernames.mightExist(USERNAME));
+    }
+
+    @Test
+    void testUsernameAddedDuringRebuildIsKept() {
+        when(userRepository.findAllUsernames()).thenAnswer(invocation -> {
+            knownUsernames.add(OTHER_USERNAME);
+            return List.of(USERNAME);
+        });
+
+        knownUsernames.rebuild();
+
+        assertTrue(knownUsernames.mightExist(USERNAME));
+        assertTrue(knownUsernames.mightExist(OTHER_USERNAME));
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.controleestoque.security;
+
+import br.com.controleestoque.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingExecutorTest {
+
+    private static final String PASSWORD = "rafael123";
+    private static final String ENCODED_PASSWORD = "encodedPassword";
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private MeterRegistry meterRegistry;
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingExecutor = new PasswordHashingExecutor(passwordEncoder, meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void testMatchesAndEncodeRunOnExecutor() {
+        when(passwordEncoder.matches(PASSWORD, ENCODED_PASSWORD)).thenAnswer(invocation ->
+                Thread.currentThread().getName().startsWith("password-hashing-"));
+        when(passwordEncoder.encode(PASSWORD)).thenAnswer(invocation ->
+                Thread.currentThread().getName().startsWith("password-hashing-") ? ENCODED_PASSWORD : null);
+
+        assertTrue(passwordHashingExecutor.matches(PASSWORD, ENCODED_PASSWORD));
+        assertEquals(ENCODED_PASSWORD, passwordHashingExecutor.encode(PASSWORD));
+        assertNotNull(meterRegistry.find("executor.completed").tag("name", "password.hashing").functionCounter());
+    }
+
+    @Test
+    void testIsEncodedRecognizesBCryptHashOnly() {
+        String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(passwordHashingExecutor.isEncoded(hash));
+        assertFalse(passwordHashingExecutor.isEncoded(PASSWORD));
+        assertFalse(passwordHashingExecutor.isEncoded(hash.substring(1)));
+        assertFalse(passwordHashingExecutor.isEncoded(null));
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void testMatchesNothingVerifiesAgainstDummyHash() {
+        when(passwordEncoder.encode(anyString())).thenReturn(ENCODED_PASSWORD);
+
+        passwordHashingExecutor.matchesNothing(PASSWORD);
+        passwordHashingExecutor.matchesNothing(PASSWORD);
+
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, times(2)).matches(PASSWORD, ENCODED_PASSWORD);
+    }
+
+    @Test
+    void testEncoderExceptionIsRethrown() {
+        when(passwordEncoder.encode(PASSWORD)).thenThrow(new IllegalArgumentException("invalid"));
+
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingExecutor.encode(PASSWORD));
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(PASSWORD, ENCODED_PASSWORD)).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() ->
+                passwordHashingExecutor.matches(PASSWORD, ENCODED_PASSWORD));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() ->
+                passwordHashingExecutor.matches(PASSWORD, ENCODED_PASSWORD));
+        while (passwordHashingExecutor.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> passwordHashingExecutor.matches(PASSWORD, ENCODED_PASSWORD));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("operation", "matches").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
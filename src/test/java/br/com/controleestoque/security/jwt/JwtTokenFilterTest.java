@@ -0,0 +1,97 @@
+package br.com.controleestoque.security.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JwtTokenFilterTest {
+
+    private static final String TOKEN = "token";
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private DecodedJWT decodedJWT;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @InjectMocks
+    private JwtTokenFilter jwtTokenFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilterVerifiesTokenOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Authentication authentication = new UsernamePasswordAuthenticationToken("rafal325", "", List.of());
+
+        when(jwtTokenProvider.resolveToken(request)).thenReturn(TOKEN);
+        when(jwtTokenProvider.verifyToken(TOKEN)).thenReturn(decodedJWT);
+        when(jwtTokenProvider.validateToken(decodedJWT)).thenReturn(true);
+        when(jwtTokenProvider.getAuthentication(decodedJWT)).thenReturn(authentication);
+
+        jwtTokenFilter.doFilter(request, response, filterChain);
+
+        verify(jwtTokenProvider, times(1)).verifyToken(TOKEN);
+        verify(jwtTokenProvider, never()).getAuthentication(any(String.class));
+        verify(filterChain).doFilter(request, response);
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDoFilterIgnoresRefreshToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(jwtTokenProvider.resolveToken(request)).thenReturn(TOKEN);
+        when(jwtTokenProvider.verifyToken(TOKEN)).thenReturn(decodedJWT);
+        when(jwtTokenProvider.isRefreshToken(decodedJWT)).thenReturn(true);
+
+        jwtTokenFilter.doFilter(request, response, filterChain);
+
+        verify(jwtTokenProvider, never()).getAuthentication(any(DecodedJWT.class));
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDoFilterWithoutToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(jwtTokenProvider.resolveToken(request)).thenReturn(null);
+
+        jwtTokenFilter.doFilter(request, response, filterChain);
+
+        verify(jwtTokenProvider, never()).verifyToken(any());
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,312 @@
+package br.com.controleestoque.security.jwt;
+
+import br.com.controleestoque.model.entity.Permission;
+import br.com.controleestoque.model.entity.User;
+import br.com.controleestoque.repository.RefreshTokenFamilyRepository;
+import br.com.controleestoque.repository.RevokedTokenRepository;
+import br.com.controleestoque.repository.UserRepository;
+import br.com.controleestoque.security.TokenDTO;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+
+    private static final String USERNAME = "rafal325";
+    private static final String ROLE = "ADMIN";
+    private static final String ISSUER = "http://localhost:8080";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    // Stands in for tab_refresh_token_family: family id -> current jti
+    private final Map<String, String> storedFamilies = new ConcurrentHashMap<>();
+    private PrincipalCache principalCache;
+    private TokenRevocationList tokenRevocationList;
+    private RefreshTokenFamilies refreshTokenFamilies;
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        stubRefreshTokenFamilyRepository();
+        principalCache = new PrincipalCache(60, 100);
+        tokenRevocationList = new TokenRevocationList(revokedTokenRepository, 60000, 0);
+        refreshTokenFamilies = new RefreshTokenFamilies(refreshTokenFamilyRepository, 0);
+        jwtTokenProvider = createProvider(tokenRevocationList);
+    }
+
+    @Test
+    void testGetAuthenticationLoadsUserOncePerToken() {
+        when(userRepository.findByUsername(USERNAME)).thenReturn(createUserEntity());
+        String token = createToken(Instant.now());
+
+        Authentication first = jwtTokenProvider.getAuthentication(token);
+        Authentication second = jwtTokenProvider.getAuthentication(token);
+
+        assertEquals(USERNAME, first.getName());
+        assertSame(first.getPrincipal(), second.getPrincipal());
+        verify(userRepository, times(1)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void testGetAuthenticationReloadsAfterInvalidate() {
+        when(userRepository.findByUsername(USERNAME)).thenReturn(createUserEntity());
+        String token = createToken(Instant.now());
+
+        jwtTokenProvider.getAuthentication(token);
+        principalCache.invalidate(USERNAME);
+        jwtTokenProvider.getAuthentication(token);
+
+        verify(userRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void testGetAuthenticationCachesPerIssuedAt() {
+        when(userRepository.findByUsername(USERNAME)).thenReturn(createUserEntity());
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        jwtTokenProvider.getAuthentication(createToken(issuedAt));
+        jwtTokenProvider.getAuthentication(createToken(issuedAt.minusSeconds(10)));
+
+        verify(userRepository, times(2)).findByUsername(USERNAME);
+        assertEquals(2, principalCache.size());
+    }
+
+    @Test
+    void testGetAuthenticationReturnsNullForUnknownUser() {
+        when(userRepository.findByUsername(USERNAME)).thenReturn(null);
+
+        assertNull(jwtTokenProvider.getAuthentication(createToken(Instant.now())));
+    }
+
+    @Test
+    void testGetAuthenticationStatelessUsesRolesClaim() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessAuthentication", true);
+
+        Authentication authentication = jwtTokenProvider.getAuthentication(createToken(Instant.now()));
+
+        assertEquals(USERNAME, authentication.getName());
+        assertEquals(List.of(ROLE), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testVerifyTokenReusesVerifiedToken() {
+        String token = createToken(Instant.now());
+
+        DecodedJWT first = jwtTokenProvider.verifyToken(token);
+        DecodedJWT second = jwtTokenProvider.verifyToken(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testVerifyTokenRejectsTamperedPayloadWithCachedSignature() {
+        String token = createToken(Instant.now());
+        jwtTokenProvider.verifyToken(token);
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"intruder\",\"roles\":[\"ADMIN\"]}".getBytes());
+
+        String forgedToken = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(SignatureVerificationException.class, () -> jwtTokenProvider.verifyToken(forgedToken));
+    }
+
+    @Test
+    void testVerifyTokenRejectsExpiredToken() {
+        Instant issuedAt = Instant.now().minusSeconds(7200);
+        String token = JWT.create()
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(issuedAt.plusSeconds(60))
+                .withSubject(USERNAME)
+                .sign(jwtTokenProvider.algorithm);
+
+        assertThrows(TokenExpiredException.class, () -> jwtTokenProvider.verifyToken(token));
+    }
+
+    @Test
+    void testCreateAccessTokenUsesConfiguredIssuer() {
+        TokenDTO token = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+
+        DecodedJWT accessToken = jwtTokenProvider.verifyToken(token.getAccessToken());
+        DecodedJWT refreshToken = jwtTokenProvider.verifyToken(token.getRefreshToken());
+        assertEquals(ISSUER, accessToken.getIssuer());
+        assertEquals(List.of(ROLE), accessToken.getClaim("roles").asList(String.class));
+        assertFalse(jwtTokenProvider.isRefreshToken(accessToken));
+        assertTrue(jwtTokenProvider.isRefreshToken(refreshToken));
+        assertEquals(accessToken.getClaim("fid").asString(), refreshToken.getClaim("fid").asString());
+    }
+
+    @Test
+    void testCreateRefreshTokenRotatesWithinFamily() {
+        TokenDTO first = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+
+        TokenDTO second = jwtTokenProvider.createRefreshToken(USERNAME, "Bearer " + first.getRefreshToken());
+        TokenDTO third = jwtTokenProvider.createRefreshToken(USERNAME, second.getRefreshToken());
+
+        DecodedJWT firstRefresh = jwtTokenProvider.verifyToken(first.getRefreshToken());
+        DecodedJWT thirdRefresh = jwtTokenProvider.verifyToken(third.getRefreshToken());
+        assertEquals(firstRefresh.getClaim("fid").asString(), thirdRefresh.getClaim("fid").asString());
+        assertNotEquals(firstRefresh.getId(), thirdRefresh.getId());
+        assertEquals(List.of(ROLE), jwtTokenProvider.verifyToken(third.getAccessToken()).getClaim("roles").asList(String.class));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testCreateRefreshTokenReuseRevokesFamily() {
+        TokenDTO first = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+        TokenDTO second = jwtTokenProvider.createRefreshToken(USERNAME, first.getRefreshToken());
+
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken(USERNAME, first.getRefreshToken()));
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken(USERNAME, second.getRefreshToken()));
+        assertFalse(jwtTokenProvider.validateToken(second.getAccessToken()));
+        assertFalse(jwtTokenProvider.validateToken(first.getAccessToken()));
+    }
+
+    @Test
+    void testCreateRefreshTokenRotatesAcrossInstances() {
+        JwtTokenProvider otherInstance = createProvider(new TokenRevocationList(revokedTokenRepository, 60000, 0));
+        TokenDTO first = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+
+        TokenDTO second = otherInstance.createRefreshToken(USERNAME, first.getRefreshToken());
+        TokenDTO third = jwtTokenProvider.createRefreshToken(USERNAME, second.getRefreshToken());
+
+        assertTrue(jwtTokenProvider.validateToken(third.getAccessToken()));
+        verify(revokedTokenRepository, never()).insertIfAbsent(anyString(), any());
+        assertThrows(BadCredentialsException.class, () -> otherInstance.createRefreshToken(USERNAME, second.getRefreshToken()));
+        verify(revokedTokenRepository).insertIfAbsent(eq(jwtTokenProvider.verifyToken(first.getRefreshToken())
+                .getClaim("fid").asString()), any(Instant.class));
+    }
+
+    @Test
+    void testCreateRefreshTokenRejectsUnknownFamilyWithoutRevoking() {
+        TokenDTO token = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+        storedFamilies.clear();
+
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken(USERNAME, token.getRefreshToken()));
+        verify(revokedTokenRepository, never()).insertIfAbsent(anyString(), any());
+        assertTrue(jwtTokenProvider.validateToken(token.getAccessToken()));
+    }
+
+    @Test
+    void testCreateRefreshTokenRejectsAccessTokenAndOtherUsername() {
+        TokenDTO token = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken(USERNAME, token.getAccessToken()));
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken("intruder", token.getRefreshToken()));
+        assertNotNull(jwtTokenProvider.createRefreshToken(USERNAME, token.getRefreshToken()));
+    }
+
+    @Test
+    void testRevokeTokenRejectsAccessAndRefreshTokens() {
+        TokenDTO token = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+        DecodedJWT accessToken = jwtTokenProvider.verifyToken(token.getAccessToken());
+        assertTrue(jwtTokenProvider.validateToken(accessToken));
+
+        jwtTokenProvider.revokeToken("Bearer " + token.getAccessToken());
+
+        assertFalse(jwtTokenProvider.validateToken(accessToken));
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken(USERNAME, token.getRefreshToken()));
+        verify(revokedTokenRepository).insertIfAbsent(eq(accessToken.getId()), eq(accessToken.getExpiresAtAsInstant()));
+        verify(revokedTokenRepository).insertIfAbsent(eq(accessToken.getClaim("fid").asString()), any(Instant.class));
+    }
+
+    @Test
+    void testValidateTokenRejectsRevokedTokenId() {
+        TokenDTO token = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+        TokenDTO other = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+        DecodedJWT accessToken = jwtTokenProvider.verifyToken(token.getAccessToken());
+
+        tokenRevocationList.revoke(accessToken.getId(), accessToken.getExpiresAtAsInstant());
+
+        assertFalse(jwtTokenProvider.validateToken(accessToken));
+        assertTrue(jwtTokenProvider.validateToken(other.getAccessToken()));
+    }
+
+    @Test
+    void testValidateTokenRejectsEveryTokenWhileRevocationsCannotBeLoaded() {
+        TokenDTO token = jwtTokenProvider.createAccessToken(USERNAME, List.of(createPermission()));
+        when(revokedTokenRepository.findActiveRevokedSince(any(), any())).thenThrow(new IllegalStateException("database down"));
+
+        assertFalse(jwtTokenProvider.validateToken(token.getAccessToken()));
+        assertThrows(BadCredentialsException.class, () -> jwtTokenProvider.createRefreshToken(USERNAME, token.getRefreshToken()));
+    }
+
+    private JwtTokenProvider createProvider(TokenRevocationList revocationList) {
+        JwtTokenProvider provider = new JwtTokenProvider(userRepository, principalCache, revocationList, refreshTokenFamilies);
+        ReflectionTestUtils.setField(provider, "secretKey", "secret");
+        ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3600000L);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(provider, "configuredIssuer", ISSUER);
+        provider.init();
+        return provider;
+    }
+
+    private void stubRefreshTokenFamilyRepository() {
+        doAnswer(invocation -> storedFamilies.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(refreshTokenFamilyRepository).insert(anyString(), anyString(), any());
+        when(refreshTokenFamilyRepository.rotate(anyString(), anyString(), anyString(), any(), any())).thenAnswer(invocation ->
+                storedFamilies.replace(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)) ? 1 : 0);
+        when(refreshTokenFamilyRepository.existsActive(anyString(), any()))
+                .thenAnswer(invocation -> storedFamilies.containsKey(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> storedFamilies.remove(invocation.<String>getArgument(0)))
+                .when(refreshTokenFamilyRepository).deleteByFamilyId(anyString());
+    }
+
+    private String createToken(Instant issuedAt) {
+        return JWT.create()
+                .withClaim("roles", List.of(ROLE))
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(issuedAt.plusSeconds(3600))
+                .withSubject(USERNAME)
+                .sign(jwtTokenProvider.algorithm);
+    }
+
+    private Permission createPermission() {
+        Permission permission = new Permission();
+        permission.setDescription(ROLE);
+        return permission;
+    }
+
+    private User createUserEntity() {
+        Permission permission = createPermission();
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .username(USERNAME)
+                .password("password")
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enable(true)
+                .permissions(List.of(permission))
+                .build();
+    }
+}
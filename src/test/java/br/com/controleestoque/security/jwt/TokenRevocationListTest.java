@@ -0,0 +1,147 @@
+package br.com.controleestoque.security.jwt;
+
+import br.com.controleestoque.model.entity.RevokedToken;
+import br.com.controleestoque.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private static final long BUCKET_MILLIS = 60000;
+    private static final String TOKEN_ID = "2b0f5c1e-6a8e-4a53-9d6c-1f1d3d6f8a10";
+    private static final String OTHER_TOKEN_ID = "9e3c7a52-04b1-4f0e-8c55-6b8f1a2d7e41";
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenRevocationList = new TokenRevocationList(revokedTokenRepository, BUCKET_MILLIS, 0);
+    }
+
+    @Test
+    void testIsRevokedLoadsPersistedTokensOnce() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(revokedTokenRepository.findActiveRevokedSince(eq(Instant.EPOCH), any(Instant.class)))
+                .thenReturn(List.of(createRevokedToken(TOKEN_ID, expiresAt)));
+
+        assertTrue(tokenRevocationList.isRevoked(TOKEN_ID));
+        assertFalse(tokenRevocationList.isRevoked(OTHER_TOKEN_ID));
+        assertFalse(tokenRevocationList.isRevoked(null));
+        verify(revokedTokenRepository, times(1)).findActiveRevokedSince(any(), any());
+    }
+
+    @Test
+    void testConcurrentFirstRequestsWaitForSingleLoad() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(revokedTokenRepository.findActiveRevokedSince(eq(Instant.EPOCH), any(Instant.class))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(createRevokedToken(TOKEN_ID, expiresAt));
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> first = executor.submit(() -> tokenRevocationList.isRevoked(TOKEN_ID));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Boolean> second = executor.submit(() -> tokenRevocationList.isRevoked(TOKEN_ID));
+            release.countDown();
+
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+        }
+        verify(revokedTokenRepository, times(1)).findActiveRevokedSince(any(), any());
+    }
+
+    @Test
+    void testFailedLoadRejectsEveryTokenUntilRetrySucceeds() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(revokedTokenRepository.findActiveRevokedSince(eq(Instant.EPOCH), any(Instant.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(createRevokedToken(TOKEN_ID, expiresAt)));
+
+        assertTrue(tokenRevocationList.isRevoked(TOKEN_ID));
+        assertTrue(tokenRevocationList.isRevoked(OTHER_TOKEN_ID));
+        verify(revokedTokenRepository, times(1)).findActiveRevokedSince(any(), any());
+
+        ReflectionTestUtils.setField(tokenRevocationList, "loadRetryAtMillis", 0L);
+
+        assertTrue(tokenRevocationList.isRevoked(TOKEN_ID));
+        assertFalse(tokenRevocationList.isRevoked(OTHER_TOKEN_ID));
+        verify(revokedTokenRepository, times(2)).findActiveRevokedSince(any(), any());
+    }
+
+    @Test
+    void testRevokePersistsAndSkipsExpiredTokens() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        tokenRevocationList.revoke(TOKEN_ID, expiresAt);
+        tokenRevocationList.revoke(OTHER_TOKEN_ID, Instant.now().minusSeconds(1));
+
+        assertTrue(tokenRevocationList.isRevoked(TOKEN_ID));
+        assertFalse(tokenRevocationList.isRevoked(OTHER_TOKEN_ID));
+        verify(revokedTokenRepository).insertIfAbsent(TOKEN_ID, expiresAt);
+        verify(revokedTokenRepository, never()).insertIfAbsent(eq(OTHER_TOKEN_ID), any());
+    }
+
+    @Test
+    void testSweepDropsOnlyExpiredBuckets() {
+        long now = System.currentTimeMillis();
+        tokenRevocationList.revoke(TOKEN_ID, Instant.ofEpochMilli(now + 1000));
+        tokenRevocationList.revoke(OTHER_TOKEN_ID, Instant.ofEpochMilli(now + 3 * BUCKET_MILLIS));
+
+        tokenRevocationList.sweep(now + BUCKET_MILLIS);
+        assertEquals(1, tokenRevocationList.size());
+        assertFalse(tokenRevocationList.isRevoked(TOKEN_ID));
+        assertTrue(tokenRevocationList.isRevoked(OTHER_TOKEN_ID));
+
+        tokenRevocationList.sweep(now + 4 * BUCKET_MILLIS);
+        assertEquals(0, tokenRevocationList.size());
+    }
+
+    @Test
+    void testRefreshPicksUpTokensRevokedElsewhere() {
+        Instant revokedAt = Instant.now();
+        when(revokedTokenRepository.findActiveRevokedSince(eq(Instant.EPOCH), any(Instant.class)))
+                .thenReturn(List.of(createRevokedToken(TOKEN_ID, revokedAt.plusSeconds(3600), revokedAt)));
+        tokenRevocationList.isRevoked(TOKEN_ID);
+        when(revokedTokenRepository.findActiveRevokedSince(eq(revokedAt.minusSeconds(60)), any(Instant.class)))
+                .thenReturn(List.of(createRevokedToken(OTHER_TOKEN_ID, revokedAt.plusSeconds(3600), revokedAt.plusSeconds(5))));
+
+        tokenRevocationList.refresh();
+
+        assertTrue(tokenRevocationList.isRevoked(OTHER_TOKEN_ID));
+        verify(revokedTokenRepository).deleteExpired(any(Instant.class));
+    }
+
+    private RevokedToken createRevokedToken(String tokenId, Instant expiresAt) {
+        return createRevokedToken(tokenId, expiresAt, Instant.now());
+    }
+
+    private RevokedToken createRevokedToken(String tokenId, Instant expiresAt, Instant revokedAt) {
+        return RevokedToken.builder()
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .revokedAt(revokedAt)
+                .build();
+    }
+}
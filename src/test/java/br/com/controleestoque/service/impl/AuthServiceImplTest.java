@@ -4,6 +4,8 @@ import br.com.controleestoque.model.entity.Permission;
 import br.com.controleestoque.model.entity.User;
 import br.com.controleestoque.repository.UserRepository;
 import br.com.controleestoque.security.AccountCredentialsDTO;
+import br.com.controleestoque.security.KnownUsernames;
+import br.com.controleestoque.security.PasswordHashingExecutor;
 import br.com.controleestoque.security.TokenDTO;
 import br.com.controleestoque.security.jwt.JwtTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,14 +15,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class AuthServiceImplTest {
 
@@ -39,7 +40,10 @@ class AuthServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private KnownUsernames knownUsernames;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -47,6 +51,7 @@ class AuthServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(knownUsernames.mightExist(USERNAME)).thenReturn(true);
     }
 
     @Test
@@ -55,7 +60,7 @@ class AuthServiceImplTest {
         AccountCredentialsDTO accountCredentialsDTO = new AccountCredentialsDTO(USERNAME, PASSWORD);
 
         when(userRepository.findByUsername(USERNAME)).thenReturn(userEntity);
-        when(passwordEncoder.matches(PASSWORD, userEntity.getPassword())).thenReturn(true);
+        when(passwordHashingExecutor.matches(PASSWORD, userEntity.getPassword())).thenReturn(true);
         when(jwtTokenProvider.createAccessToken(USERNAME, userEntity.getPermissions())).thenReturn(createTokenDTO());
 
         TokenDTO result = authService.signIn(accountCredentialsDTO);
@@ -71,30 +76,53 @@ class AuthServiceImplTest {
         AccountCredentialsDTO accountCredentialsDTO = new AccountCredentialsDTO(USERNAME, PASSWORD);
 
         when(userRepository.findByUsername(USERNAME)).thenReturn(userEntity);
-        when(passwordEncoder.matches(PASSWORD, userEntity.getPassword())).thenReturn(false);
+        when(passwordHashingExecutor.matches(PASSWORD, userEntity.getPassword())).thenReturn(false);
 
         assertThrows(BadCredentialsException.class, () -> authService.signIn(accountCredentialsDTO));
     }
 
     @Test
-    void testRefreshTokenValidUser() {
-        User userEntity = createUserEntity();
+    void testSignInUnknownUsernameSkipsDatabase() {
+        AccountCredentialsDTO accountCredentialsDTO = new AccountCredentialsDTO(NON_EXISTENT_USERNAME, PASSWORD);
 
-        when(userRepository.findByUsername(USERNAME)).thenReturn(userEntity);
-        when(jwtTokenProvider.createRefreshToken(VALID_REFRESH_TOKEN)).thenReturn(createTokenDTO());
+        assertThrows(UsernameNotFoundException.class, () -> authService.signIn(accountCredentialsDTO));
+        verify(userRepository, never()).findByUsername(any());
+        verify(passwordHashingExecutor).matchesNothing(PASSWORD);
+    }
+
+    @Test
+    void testSignInMissingUserStillVerifiesPassword() {
+        AccountCredentialsDTO accountCredentialsDTO = new AccountCredentialsDTO(USERNAME, PASSWORD);
+
+        when(userRepository.findByUsername(USERNAME)).thenReturn(null);
+
+        assertThrows(UsernameNotFoundException.class, () -> authService.signIn(accountCredentialsDTO));
+        verify(passwordHashingExecutor).matchesNothing(PASSWORD);
+    }
+
+    @Test
+    void testRefreshTokenValidUser() {
+        when(jwtTokenProvider.createRefreshToken(USERNAME, VALID_REFRESH_TOKEN)).thenReturn(createTokenDTO());
 
         TokenDTO result = authService.refreshToken(USERNAME, VALID_REFRESH_TOKEN);
 
         assertNotNull(result);
         assertEquals(ACCESS_TOKEN, result.getAccessToken());
         assertEquals(REFRESH_TOKEN, result.getRefreshToken());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void testRefreshTokenInvalidUser() {
-        when(userRepository.findByUsername(NON_EXISTENT_USERNAME)).thenReturn(null);
-
         assertThrows(UsernameNotFoundException.class, () -> authService.refreshToken(NON_EXISTENT_USERNAME, VALID_REFRESH_TOKEN));
+        verify(jwtTokenProvider, never()).createRefreshToken(any(), any());
+    }
+
+    @Test
+    void testSignOutRevokesToken() {
+        authService.signOut(ACCESS_TOKEN);
+
+        verify(jwtTokenProvider).revokeToken(ACCESS_TOKEN);
     }
 
     private User createUserEntity() {
@@ -0,0 +1,182 @@
+package br.com.controleestoque.service.impl;
+
+import br.com.controleestoque.exception.InvalidRequestException;
+import br.com.controleestoque.model.dto.EstoqueTotalConsistencyDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalDiarioDTO;
+import br.com.controleestoque.model.dto.EstoqueTotalPessoaDTO;
+import br.com.controleestoque.model.entity.EstoqueTotal;
+import br.com.controleestoque.repository.EstoqueTotalRepository;
+import br.com.controleestoque.service.EstoqueTotalDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class EstoqueTotalServiceImplTest {
+
+    private static final UUID TIPO_PRODUTO_ID = UUID.randomUUID();
+    private static final UUID OUTRO_TIPO_PRODUTO_ID = UUID.randomUUID();
+    private static final UUID PESSOA_ID = UUID.randomUUID();
+    private static final LocalDate DATA_ENTREGA = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private EstoqueTotalRepository estoqueTotalRepository;
+
+    @InjectMocks
+    private EstoqueTotalServiceImpl estoqueTotalServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testFindByTipoProdutoSuccess() {
+        when(estoqueTotalRepository.findById(TIPO_PRODUTO_ID))
+                .thenReturn(Optional.of(new EstoqueTotal(TIPO_PRODUTO_ID, 40L, 4L)));
+
+        EstoqueTotalDTO result = estoqueTotalServiceImpl.findByTipoProduto(TIPO_PRODUTO_ID);
+
+        assertEquals(40L, result.getTotalPacotes());
+        assertEquals(4L, result.getTotalEntregas());
+    }
+
+    @Test
+    void testFindByTipoProdutoWithoutStockReturnsZero() {
+        when(estoqueTotalRepository.findById(TIPO_PRODUTO_ID)).thenReturn(Optional.empty());
+
+        EstoqueTotalDTO result = estoqueTotalServiceImpl.findByTipoProduto(TIPO_PRODUTO_ID);
+
+        assertEquals(TIPO_PRODUTO_ID, result.getTipoProdutoId());
+        assertEquals(0L, result.getTotalPacotes());
+        assertEquals(0L, result.getTotalEntregas());
+    }
+
+    @Test
+    void testFindPessoaTotalsWithoutRangeReadsAllDays() {
+        EstoqueTotalPessoaDTO pessoaTotal = new EstoqueTotalPessoaDTO(TIPO_PRODUTO_ID, PESSOA_ID, 12L, 3L);
+        when(estoqueTotalRepository.findPessoaTotals(TIPO_PRODUTO_ID, LocalDate.of(1900, 1, 1), LocalDate.of(9999, 12, 31)))
+                .thenReturn(List.of(pessoaTotal));
+
+        List<EstoqueTotalPessoaDTO> result = estoqueTotalServiceImpl.findPessoaTotals(TIPO_PRODUTO_ID, null, null);
+
+        assertEquals(List.of(pessoaTotal), result);
+    }
+
+    @Test
+    void testFindDailyTotalsFiltersByPessoaWhenGiven() {
+        EstoqueTotalDiarioDTO dailyTotal = new EstoqueTotalDiarioDTO(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 4L, 1L);
+        when(estoqueTotalRepository.findDailyTotalsByPessoa(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, DATA_ENTREGA))
+                .thenReturn(List.of(dailyTotal));
+
+        List<EstoqueTotalDiarioDTO> result = estoqueTotalServiceImpl.findDailyTotals(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, DATA_ENTREGA);
+
+        assertEquals(List.of(dailyTotal), result);
+        verify(estoqueTotalRepository, never()).findDailyTotals(any(), any(), any());
+    }
+
+    @Test
+    void testFindDailyTotalsRejectsInvertedRange() {
+        assertThrows(InvalidRequestException.class,
+                () -> estoqueTotalServiceImpl.findDailyTotals(TIPO_PRODUTO_ID, null, DATA_ENTREGA.plusDays(1), DATA_ENTREGA));
+        verifyNoInteractions(estoqueTotalRepository);
+    }
+
+    @Test
+    void testApplyDeltasMergesSameKeyIntoOneUpsert() {
+        // An update that only changes quantidadePacote nets out to a pure package delta
+        estoqueTotalServiceImpl.applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -2, -1),
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 7, 1)));
+
+        verify(estoqueTotalRepository).addToDailyTotal(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 5, 0);
+        verify(estoqueTotalRepository).addToTipoProdutoTotal(TIPO_PRODUTO_ID, 5, 0);
+        verify(estoqueTotalRepository, never()).deleteEmptyDailyTotal(any(), any(), any());
+    }
+
+    @Test
+    void testApplyDeltasMovesTotalsBetweenKeys() {
+        estoqueTotalServiceImpl.applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -3, -1),
+                new EstoqueTotalDelta(OUTRO_TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 3, 1)));
+
+        verify(estoqueTotalRepository).addToDailyTotal(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -3, -1);
+        verify(estoqueTotalRepository).deleteEmptyDailyTotal(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA);
+        verify(estoqueTotalRepository).addToDailyTotal(OUTRO_TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 3, 1);
+        verify(estoqueTotalRepository).addToTipoProdutoTotal(TIPO_PRODUTO_ID, -3, -1);
+        verify(estoqueTotalRepository).addToTipoProdutoTotal(OUTRO_TIPO_PRODUTO_ID, 3, 1);
+    }
+
+    @Test
+    void testApplyDeltasUpsertsInKeyOrderRegardlessOfRequestOrder() {
+        UUID primeiroTipoProdutoId = new UUID(0L, 1L);
+        UUID segundoTipoProdutoId = new UUID(0L, 2L);
+        UUID primeiraPessoaId = new UUID(0L, 3L);
+        UUID segundaPessoaId = new UUID(0L, 4L);
+        LocalDate diaSeguinte = DATA_ENTREGA.plusDays(1);
+        estoqueTotalServiceImpl.applyDeltas(List.of(
+                new EstoqueTotalDelta(segundoTipoProdutoId, primeiraPessoaId, DATA_ENTREGA, 1, 1),
+                new EstoqueTotalDelta(primeiroTipoProdutoId, segundaPessoaId, DATA_ENTREGA, 1, 1),
+                new EstoqueTotalDelta(primeiroTipoProdutoId, primeiraPessoaId, diaSeguinte, 1, 1),
+                new EstoqueTotalDelta(primeiroTipoProdutoId, primeiraPessoaId, DATA_ENTREGA, 1, 1)));
+
+        InOrder inOrder = inOrder(estoqueTotalRepository);
+        inOrder.verify(estoqueTotalRepository).addToDailyTotal(primeiroTipoProdutoId, primeiraPessoaId, DATA_ENTREGA, 1, 1);
+        inOrder.verify(estoqueTotalRepository).addToDailyTotal(primeiroTipoProdutoId, primeiraPessoaId, diaSeguinte, 1, 1);
+        inOrder.verify(estoqueTotalRepository).addToDailyTotal(primeiroTipoProdutoId, segundaPessoaId, DATA_ENTREGA, 1, 1);
+        inOrder.verify(estoqueTotalRepository).addToDailyTotal(segundoTipoProdutoId, primeiraPessoaId, DATA_ENTREGA, 1, 1);
+        inOrder.verify(estoqueTotalRepository).addToTipoProdutoTotal(primeiroTipoProdutoId, 3, 3);
+        inOrder.verify(estoqueTotalRepository).addToTipoProdutoTotal(segundoTipoProdutoId, 1, 1);
+    }
+
+    @Test
+    void testApplyDeltasSkipsNoOpChanges() {
+        estoqueTotalServiceImpl.applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -3, -1),
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, 3, 1)));
+
+        verify(estoqueTotalRepository, never()).addToDailyTotal(any(), any(), any(), anyLong(), anyLong());
+        verify(estoqueTotalRepository, never()).addToTipoProdutoTotal(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testRebuildLocksAndRecomputes() {
+        when(estoqueTotalRepository.countDivergentDailyTotals()).thenReturn(0L);
+        when(estoqueTotalRepository.countDivergentTipoProdutoTotals()).thenReturn(0L);
+
+        EstoqueTotalConsistencyDTO result = estoqueTotalServiceImpl.rebuild();
+
+        InOrder inOrder = inOrder(estoqueTotalRepository);
+        inOrder.verify(estoqueTotalRepository).lockProdutoEstoqueForRebuild();
+        inOrder.verify(estoqueTotalRepository).deleteAllDailyTotals();
+        inOrder.verify(estoqueTotalRepository).deleteAllTipoProdutoTotals();
+        inOrder.verify(estoqueTotalRepository).insertDailyTotalsFromProdutoEstoque();
+        inOrder.verify(estoqueTotalRepository).insertTipoProdutoTotalsFromProdutoEstoque();
+        assertTrue(result.getConsistent());
+    }
+
+    @Test
+    void testCheckConsistencyReportsDivergence() {
+        when(estoqueTotalRepository.countDivergentDailyTotals()).thenReturn(2L);
+        when(estoqueTotalRepository.countDivergentTipoProdutoTotals()).thenReturn(1L);
+
+        EstoqueTotalConsistencyDTO result = estoqueTotalServiceImpl.checkConsistency();
+
+        assertFalse(result.getConsistent());
+        assertEquals(2L, result.getDivergentDailyTotals());
+        assertEquals(1L, result.getDivergentTipoProdutoTotals());
+    }
+}
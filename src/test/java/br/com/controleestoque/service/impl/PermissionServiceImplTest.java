@@ -1,9 +1,12 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReferenceCacheEvictor;
+import br.com.controleestoque.config.ResponseBytesCache;
 import br.com.controleestoque.exception.PermissionException;
 import br.com.controleestoque.model.dto.PermissionDTO;
 import br.com.controleestoque.model.entity.Permission;
 import br.com.controleestoque.repository.PermissionRepository;
+import br.com.controleestoque.security.jwt.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -28,6 +31,15 @@ class PermissionServiceImplTest {
     @Mock
     private PermissionRepository permissionRepository;
 
+    @Mock
+    private ReferenceCacheEvictor referenceCacheEvictor;
+
+    @Mock
+    private ResponseBytesCache responseBytesCache;
+
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private PermissionServiceImpl permissionServiceImpl;
 
@@ -92,6 +104,7 @@ class PermissionServiceImplTest {
         assertNotNull(result);
         assertNotNull(result.getUuid());
         assertEquals(DESCRIPTION, result.getDescription());
+        verify(responseBytesCache).invalidate(ResponseBytesCache.Region.PERMISSION);
     }
 
     @Test
@@ -102,9 +115,10 @@ class PermissionServiceImplTest {
         when(permissionRepository.findById(PERMISSION_ID)).thenReturn(Optional.of(permissionEntity));
         when(permissionRepository.save(any(Permission.class))).thenReturn(permissionEntity);
 
-        permissionServiceImpl.update(PERMISSION_ID, permissionDTO);
+        permissionServiceImpl.update(PERMISSION_ID, permissionDTO, null);
 
         assertEquals(DESCRIPTION, permissionEntity.getDescription());
+        verify(responseBytesCache).invalidate(ResponseBytesCache.Region.PERMISSION);
     }
 
     @Test
@@ -113,7 +127,7 @@ class PermissionServiceImplTest {
 
         when(permissionRepository.findById(PERMISSION_ID)).thenReturn(Optional.empty());
 
-        assertThrows(PermissionException.class, () -> permissionServiceImpl.update(PERMISSION_ID, permissionDTO));
+        assertThrows(PermissionException.class, () -> permissionServiceImpl.update(PERMISSION_ID, permissionDTO, null));
     }
 
     @Test
@@ -125,6 +139,7 @@ class PermissionServiceImplTest {
         permissionServiceImpl.delete(PERMISSION_ID);
 
         verify(permissionRepository).delete(permissionEntity);
+        verify(responseBytesCache).invalidate(ResponseBytesCache.Region.PERMISSION);
     }
 
     @Test
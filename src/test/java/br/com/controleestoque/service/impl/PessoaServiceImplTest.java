@@ -1,6 +1,8 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReferenceCacheEvictor;
 import br.com.controleestoque.exception.PessoaException;
+import br.com.controleestoque.exception.PreconditionFailedException;
 import br.com.controleestoque.model.dto.PessoaDTO;
 import br.com.controleestoque.model.entity.Pessoa;
 import br.com.controleestoque.repository.PessoaRepository;
@@ -17,6 +19,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +32,9 @@ class PessoaServiceImplTest {
     @Mock
     private PessoaRepository pessoaRepository;
 
+    @Mock
+    private ReferenceCacheEvictor referenceCacheEvictor;
+
     @InjectMocks
     private PessoaServiceImpl pessoaServiceImpl;
 
@@ -58,6 +64,13 @@ class PessoaServiceImplTest {
         assertThrows(PessoaException.class, () -> pessoaServiceImpl.findById(PESSOA_ID));
     }
 
+    @Test
+    void testFindVersionByIdNotFound() {
+        when(pessoaRepository.findVersionById(PESSOA_ID)).thenReturn(Optional.empty());
+
+        assertThrows(PessoaException.class, () -> pessoaServiceImpl.findVersionById(PESSOA_ID));
+    }
+
     @Test
     void testFindAllSuccess() {
         Pessoa pessoaEntity = createPessoaEntity(PESSOA_ID);
@@ -106,20 +119,44 @@ class PessoaServiceImplTest {
 
         when(pessoaRepository.findById(PESSOA_ID)).thenReturn(Optional.of(pessoaEntity));
 
-        pessoaServiceImpl.update(PESSOA_ID, pessoaDTO);
+        pessoaServiceImpl.update(PESSOA_ID, pessoaDTO, null);
 
         verify(pessoaRepository).save(pessoaEntity);
         assertEquals(NOME, pessoaEntity.getNome());
         assertEquals(SOBRENOME, pessoaEntity.getSobrenome());
     }
 
+    @Test
+    void testUpdateWithMatchingIfMatch() {
+        Pessoa pessoaEntity = createPessoaEntity(PESSOA_ID);
+        pessoaEntity.setVersion(3L);
+
+        when(pessoaRepository.findById(PESSOA_ID)).thenReturn(Optional.of(pessoaEntity));
+
+        pessoaServiceImpl.update(PESSOA_ID, createPessoaDTO(PESSOA_ID), "\"2\", \"3\"");
+
+        verify(pessoaRepository).save(pessoaEntity);
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatch() {
+        Pessoa pessoaEntity = createPessoaEntity(PESSOA_ID);
+        pessoaEntity.setVersion(3L);
+
+        when(pessoaRepository.findById(PESSOA_ID)).thenReturn(Optional.of(pessoaEntity));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> pessoaServiceImpl.update(PESSOA_ID, createPessoaDTO(PESSOA_ID), "\"2\""));
+        verify(pessoaRepository, never()).save(any());
+    }
+
     @Test
     void testUpdateNotFound() {
         PessoaDTO pessoaDTO = createPessoaDTO(PESSOA_ID);
 
         when(pessoaRepository.findById(PESSOA_ID)).thenReturn(Optional.empty());
 
-        assertThrows(PessoaException.class, () -> pessoaServiceImpl.update(PESSOA_ID, pessoaDTO));
+        assertThrows(PessoaException.class, () -> pessoaServiceImpl.update(PESSOA_ID, pessoaDTO, null));
     }
 
     @Test
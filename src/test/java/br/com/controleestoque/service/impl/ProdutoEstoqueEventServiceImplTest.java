@@ -0,0 +1,169 @@
+package br.com.controleestoque.service.impl;
+
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangeDTO;
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
+import br.com.controleestoque.repository.ProdutoEstoqueChangeRepository;
+import br.com.controleestoque.shared.constant.ChangeOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProdutoEstoqueEventServiceImplTest {
+
+    private static final UUID TIPO_PRODUTO_ID = UUID.randomUUID();
+    private static final UUID PESSOA_ID = UUID.randomUUID();
+
+    private final List<Runnable> pendingSends = new ArrayList<>();
+    private final ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository = mock(ProdutoEstoqueChangeRepository.class);
+
+    @Test
+    void testFanOutAppliesFilters() {
+        ProdutoEstoqueEventServiceImpl service = createService(10, Runnable::run);
+        RecordingEmitter all = (RecordingEmitter) service.subscribe(null, null);
+        RecordingEmitter porTipo = (RecordingEmitter) service.subscribe(TIPO_PRODUTO_ID, null);
+        RecordingEmitter porOutraPessoa = (RecordingEmitter) service.subscribe(null, UUID.randomUUID());
+
+        service.dispatch(List.of(
+                createChange(TIPO_PRODUTO_ID, ChangeOperation.CREATED),
+                createChange(UUID.randomUUID(), ChangeOperation.DELETED)));
+
+        assertEquals(2, all.sent);
+        assertEquals(1, porTipo.sent);
+        assertEquals(0, porOutraPessoa.sent);
+        assertEquals(3, service.countSubscribers());
+    }
+
+    @Test
+    void testFanOutDoesNotWaitForSubscribers() {
+        ProdutoEstoqueEventServiceImpl service = createService(10, pendingSends::add);
+        RecordingEmitter emitter = (RecordingEmitter) service.subscribe(null, null);
+
+        service.dispatch(List.of(createChange(TIPO_PRODUTO_ID, ChangeOperation.CREATED)));
+        service.dispatch(List.of(createChange(TIPO_PRODUTO_ID, ChangeOperation.UPDATED)));
+
+        assertEquals(0, emitter.sent);
+        assertEquals(1, pendingSends.size());
+        pendingSends.get(0).run();
+        assertEquals(2, emitter.sent);
+    }
+
+    @Test
+    void testSlowSubscriberIsDropped() {
+        ProdutoEstoqueEventServiceImpl service = createService(2, pendingSends::add);
+        RecordingEmitter lento = (RecordingEmitter) service.subscribe(null, null);
+
+        service.dispatch(List.of(
+                createChange(TIPO_PRODUTO_ID, ChangeOperation.CREATED),
+                createChange(TIPO_PRODUTO_ID, ChangeOperation.UPDATED),
+                createChange(TIPO_PRODUTO_ID, ChangeOperation.DELETED)));
+
+        assertTrue(lento.completed);
+        assertEquals(0, service.countSubscribers());
+    }
+
+    @Test
+    void testDisconnectedSubscriberIsRemoved() {
+        ProdutoEstoqueEventServiceImpl service = createService(10, Runnable::run);
+        RecordingEmitter desconectado = (RecordingEmitter) service.subscribe(null, null);
+        desconectado.failing = true;
+
+        service.dispatch(List.of(createChange(TIPO_PRODUTO_ID, ChangeOperation.CREATED)));
+
+        assertEquals(0, service.countSubscribers());
+    }
+
+    @Test
+    void testPollStartsAtEndOfFeedAndPushesNewChanges() {
+        ProdutoEstoqueEventServiceImpl service = createService(10, Runnable::run);
+        RecordingEmitter porTipo = (RecordingEmitter) service.subscribe(TIPO_PRODUTO_ID, null);
+        when(produtoEstoqueChangeRepository.findLastServableChange())
+                .thenReturn(Optional.of(createChangeEntity(7, 40, UUID.randomUUID())));
+        when(produtoEstoqueChangeRepository.findChangesAfter(7, 40, 500))
+                .thenReturn(List.of(createChangeEntity(8, 41, TIPO_PRODUTO_ID), createChangeEntity(9, 42, UUID.randomUUID())));
+
+        service.poll();
+        assertEquals(0, porTipo.sent);
+        verify(produtoEstoqueChangeRepository, never()).findChangesAfter(anyLong(), anyLong(), anyInt());
+
+        service.poll();
+        assertEquals(1, porTipo.sent);
+
+        service.poll();
+        verify(produtoEstoqueChangeRepository).findChangesAfter(9, 42, 500);
+        assertEquals(1, porTipo.sent);
+    }
+
+    @Test
+    void testPollKeepsPositionWhenDatabaseFails() {
+        ProdutoEstoqueEventServiceImpl service = createService(10, Runnable::run);
+        RecordingEmitter all = (RecordingEmitter) service.subscribe(null, null);
+        when(produtoEstoqueChangeRepository.findLastServableChange()).thenReturn(Optional.empty());
+        when(produtoEstoqueChangeRepository.findChangesAfter(0, 0, 500))
+                .thenThrow(new IllegalStateException("Connection refused"))
+                .thenReturn(List.of(createChangeEntity(3, 5, TIPO_PRODUTO_ID)));
+
+        service.poll();
+        service.poll();
+        service.poll();
+
+        assertEquals(1, all.sent);
+        assertEquals(1, service.countSubscribers());
+    }
+
+    private ProdutoEstoqueEventServiceImpl createService(int bufferSize, Executor executor) {
+        return new ProdutoEstoqueEventServiceImpl(produtoEstoqueChangeRepository, bufferSize, 1000L, 0L, executor) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private ProdutoEstoqueChangeDTO createChange(UUID tipoProdutoId, ChangeOperation operation) {
+        return ProdutoEstoqueChangeDTO.builder()
+                .uuid(UUID.randomUUID())
+                .operation(operation)
+                .tipoProdutoId(tipoProdutoId)
+                .pessoaId(PESSOA_ID)
+                .build();
+    }
+
+    private ProdutoEstoqueChange createChangeEntity(long txId, long seq, UUID tipoProdutoId) {
+        return ProdutoEstoqueChange.builder()
+                .txId(txId)
+                .seq(seq)
+                .produtoEstoqueId(UUID.randomUUID())
+                .operation(ChangeOperation.UPDATED)
+                .tipoProdutoId(tipoProdutoId)
+                .pessoaId(PESSOA_ID)
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+        private boolean failing;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent++;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+}
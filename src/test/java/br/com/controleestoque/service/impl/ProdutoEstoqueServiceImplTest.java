@@ -1,27 +1,61 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.exception.InvalidRequestException;
+import br.com.controleestoque.exception.PreconditionFailedException;
 import br.com.controleestoque.exception.ProdutoEstoqueException;
+import br.com.controleestoque.model.dto.ProdutoEstoqueBatchResultDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueChangesDTO;
 import br.com.controleestoque.model.dto.ProdutoEstoqueDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueFilterDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueMonthlySummaryDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoquePageDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueRowDTO;
+import br.com.controleestoque.model.dto.ProdutoEstoqueSearchResultDTO;
 import br.com.controleestoque.model.entity.Pessoa;
 import br.com.controleestoque.model.entity.ProdutoEstoque;
+import br.com.controleestoque.model.entity.ProdutoEstoqueChange;
 import br.com.controleestoque.model.entity.TipoProduto;
 import br.com.controleestoque.repository.PessoaRepository;
+import br.com.controleestoque.repository.ProdutoEstoqueChangeRepository;
 import br.com.controleestoque.repository.ProdutoEstoqueRepository;
 import br.com.controleestoque.repository.TipoProdutoRepository;
+import br.com.controleestoque.service.EstoqueTotalDelta;
+import br.com.controleestoque.service.EstoqueTotalService;
+import br.com.controleestoque.shared.constant.BatchItemStatus;
+import br.com.controleestoque.shared.constant.ChangeOperation;
+import br.com.controleestoque.shared.constant.ExportFormat;
+import br.com.controleestoque.util.ProdutoEstoqueChangeToken;
+import br.com.controleestoque.util.ProdutoEstoqueCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -44,6 +78,17 @@ class ProdutoEstoqueServiceImplTest {
     @Mock
     private TipoProdutoRepository tipoProdutoRepository;
 
+    @Mock
+    private EstoqueTotalService estoqueTotalService;
+
+    @Mock
+    private ProdutoEstoqueChangeRepository produtoEstoqueChangeRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     @InjectMocks
     private ProdutoEstoqueServiceImpl produtoEstoqueServiceImpl;
 
@@ -56,7 +101,7 @@ class ProdutoEstoqueServiceImplTest {
     void testFindByIdSuccess() {
         ProdutoEstoque produtoEstoqueEntity = createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID);
 
-        when(produtoEstoqueRepository.findById(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.of(produtoEstoqueEntity));
+        when(produtoEstoqueRepository.findWithRelationsByUuid(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.of(produtoEstoqueEntity));
 
         ProdutoEstoqueDTO result = produtoEstoqueServiceImpl.findById(PRODUTO_ESTOQUE_ID);
 
@@ -68,34 +113,227 @@ class ProdutoEstoqueServiceImplTest {
 
     @Test
     void testFindByIdNotFound() {
-        when(produtoEstoqueRepository.findById(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.empty());
+        when(produtoEstoqueRepository.findWithRelationsByUuid(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.empty());
 
         assertThrows(ProdutoEstoqueException.class, () -> produtoEstoqueServiceImpl.findById(PRODUTO_ESTOQUE_ID));
     }
 
+    @Test
+    void testFindVersionByIdNotFound() {
+        when(produtoEstoqueRepository.findVersionById(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.empty());
+
+        assertThrows(ProdutoEstoqueException.class, () -> produtoEstoqueServiceImpl.findVersionById(PRODUTO_ESTOQUE_ID));
+    }
+
     @Test
     void testFindAllSuccess() {
         List<ProdutoEstoque> produtoEstoqueList = Collections.singletonList(createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID));
 
-        when(produtoEstoqueRepository.findAll()).thenReturn(produtoEstoqueList);
+        when(produtoEstoqueRepository.findFirstPage(PageRequest.of(0, 501))).thenReturn(produtoEstoqueList);
 
-        List<ProdutoEstoqueDTO> result = produtoEstoqueServiceImpl.findAll();
+        ProdutoEstoquePageDTO result = produtoEstoqueServiceImpl.findAll();
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(PRODUTO_ESTOQUE_ID, result.get(0).getUuid());
-        assertEquals(MARCA, result.get(0).getMarca());
-        assertEquals(QUANTIDADE_PACOTE, result.get(0).getQuantidadePacote());
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.getHasNext());
+        assertEquals(PRODUTO_ESTOQUE_ID, result.getContent().get(0).getUuid());
+        assertEquals(MARCA, result.getContent().get(0).getMarca());
+        assertEquals(QUANTIDADE_PACOTE, result.getContent().get(0).getQuantidadePacote());
+        verify(produtoEstoqueRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindAllIsCappedAtMaxPageSize() {
+        List<ProdutoEstoque> produtoEstoqueList = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            produtoEstoqueList.add(createProdutoEstoqueEntity(UUID.randomUUID()));
+        }
+
+        when(produtoEstoqueRepository.findFirstPage(PageRequest.of(0, 501))).thenReturn(produtoEstoqueList);
+
+        ProdutoEstoquePageDTO result = produtoEstoqueServiceImpl.findAll();
+
+        assertEquals(500, result.getContent().size());
+        assertEquals(500, result.getSize());
+        assertTrue(result.getHasNext());
+        assertEquals(produtoEstoqueList.get(499).getUuid(), ProdutoEstoqueCursor.decode(result.getNextCursor()).uuid());
     }
 
     @Test
     void testFindAllEmptyList() {
-        when(produtoEstoqueRepository.findAll()).thenReturn(Collections.emptyList());
+        when(produtoEstoqueRepository.findFirstPage(any())).thenReturn(Collections.emptyList());
 
-        List<ProdutoEstoqueDTO> result = produtoEstoqueServiceImpl.findAll();
+        ProdutoEstoquePageDTO result = produtoEstoqueServiceImpl.findAll();
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.getHasNext());
+    }
+
+    @Test
+    void testFindPageFirstPageWithNext() {
+        UUID secondId = UUID.randomUUID();
+        List<ProdutoEstoque> produtoEstoqueList = Arrays.asList(
+                createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID),
+                createProdutoEstoqueEntity(secondId));
+
+        when(produtoEstoqueRepository.findFirstPage(any())).thenReturn(produtoEstoqueList);
+
+        ProdutoEstoquePageDTO result = produtoEstoqueServiceImpl.findPage(null, 1);
+
+        assertNotNull(result);
+        assertEquals(1, result.getSize());
+        assertTrue(result.getHasNext());
+        assertEquals(PRODUTO_ESTOQUE_ID, result.getContent().get(0).getUuid());
+        ProdutoEstoqueCursor nextCursor = ProdutoEstoqueCursor.decode(result.getNextCursor());
+        assertEquals(PRODUTO_ESTOQUE_ID, nextCursor.uuid());
+        assertEquals(DATA_ENTREGA, nextCursor.dataEntrega());
+    }
+
+    @Test
+    void testFindPageWithCursorLastPage() {
+        String cursor = new ProdutoEstoqueCursor(DATA_ENTREGA, PRODUTO_ESTOQUE_ID).encode();
+        UUID nextId = UUID.randomUUID();
+
+        when(produtoEstoqueRepository.findPageAfter(eq(DATA_ENTREGA), eq(PRODUTO_ESTOQUE_ID), any()))
+                .thenReturn(Collections.singletonList(createProdutoEstoqueEntity(nextId)));
+
+        ProdutoEstoquePageDTO result = produtoEstoqueServiceImpl.findPage(cursor, 10);
+
+        assertNotNull(result);
+        assertEquals(1, result.getSize());
+        assertFalse(result.getHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(nextId, result.getContent().get(0).getUuid());
+    }
+
+    @Test
+    void testFindPageInvalidCursor() {
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.findPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void testFindPageInvalidSize() {
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.findPage(null, 0));
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.findPage(null, 501));
+    }
+
+    @Test
+    void testFindChangesFromStartWithMore() {
+        when(produtoEstoqueChangeRepository.findChangesAfter(0L, 0L, 3)).thenReturn(List.of(
+                createChange(10L, 1L, ChangeOperation.CREATED),
+                createChange(10L, 2L, ChangeOperation.UPDATED),
+                createChange(12L, 3L, ChangeOperation.DELETED)));
+
+        ProdutoEstoqueChangesDTO result = produtoEstoqueServiceImpl.findChanges(null, 2);
+
+        assertEquals(2, result.getSize());
+        assertTrue(result.getHasMore());
+        assertEquals(ChangeOperation.UPDATED, result.getChanges().get(1).getOperation());
+        assertEquals(PRODUTO_ESTOQUE_ID, result.getChanges().get(1).getUuid());
+        assertEquals(new ProdutoEstoqueChangeToken(10L, 2L), ProdutoEstoqueChangeToken.decode(result.getNextToken()));
+    }
+
+    @Test
+    void testFindChangesEmptyPageKeepsToken() {
+        String since = new ProdutoEstoqueChangeToken(12L, 3L).encode();
+        when(produtoEstoqueChangeRepository.findChangesAfter(12L, 3L, 51)).thenReturn(List.of());
+
+        ProdutoEstoqueChangesDTO result = produtoEstoqueServiceImpl.findChanges(since, null);
+
+        assertEquals(0, result.getSize());
+        assertFalse(result.getHasMore());
+        assertEquals(since, result.getNextToken());
+    }
+
+    @Test
+    void testFindChangesInvalidToken() {
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.findChanges("not-a-token", null));
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.findChanges(null, 0));
+    }
+
+    @Test
+    void testSearchAppliesSortWithIdTieBreaker() {
+        ProdutoEstoqueFilterDTO filter = ProdutoEstoqueFilterDTO.builder().marca("mel").build();
+        PageRequest expectedPageRequest = PageRequest.of(1, 10,
+                Sort.by(Sort.Direction.DESC, "marca").and(Sort.by(Sort.Direction.ASC, "uuid")));
+
+        when(produtoEstoqueRepository.findAll(anySpecification(), eq(expectedPageRequest)))
+                .thenReturn(new PageImpl<>(List.of(createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID)), expectedPageRequest, 21));
+
+        ProdutoEstoqueSearchResultDTO result = produtoEstoqueServiceImpl.search(filter, 1, 10, "marca,desc");
+
+        assertEquals(1, result.getPage());
+        assertEquals(1, result.getSize());
+        assertEquals(21L, result.getTotalElements());
+        assertTrue(result.getHasNext());
+        assertEquals(PRODUTO_ESTOQUE_ID, result.getContent().get(0).getUuid());
+    }
+
+    @Test
+    void testSearchRejectsUnknownSort() {
+        ProdutoEstoqueFilterDTO filter = new ProdutoEstoqueFilterDTO();
+
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.search(filter, 0, 10, "pessoa.nome"));
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.search(filter, 0, 10, "marca,sideways"));
+    }
+
+    @Test
+    void testSearchRejectsInvalidRange() {
+        ProdutoEstoqueFilterDTO filter = ProdutoEstoqueFilterDTO.builder()
+                .dataEntregaInicio(DATA_ENTREGA)
+                .dataEntregaFim(DATA_ENTREGA.minusDays(1))
+                .build();
+
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.search(filter, 0, 10, null));
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.search(new ProdutoEstoqueFilterDTO(), -1, 10, null));
+    }
+
+    @Test
+    void testSummarizeByTipoProdutoAndMonthDefaultsOpenRange() {
+        ProdutoEstoqueMonthlySummaryDTO monthlySummary = new ProdutoEstoqueMonthlySummaryDTO(
+                TIPO_PRODUTO_ID, "Café", 2024, 1, 3L, 12L);
+
+        when(produtoEstoqueRepository.summarizeByTipoProdutoAndMonth(LocalDate.of(1900, 1, 1), DATA_ENTREGA))
+                .thenReturn(List.of(monthlySummary));
+
+        List<ProdutoEstoqueMonthlySummaryDTO> result = produtoEstoqueServiceImpl.summarizeByTipoProdutoAndMonth(null, DATA_ENTREGA);
+
+        assertEquals(1, result.size());
+        assertEquals(12L, result.get(0).getTotalPacotes());
+    }
+
+    @Test
+    void testSummarizeByPessoaRejectsInvalidRange() {
+        assertThrows(InvalidRequestException.class,
+                () -> produtoEstoqueServiceImpl.summarizeByPessoa(DATA_ENTREGA, DATA_ENTREGA.minusDays(1)));
+    }
+
+    @Test
+    void testExportNdjson() throws IOException {
+        when(produtoEstoqueRepository.streamAllRows()).thenReturn(Stream.of(createProdutoEstoqueRowDTO(MARCA)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        produtoEstoqueServiceImpl.export(ExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"uuid\":\"" + PRODUTO_ESTOQUE_ID + "\""));
+        assertTrue(lines[0].contains("\"dataEntrega\":\"" + DATA_ENTREGA + "\""));
+        assertTrue(lines[0].contains("\"pessoaId\":\"" + PESSOA_ID + "\""));
+    }
+
+    @Test
+    void testExportCsvEscapesValues() throws IOException {
+        when(produtoEstoqueRepository.streamAllRows()).thenReturn(Stream.of(createProdutoEstoqueRowDTO("Café, \"Extra\"")));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        produtoEstoqueServiceImpl.export(ExportFormat.CSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("uuid,marca,"));
+        assertTrue(lines[1].startsWith(PRODUTO_ESTOQUE_ID + ",\"Café, \"\"Extra\"\"\",2," + DATA_ENTREGA));
     }
 
     @Test
@@ -117,6 +355,57 @@ class ProdutoEstoqueServiceImplTest {
         assertEquals(PRODUTO_ESTOQUE_ID, result.getUuid());
         assertEquals(MARCA, result.getMarca());
         assertEquals(QUANTIDADE_PACOTE, result.getQuantidadePacote());
+        verify(estoqueTotalService).applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, QUANTIDADE_PACOTE, 1)));
+        verify(produtoEstoqueChangeRepository).insertChanges("CREATED", new UUID[]{PRODUTO_ESTOQUE_ID},
+                new String[]{MARCA}, new Integer[]{QUANTIDADE_PACOTE}, new LocalDate[]{DATA_ENTREGA},
+                new String[]{TAMANHO_PACOTE}, new UUID[]{TIPO_PRODUTO_ID}, new UUID[]{PESSOA_ID});
+    }
+
+    @Test
+    void testSaveBatchReportsPerItemResults() {
+        UUID unknownPessoaId = UUID.randomUUID();
+        ProdutoEstoqueDTO novo = createProdutoEstoqueDTO(null);
+        ProdutoEstoqueDTO existente = createProdutoEstoqueDTO(PRODUTO_ESTOQUE_ID);
+        ProdutoEstoqueDTO pessoaDesconhecida = createProdutoEstoqueDTO(null);
+        pessoaDesconhecida.setPessoa(createPessoaDTO(unknownPessoaId));
+        ProdutoEstoqueDTO semMarca = createProdutoEstoqueDTO(null);
+        semMarca.setMarca(null);
+        ProdutoEstoque existenteEntity = createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID);
+
+        when(pessoaRepository.findAllById(anyIterable())).thenReturn(List.of(createPessoaEntity(PESSOA_ID)));
+        when(tipoProdutoRepository.findAllById(anyIterable())).thenReturn(List.of(createTipoProdutoEntity(TIPO_PRODUTO_ID)));
+        when(produtoEstoqueRepository.findAllById(anyIterable())).thenReturn(List.of(existenteEntity));
+
+        List<ProdutoEstoqueBatchResultDTO> results = produtoEstoqueServiceImpl.saveBatch(
+                Arrays.asList(novo, existente, pessoaDesconhecida, semMarca, null));
+
+        assertEquals(5, results.size());
+        assertEquals(BatchItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BatchItemStatus.UPDATED, results.get(1).getStatus());
+        assertEquals(PRODUTO_ESTOQUE_ID, results.get(1).getUuid());
+        assertEquals(BatchItemStatus.REJECTED, results.get(2).getStatus());
+        assertTrue(results.get(2).getMessage().contains(unknownPessoaId.toString()));
+        assertEquals(BatchItemStatus.REJECTED, results.get(3).getStatus());
+        assertEquals(BatchItemStatus.REJECTED, results.get(4).getStatus());
+        assertEquals(4, results.get(4).getIndex());
+        verify(pessoaRepository).findAllById(anyIterable());
+        verify(tipoProdutoRepository).findAllById(anyIterable());
+        verify(produtoEstoqueRepository).saveAll(anyIterable());
+        verify(estoqueTotalService).applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, QUANTIDADE_PACOTE, 1),
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -QUANTIDADE_PACOTE, -1),
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, QUANTIDADE_PACOTE, 1)));
+        verify(produtoEstoqueChangeRepository).insertChanges(eq("CREATED"), any(), any(), any(), any(), any(), any(), any());
+        verify(produtoEstoqueChangeRepository).insertChanges(eq("UPDATED"), eq(new UUID[]{PRODUTO_ESTOQUE_ID}),
+                any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSaveBatchInvalidSize() {
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.saveBatch(Collections.emptyList()));
+        assertThrows(InvalidRequestException.class, () -> produtoEstoqueServiceImpl.saveBatch(null));
+        verify(produtoEstoqueChangeRepository, never()).insertChanges(any(), any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -132,20 +421,54 @@ class ProdutoEstoqueServiceImplTest {
         TipoProduto tipoProdutoEntity = createTipoProdutoEntity(TIPO_PRODUTO_ID);
         when(tipoProdutoRepository.findById(TIPO_PRODUTO_ID)).thenReturn(Optional.of(tipoProdutoEntity));
 
-        produtoEstoqueServiceImpl.update(PRODUTO_ESTOQUE_ID, produtoEstoqueDTO);
+        produtoEstoqueServiceImpl.update(PRODUTO_ESTOQUE_ID, produtoEstoqueDTO, null);
 
         verify(produtoEstoqueRepository).save(produtoEstoqueEntity);
         assertEquals(MARCA, produtoEstoqueEntity.getMarca());
         assertEquals(QUANTIDADE_PACOTE, produtoEstoqueEntity.getQuantidadePacote());
     }
 
+    @Test
+    void testUpdateRejectsIfMatchFromStaleRelation() {
+        ProdutoEstoque produtoEstoqueEntity = createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID);
+        produtoEstoqueEntity.setVersion(1L);
+        produtoEstoqueEntity.getTipoProduto().setVersion(0L);
+        produtoEstoqueEntity.getPessoa().setVersion(2L);
+
+        when(produtoEstoqueRepository.findById(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.of(produtoEstoqueEntity));
+
+        ProdutoEstoqueDTO produtoEstoqueDTO = createProdutoEstoqueDTO(PRODUTO_ESTOQUE_ID);
+        assertThrows(PreconditionFailedException.class,
+                () -> produtoEstoqueServiceImpl.update(PRODUTO_ESTOQUE_ID, produtoEstoqueDTO, "\"1.0.1\""));
+        verify(produtoEstoqueRepository, never()).save(any());
+        verify(estoqueTotalService, never()).applyDeltas(any());
+    }
+
+    @Test
+    void testUpdateMovesTotalsToNewTipoProduto() {
+        UUID novoTipoProdutoId = UUID.randomUUID();
+        ProdutoEstoqueDTO produtoEstoqueDTO = createProdutoEstoqueDTO(PRODUTO_ESTOQUE_ID);
+        produtoEstoqueDTO.setTipoProduto(createTipoProdutoDTO(novoTipoProdutoId));
+        produtoEstoqueDTO.setQuantidadePacote(5);
+
+        when(produtoEstoqueRepository.findById(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.of(createProdutoEstoqueEntity(PRODUTO_ESTOQUE_ID)));
+        when(pessoaRepository.findById(PESSOA_ID)).thenReturn(Optional.of(createPessoaEntity(PESSOA_ID)));
+        when(tipoProdutoRepository.findById(novoTipoProdutoId)).thenReturn(Optional.of(createTipoProdutoEntity(novoTipoProdutoId)));
+
+        produtoEstoqueServiceImpl.update(PRODUTO_ESTOQUE_ID, produtoEstoqueDTO, null);
+
+        verify(estoqueTotalService).applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -QUANTIDADE_PACOTE, -1),
+                new EstoqueTotalDelta(novoTipoProdutoId, PESSOA_ID, DATA_ENTREGA, 5, 1)));
+    }
+
     @Test
     void testUpdateNotFound() {
         ProdutoEstoqueDTO produtoEstoqueDTO = createProdutoEstoqueDTO(PRODUTO_ESTOQUE_ID);
 
         when(produtoEstoqueRepository.findById(PRODUTO_ESTOQUE_ID)).thenReturn(Optional.empty());
 
-        assertThrows(ProdutoEstoqueException.class, () -> produtoEstoqueServiceImpl.update(PRODUTO_ESTOQUE_ID, produtoEstoqueDTO));
+        assertThrows(ProdutoEstoqueException.class, () -> produtoEstoqueServiceImpl.update(PRODUTO_ESTOQUE_ID, produtoEstoqueDTO, null));
     }
 
     @Test
@@ -157,6 +480,11 @@ class ProdutoEstoqueServiceImplTest {
         produtoEstoqueServiceImpl.delete(PRODUTO_ESTOQUE_ID);
 
         verify(produtoEstoqueRepository).delete(produtoEstoqueEntity);
+        verify(estoqueTotalService).applyDeltas(List.of(
+                new EstoqueTotalDelta(TIPO_PRODUTO_ID, PESSOA_ID, DATA_ENTREGA, -QUANTIDADE_PACOTE, -1)));
+        verify(produtoEstoqueChangeRepository).insertChanges("DELETED", new UUID[]{PRODUTO_ESTOQUE_ID},
+                new String[1], new Integer[1], new LocalDate[1], new String[1],
+                new UUID[]{TIPO_PRODUTO_ID}, new UUID[]{PESSOA_ID});
     }
 
     @Test
@@ -166,6 +494,15 @@ class ProdutoEstoqueServiceImplTest {
         assertThrows(ProdutoEstoqueException.class, () -> produtoEstoqueServiceImpl.delete(PRODUTO_ESTOQUE_ID));
     }
 
+    private ProdutoEstoqueChange createChange(long txId, long seq, ChangeOperation operation) {
+        return ProdutoEstoqueChange.builder()
+                .seq(seq)
+                .txId(txId)
+                .operation(operation)
+                .produtoEstoqueId(PRODUTO_ESTOQUE_ID)
+                .build();
+    }
+
     private ProdutoEstoqueDTO createProdutoEstoqueDTO(UUID uuid) {
         return ProdutoEstoqueDTO.builder()
                 .uuid(uuid)
@@ -178,6 +515,21 @@ class ProdutoEstoqueServiceImplTest {
                 .build();
     }
 
+    private ProdutoEstoqueRowDTO createProdutoEstoqueRowDTO(String marca) {
+        return ProdutoEstoqueRowDTO.builder()
+                .uuid(PRODUTO_ESTOQUE_ID)
+                .marca(marca)
+                .quantidadePacote(QUANTIDADE_PACOTE)
+                .dataEntrega(DATA_ENTREGA)
+                .tamanhoPacote(TAMANHO_PACOTE)
+                .tipoProdutoId(TIPO_PRODUTO_ID)
+                .tipoProdutoNome("Café")
+                .pessoaId(PESSOA_ID)
+                .pessoaNome("Rafael")
+                .pessoaSobrenome("Gabriel")
+                .build();
+    }
+
     private ProdutoEstoque createProdutoEstoqueEntity(UUID uuid) {
         return ProdutoEstoque.builder()
                 .uuid(uuid)
@@ -219,4 +571,9 @@ class ProdutoEstoqueServiceImplTest {
                 .nome("Café")
                 .build();
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private static Specification<ProdutoEstoque> anySpecification() {
+        return any(Specification.class);
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.config.ReferenceCacheEvictor;
+import br.com.controleestoque.config.ResponseBytesCache;
 import br.com.controleestoque.exception.TipoProdutoException;
 import br.com.controleestoque.model.dto.TipoProdutoDTO;
 import br.com.controleestoque.model.entity.TipoProduto;
@@ -28,6 +30,12 @@ class TipoProdutoServiceImplTest {
     @Mock
     private TipoProdutoRepository tipoProdutoRepository;
 
+    @Mock
+    private ReferenceCacheEvictor referenceCacheEvictor;
+
+    @Mock
+    private ResponseBytesCache responseBytesCache;
+
     @InjectMocks
     private TipoProdutoServiceImpl tipoProdutoServiceImpl;
 
@@ -56,6 +64,13 @@ class TipoProdutoServiceImplTest {
         assertThrows(TipoProdutoException.class, () -> tipoProdutoServiceImpl.findById(TIPO_PRODUTO_ID));
     }
 
+    @Test
+    void testFindVersionByIdNotFound() {
+        when(tipoProdutoRepository.findVersionById(TIPO_PRODUTO_ID)).thenReturn(Optional.empty());
+
+        assertThrows(TipoProdutoException.class, () -> tipoProdutoServiceImpl.findVersionById(TIPO_PRODUTO_ID));
+    }
+
     @Test
     void testFindAllSuccess() {
         List<TipoProduto> tipoProdutoList = Collections.singletonList(createTipoProdutoEntity(TIPO_PRODUTO_ID));
@@ -92,6 +107,7 @@ class TipoProdutoServiceImplTest {
         assertNotNull(result);
         assertEquals(TIPO_PRODUTO_ID, result.getUuid());
         assertEquals(NOME_PRODUTO, result.getNome());
+        verify(responseBytesCache).invalidate(ResponseBytesCache.Region.TIPO_PRODUTO);
     }
 
     @Test
@@ -101,10 +117,11 @@ class TipoProdutoServiceImplTest {
 
         when(tipoProdutoRepository.findById(TIPO_PRODUTO_ID)).thenReturn(Optional.of(tipoProdutoEntity));
 
-        tipoProdutoServiceImpl.update(TIPO_PRODUTO_ID, tipoProdutoDTO);
+        tipoProdutoServiceImpl.update(TIPO_PRODUTO_ID, tipoProdutoDTO, null);
 
         verify(tipoProdutoRepository).save(tipoProdutoEntity);
         assertEquals(NOME_PRODUTO, tipoProdutoEntity.getNome());
+        verify(responseBytesCache).invalidate(ResponseBytesCache.Region.TIPO_PRODUTO);
     }
 
     @Test
@@ -113,7 +130,7 @@ class TipoProdutoServiceImplTest {
 
         when(tipoProdutoRepository.findById(TIPO_PRODUTO_ID)).thenReturn(Optional.empty());
 
-        assertThrows(TipoProdutoException.class, () -> tipoProdutoServiceImpl.update(TIPO_PRODUTO_ID, tipoProdutoDTO));
+        assertThrows(TipoProdutoException.class, () -> tipoProdutoServiceImpl.update(TIPO_PRODUTO_ID, tipoProdutoDTO, null));
     }
 
     @Test
@@ -125,6 +142,7 @@ class TipoProdutoServiceImplTest {
         tipoProdutoServiceImpl.delete(TIPO_PRODUTO_ID);
 
         verify(tipoProdutoRepository).delete(tipoProdutoEntity);
+        verify(responseBytesCache).invalidate(ResponseBytesCache.Region.TIPO_PRODUTO);
     }
 
     @Test
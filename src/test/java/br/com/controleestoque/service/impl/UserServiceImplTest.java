@@ -1,19 +1,27 @@
 package br.com.controleestoque.service.impl;
 
+import br.com.controleestoque.exception.InvalidRequestException;
 import br.com.controleestoque.exception.UserException;
+import br.com.controleestoque.exception.PreconditionFailedException;
 import br.com.controleestoque.model.dto.PermissionDTO;
 import br.com.controleestoque.model.dto.UserDTO;
 import br.com.controleestoque.model.entity.Permission;
 import br.com.controleestoque.model.entity.User;
 import br.com.controleestoque.repository.UserRepository;
+import br.com.controleestoque.security.KnownUsernames;
+import br.com.controleestoque.security.PasswordHashingExecutor;
+import br.com.controleestoque.security.jwt.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 
@@ -32,14 +40,24 @@ class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private KnownUsernames knownUsernames;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     private UserServiceImpl userServiceImpl;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userServiceImpl = new UserServiceImpl(userRepository, passwordHashingExecutor, principalCache, knownUsernames,
+                new TransactionTemplate(transactionManager));
     }
 
     @Test
@@ -113,7 +131,7 @@ class UserServiceImplTest {
         UserDTO userDTO = createUserDTO(USER_ID);
         User userEntity = createUserEntity(USER_ID);
 
-        when(passwordEncoder.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
         when(userRepository.save(any(User.class))).thenReturn(userEntity);
 
         UserDTO result = userServiceImpl.create(userDTO);
@@ -121,6 +139,39 @@ class UserServiceImplTest {
         assertNotNull(result);
         assertEquals(USER_ID, result.getUuid());
         assertEquals(USERNAME, result.getUsername());
+        verify(knownUsernames).add(USERNAME);
+    }
+
+    @Test
+    void testCreateHashesBeforeTransaction() {
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+
+        userServiceImpl.create(createUserDTO(USER_ID));
+
+        InOrder inOrder = inOrder(passwordHashingExecutor, transactionManager, userRepository);
+        inOrder.verify(passwordHashingExecutor).encode(PASSWORD);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).save(argThat(user -> ENCODED_PASSWORD.equals(user.getPassword())));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testCreateInTransactionAddsKnownUsernameAfterCommit() {
+        User userEntity = createUserEntity(USER_ID);
+
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+        when(userRepository.save(any(User.class))).thenReturn(userEntity);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userServiceImpl.create(createUserDTO(USER_ID));
+            verify(knownUsernames, never()).add(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(knownUsernames).add(USERNAME);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -129,13 +180,112 @@ class UserServiceImplTest {
         User userEntity = createUserEntity(USER_ID);
 
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
 
-        userServiceImpl.update(USER_ID, userDTO);
+        userServiceImpl.update(USER_ID, userDTO, null);
 
-        verify(userRepository).save(userEntity);
+        InOrder inOrder = inOrder(userRepository, principalCache);
+        inOrder.verify(userRepository).save(userEntity);
+        inOrder.verify(principalCache).invalidate(USERNAME);
         assertEquals(USERNAME, userEntity.getUsername());
         assertEquals(FULL_NAME, userEntity.getFullName());
+        verify(knownUsernames, never()).remove(any());
+    }
+
+    @Test
+    void testUpdateHashesBeforeTransaction() {
+        User userEntity = createUserEntity(USER_ID);
+
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+
+        userServiceImpl.update(USER_ID, createUserDTO(USER_ID), null);
+
+        InOrder inOrder = inOrder(passwordHashingExecutor, transactionManager, userRepository);
+        inOrder.verify(passwordHashingExecutor).encode(PASSWORD);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).findById(USER_ID);
+        assertEquals(ENCODED_PASSWORD, userEntity.getPassword());
+    }
+
+    @Test
+    void testUpdateWithCurrentHashKeepsPasswordWithoutHashing() {
+        User userEntity = createUserEntity(USER_ID);
+        userEntity.setPassword(ENCODED_PASSWORD);
+        UserDTO userDTO = createUserDTO(USER_ID);
+        userDTO.setPassword(ENCODED_PASSWORD);
+
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingExecutor.isEncoded(ENCODED_PASSWORD)).thenReturn(true);
+
+        userServiceImpl.update(USER_ID, userDTO, null);
+
+        verify(passwordHashingExecutor, never()).encode(any());
+        verify(userRepository).save(userEntity);
+        assertEquals(ENCODED_PASSWORD, userEntity.getPassword());
+    }
+
+    @Test
+    void testUpdateWithOtherHashIsRejected() {
+        User userEntity = createUserEntity(USER_ID);
+        userEntity.setPassword(ENCODED_PASSWORD);
+        UserDTO userDTO = createUserDTO(USER_ID);
+        userDTO.setPassword("otherEncodedPassword");
+
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingExecutor.isEncoded("otherEncodedPassword")).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class, () -> userServiceImpl.update(USER_ID, userDTO, null));
+        verify(passwordHashingExecutor, never()).encode(any());
+        verify(userRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testUpdateInTransactionInvalidatesPrincipalAgainAfterCommit() {
+        User userEntity = createUserEntity(USER_ID);
+
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userServiceImpl.update(USER_ID, createUserDTO(USER_ID), null);
+            verify(principalCache, times(1)).invalidate(USERNAME);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(principalCache, times(2)).invalidate(USERNAME);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testUpdateRenameReplacesKnownUsername() {
+        UserDTO userDTO = createUserDTO(USER_ID);
+        userDTO.setUsername("rafael.gabriel");
+        User userEntity = createUserEntity(USER_ID);
+
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingExecutor.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
+
+        userServiceImpl.update(USER_ID, userDTO, null);
+
+        verify(knownUsernames).remove(USERNAME);
+        verify(knownUsernames).add("rafael.gabriel");
+    }
+
+    @Test
+    void testUpdateIfMatchCoversPermissionVersions() {
+        User userEntity = createUserEntity(USER_ID);
+        userEntity.setVersion(4L);
+        userEntity.getPermissions().forEach(permission -> permission.setVersion(1L));
+
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userEntity));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userServiceImpl.update(USER_ID, createUserDTO(USER_ID), "\"4.0\""));
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -144,7 +294,7 @@ class UserServiceImplTest {
 
         when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
 
-        assertThrows(UserException.class, () -> userServiceImpl.update(USER_ID, userDTO));
+        assertThrows(UserException.class, () -> userServiceImpl.update(USER_ID, userDTO, null));
     }
 
     @Test
@@ -155,7 +305,10 @@ class UserServiceImplTest {
 
         userServiceImpl.delete(USER_ID);
 
-        verify(userRepository).delete(userEntity);
+        InOrder inOrder = inOrder(userRepository, principalCache);
+        inOrder.verify(userRepository).delete(userEntity);
+        inOrder.verify(principalCache).invalidate(USERNAME);
+        verify(knownUsernames).remove(USERNAME);
     }
 
     @Test
@@ -0,0 +1,34 @@
+package br.com.controleestoque.util;
+
+import br.com.controleestoque.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagUtilTest {
+
+    @Test
+    void testVersionJoinsParts() {
+        assertEquals("3", ETagUtil.version(3L));
+        assertEquals("1.0.2", ETagUtil.version(1L, 0L, 2L));
+    }
+
+    @Test
+    void testCheckIfMatchWithoutHeaderSkipsVersionLookup() {
+        assertDoesNotThrow(() -> ETagUtil.checkIfMatch(null, () -> fail("version must not be resolved")));
+        assertDoesNotThrow(() -> ETagUtil.checkIfMatch(" ", () -> fail("version must not be resolved")));
+    }
+
+    @Test
+    void testCheckIfMatchAcceptsWildcardAndLists() {
+        assertDoesNotThrow(() -> ETagUtil.checkIfMatch("*", () -> "7"));
+        assertDoesNotThrow(() -> ETagUtil.checkIfMatch("\"6\", \"7\"", () -> "7"));
+    }
+
+    @Test
+    void testCheckIfMatchRejectsStaleAndWeakETags() {
+        assertThrows(PreconditionFailedException.class, () -> ETagUtil.checkIfMatch("\"6\"", () -> "7"));
+        assertThrows(PreconditionFailedException.class, () -> ETagUtil.checkIfMatch("W/\"7\"", () -> "7"));
+        assertThrows(PreconditionFailedException.class, () -> ETagUtil.checkIfMatch("7", () -> "7"));
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.controleestoque.util;
+
+import br.com.controleestoque.controller.PessoaController;
+import br.com.controleestoque.controller.ProdutoEstoqueController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class HateoasLinkFactoryTest {
+
+    private static final HateoasLinkFactory<ProdutoEstoqueController> PRODUTO_LINK =
+            HateoasLinkFactory.of(ProdutoEstoqueController.class, (controller, id) -> controller.findById(id, null));
+    private static final HateoasLinkFactory<PessoaController> PESSOA_LINK =
+            HateoasLinkFactory.of(PessoaController.class, (controller, id) -> controller.findById(id, null));
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testSelfLinkMatchesLinkToWithinRequest() {
+        bindRequest("api.example.com", 443, "https");
+        UUID id = UUID.randomUUID();
+
+        Link expected = linkTo(methodOn(ProdutoEstoqueController.class).findById(id, null)).withSelfRel();
+        Link actual = PRODUTO_LINK.selfLink(id);
+
+        assertEquals(expected.getHref(), actual.getHref());
+        assertEquals(IanaLinkRelations.SELF, actual.getRel());
+        assertTrue(actual.getHref().startsWith("https://api.example.com/"));
+    }
+
+    @Test
+    void testSelfLinkMatchesLinkToWithoutRequest() {
+        UUID id = UUID.randomUUID();
+
+        Link expected = linkTo(methodOn(PessoaController.class).findById(id, null)).withSelfRel();
+
+        assertEquals(expected.getHref(), PESSOA_LINK.selfLink(id).getHref());
+    }
+
+    @Test
+    void testTemplateIsCachedPerRequestAndPerController() {
+        RequestAttributes requestAttributes = bindRequest("localhost", 8080, "http");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        String produtoHref = PRODUTO_LINK.selfLink(first).getHref();
+        String pessoaHref = PESSOA_LINK.selfLink(first).getHref();
+
+        assertEquals(2, Arrays.stream(requestAttributes.getAttributeNames(RequestAttributes.SCOPE_REQUEST))
+                .filter(name -> name.startsWith(HateoasLinkFactory.class.getName()))
+                .count());
+        assertEquals(produtoHref.replace(first.toString(), second.toString()), PRODUTO_LINK.selfLink(second).getHref());
+        assertNotEquals(produtoHref, pessoaHref);
+    }
+
+    @Test
+    void testTemplateFollowsNewRequest() {
+        UUID id = UUID.randomUUID();
+        bindRequest("first.example.com", 80, "http");
+        PRODUTO_LINK.selfLink(id);
+
+        bindRequest("second.example.com", 80, "http");
+
+        assertTrue(PRODUTO_LINK.selfLink(id).getHref().startsWith("http://second.example.com/"));
+    }
+
+    private RequestAttributes bindRequest(String serverName, int port, String scheme) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produto-estoque/");
+        request.setServerName(serverName);
+        request.setServerPort(port);
+        request.setScheme(scheme);
+        RequestAttributes requestAttributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        return requestAttributes;
+    }
+}